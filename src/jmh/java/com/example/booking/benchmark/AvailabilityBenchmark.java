@@ -0,0 +1,124 @@
+package com.example.booking.benchmark;
+
+import com.example.booking.cache.AvailabilityCache;
+import com.example.booking.dto.AvailableDatesDTO;
+import com.example.booking.index.OccupancyIndex;
+import com.example.booking.model.Booking;
+import com.example.booking.repository.BookingJdbcRepository;
+import com.example.booking.repository.VersionedBookedDaysConsumer;
+import com.example.booking.service.AvailabilityService;
+import com.example.booking.transformer.AvailableDateRangeTransformer;
+import com.example.booking.validation.BookingRules;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.Math.toIntExact;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link AvailabilityService#availabilityFor} over the whole span of the synthetic bookings, with
+ * the repository mocked so only the in-process work is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AvailabilityBenchmark {
+
+  @Param({"10", "1000", "100000"})
+  private int bookings;
+
+  private AvailabilityService rangeSetAvailability;
+
+  private AvailabilityService occupancyIndexAvailability;
+
+  private AvailabilityService cachedAvailability;
+
+  private LocalDate from;
+
+  private LocalDate to;
+
+  @Setup
+  public void setUp() {
+    List<Booking> booked = SyntheticBookings.generate(this.bookings);
+    this.from = SyntheticBookings.FIRST_NIGHT;
+    this.to = SyntheticBookings.lastNight(booked);
+
+    BookingJdbcRepository bookingJdbcRepository = Mockito.mock(BookingJdbcRepository.class);
+    when(bookingJdbcRepository.findResourceIds())
+        .thenReturn(Collections.singletonList(Booking.DEFAULT_RESOURCE_ID));
+    doAnswer(
+            invocation -> {
+              VersionedBookedDaysConsumer bookedDaysConsumer = invocation.getArgument(3);
+              for (Booking booking : booked) {
+                bookedDaysConsumer.accept(
+                    booking.getId(),
+                    0L,
+                    toIntExact(booking.getBookingDateRange().lower().toEpochDay()),
+                    toIntExact(booking.getBookingDateRange().upper().toEpochDay()) - 1);
+              }
+              return null;
+            })
+        .when(bookingJdbcRepository)
+        .forEachBookedDaysOnPrimary(any(), any(), any(), any());
+    int horizonDays = (int) ChronoUnit.DAYS.between(LocalDate.now(), this.to) + 1;
+
+    // a one day horizon never covers the window, so every call builds and complements an
+    // EpochDayRangeSet
+    this.rangeSetAvailability = this.availabilityService(bookingJdbcRepository, 1, 0);
+    this.occupancyIndexAvailability =
+        this.availabilityService(bookingJdbcRepository, horizonDays, 0);
+    // windows inside the horizon are sliced from the occupancy snapshot, the cache only answers
+    // beyond it
+    this.cachedAvailability = this.availabilityService(bookingJdbcRepository, 1, Long.MAX_VALUE);
+  }
+
+  @Benchmark
+  public AvailableDatesDTO rangeSet() {
+    return this.rangeSetAvailability.availabilityFor(
+        Booking.DEFAULT_RESOURCE_ID, this.from, this.to);
+  }
+
+  @Benchmark
+  public AvailableDatesDTO occupancyIndex() {
+    return this.occupancyIndexAvailability.availabilityFor(
+        Booking.DEFAULT_RESOURCE_ID, this.from, this.to);
+  }
+
+  @Benchmark
+  public AvailableDatesDTO cached() {
+    return this.cachedAvailability.availabilityFor(Booking.DEFAULT_RESOURCE_ID, this.from, this.to);
+  }
+
+  private AvailabilityService availabilityService(
+      BookingJdbcRepository bookingJdbcRepository, int horizonDays, long cacheWeight) {
+    OccupancyIndex occupancyIndex = new OccupancyIndex(bookingJdbcRepository, horizonDays);
+    occupancyIndex.rebuild();
+    return new AvailabilityService(
+        new AvailableDateRangeTransformer(),
+        occupancyIndex,
+        new AvailabilityCache(cacheWeight),
+        bookingJdbcRepository,
+        BookingRules.defaults());
+  }
+}
@@ -0,0 +1,41 @@
+package com.example.booking.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * Fires availability requests with a fixed number in flight against a running instance and prints
+ * throughput and latency percentiles, to compare {@code booking.execution.mode=blocking} against
+ * {@code async} under the same servlet thread count.
+ *
+ * <p>Arguments: base url, requests in flight, total requests.
+ */
+public final class AvailabilityLoadTest {
+
+  private AvailabilityLoadTest() {}
+
+  public static void main(String[] args) throws Exception {
+    String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+    int inFlight = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+    int total = args.length > 2 ? Integer.parseInt(args[2]) : 50000;
+
+    LoadGenerator.run(
+        inFlight,
+        total,
+        i -> {
+          // windows spread over the occupancy horizon, and a tail beyond it that goes to the
+          // database
+          LocalDate from = LocalDate.now().plusDays(1 + i % 500);
+          return HttpRequest.newBuilder(
+                  URI.create(
+                      String.format(
+                          "%s/availability?from=%s&to=%s", baseUrl, from, from.plusDays(30))))
+              .timeout(Duration.ofSeconds(60))
+              .GET()
+              .build();
+        },
+        status -> status == 200);
+  }
+}
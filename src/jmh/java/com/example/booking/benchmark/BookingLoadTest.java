@@ -0,0 +1,63 @@
+package com.example.booking.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * Fires booking writes with a fixed number in flight against a running instance and prints
+ * throughput and latency percentiles, to compare the default configuration against the {@code
+ * high-throughput} profile. Every third request is a batch of ten bookings, the others single
+ * bookings, spread over many resources; a booking refused for overlapping another still counts as
+ * served.
+ *
+ * <p>Arguments: base url, requests in flight, total requests.
+ */
+public final class BookingLoadTest {
+
+  private static final int RESOURCES = 10_000;
+
+  private static final int BATCH_SIZE = 10;
+
+  private BookingLoadTest() {}
+
+  public static void main(String[] args) throws Exception {
+    String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+    int inFlight = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+    int total = args.length > 2 ? Integer.parseInt(args[2]) : 20000;
+    long run = System.currentTimeMillis();
+
+    LoadGenerator.run(
+        inFlight,
+        total,
+        i -> {
+          if (i % 3 == 0) {
+            StringBuilder batch = new StringBuilder("[");
+            for (int item = 0; item < BATCH_SIZE; item++) {
+              batch.append(item == 0 ? "" : ",").append(booking(run, i * BATCH_SIZE + item));
+            }
+            return post(baseUrl + "/booking/batch", batch.append(']').toString());
+          }
+          return post(baseUrl + "/booking", booking(run, i));
+        },
+        status -> status == 200 || status == 201 || status == 409);
+  }
+
+  /** A night or two on one of many resources, within the bookable month. */
+  private static String booking(long run, int i) {
+    LocalDate arrival = LocalDate.now().plusDays(2 + i % 25);
+    return String.format(
+        "{\"name\":\"load %s\",\"email\":\"load%s@mail.com\",\"arrivalDate\":\"%s\","
+            + "\"departureDate\":\"%s\",\"resourceId\":%s}",
+        run, i, arrival, arrival.plusDays(1 + i % 2), 1 + (run + i) % RESOURCES);
+  }
+
+  private static HttpRequest post(String uri, String body) {
+    return HttpRequest.newBuilder(URI.create(uri))
+        .timeout(Duration.ofSeconds(60))
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(body))
+        .build();
+  }
+}
@@ -0,0 +1,87 @@
+package com.example.booking.benchmark;
+
+import com.example.booking.request.CreateBookingRequestBody;
+import com.example.booking.validation.BookingRuleViolation;
+import com.example.booking.validation.BookingRules;
+import com.example.booking.validation.DateValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BookingRules} and {@link DateValidator} on their own, and the whole Bean Validation pass a
+ * request body goes through before reaching the controller.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateValidatorBenchmark {
+
+  private final DateValidator dateValidator = new DateValidator();
+
+  private ValidatorFactory validatorFactory;
+
+  private Validator validator;
+
+  private CreateBookingRequestBody validRequest;
+
+  private CreateBookingRequestBody tooLongRequest;
+
+  @Setup
+  public void setUp() {
+    this.validatorFactory = Validation.buildDefaultValidatorFactory();
+    this.validator = this.validatorFactory.getValidator();
+    this.validRequest =
+        new CreateBookingRequestBody(
+            "test name", "mail@mail.com", LocalDate.now().plusDays(2), LocalDate.now().plusDays(3));
+    this.tooLongRequest =
+        new CreateBookingRequestBody(
+            "test name", "mail@mail.com", LocalDate.now().plusDays(2), LocalDate.now().plusDays(9));
+  }
+
+  @TearDown
+  public void tearDown() {
+    this.validatorFactory.close();
+  }
+
+  /** A valid request never touches the context, so none is needed. */
+  @Benchmark
+  public boolean isValid() {
+    return this.dateValidator.isValid(this.validRequest, null);
+  }
+
+  @Benchmark
+  public BookingRuleViolation evaluateInvalidRequest() {
+    return BookingRules.defaults()
+        .evaluate(this.tooLongRequest.getArrivalDate(), this.tooLongRequest.getDepartureDate());
+  }
+
+  @Benchmark
+  public Set<ConstraintViolation<CreateBookingRequestBody>> validateValidRequest() {
+    return this.validator.validate(this.validRequest);
+  }
+
+  @Benchmark
+  public Set<ConstraintViolation<CreateBookingRequestBody>> validateInvalidRequest() {
+    return this.validator.validate(this.tooLongRequest);
+  }
+}
@@ -0,0 +1,78 @@
+package com.example.booking.benchmark;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+
+/**
+ * Sends requests with a fixed number in flight against a running instance and prints throughput and
+ * latency percentiles.
+ */
+final class LoadGenerator {
+
+  private LoadGenerator() {}
+
+  /**
+   * @param requests builds the i-th request.
+   * @param expectedStatus whether a status code counts as served rather than failed.
+   */
+  static void run(
+      int inFlight, int total, IntFunction<HttpRequest> requests, IntPredicate expectedStatus)
+      throws InterruptedException {
+    HttpClient client =
+        HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    Semaphore permits = new Semaphore(inFlight);
+    long[] latencies = new long[total];
+    AtomicInteger failures = new AtomicInteger();
+    CompletableFuture<?>[] responses = new CompletableFuture<?>[total];
+
+    long started = System.nanoTime();
+    for (int i = 0; i < total; i++) {
+      HttpRequest request = requests.apply(i);
+      permits.acquire();
+      int index = i;
+      long sent = System.nanoTime();
+      responses[i] =
+          client
+              .sendAsync(request, HttpResponse.BodyHandlers.discarding())
+              .whenComplete(
+                  (response, ex) -> {
+                    latencies[index] = System.nanoTime() - sent;
+                    if (ex != null || !expectedStatus.test(response.statusCode())) {
+                      failures.incrementAndGet();
+                    }
+                    permits.release();
+                  });
+    }
+    CompletableFuture.allOf(responses).exceptionally(ex -> null).join();
+    long elapsed = System.nanoTime() - started;
+
+    Arrays.sort(latencies);
+    System.out.println(
+        String.format(
+            "%s requests, %s in flight: %.0f req/s, p50 %.1f ms, p99 %.1f ms, max %.1f ms, %s"
+                + " failed",
+            total,
+            inFlight,
+            total / (elapsed / 1e9),
+            percentile(latencies, 0.50),
+            percentile(latencies, 0.99),
+            latencies[total - 1] / 1e6,
+            failures.get()));
+  }
+
+  private static double percentile(long[] sorted, double percentile) {
+    return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)]
+        / 1e6;
+  }
+}
@@ -0,0 +1,79 @@
+package com.example.booking.benchmark;
+
+import com.example.booking.helper.EpochDayRangeSet;
+import com.example.booking.model.Booking;
+import com.google.common.collect.ImmutableRangeSet;
+import com.google.common.collect.Range;
+import com.google.common.collect.RangeSet;
+import com.google.common.collect.TreeRangeSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Free ranges of a window from its booked epoch days, through a Guava {@link RangeSet} of dates and
+ * through an {@link EpochDayRangeSet}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RangeSetBenchmark {
+
+  @Param({"10", "1000", "100000"})
+  private int bookings;
+
+  private int[] bookedDays;
+
+  private int fromDay;
+
+  private int toDay;
+
+  @Setup
+  public void setUp() {
+    List<Booking> booked = SyntheticBookings.generate(this.bookings);
+    this.bookedDays = SyntheticBookings.bookedDays(booked).toArray();
+    this.fromDay = (int) SyntheticBookings.FIRST_NIGHT.toEpochDay();
+    this.toDay = (int) SyntheticBookings.lastNight(booked).toEpochDay();
+  }
+
+  @Benchmark
+  public RangeSet<LocalDate> guavaRangeSet() {
+    RangeSet<LocalDate> rangeSet = TreeRangeSet.create();
+    for (int i = 0; i < this.bookedDays.length; i += 2) {
+      rangeSet.add(
+          Range.closed(
+              LocalDate.ofEpochDay(this.bookedDays[i]),
+              LocalDate.ofEpochDay(this.bookedDays[i + 1])));
+    }
+    return ImmutableRangeSet.copyOf(
+        rangeSet
+            .complement()
+            .subRangeSet(
+                Range.closed(
+                    LocalDate.ofEpochDay(this.fromDay), LocalDate.ofEpochDay(this.toDay))));
+  }
+
+  @Benchmark
+  public int[] epochDayRangeSet() {
+    EpochDayRangeSet rangeSet = new EpochDayRangeSet(this.bookedDays.length / 2);
+    for (int i = 0; i < this.bookedDays.length; i += 2) {
+      rangeSet.add(this.bookedDays[i], this.bookedDays[i + 1]);
+    }
+    return rangeSet.complement(this.fromDay, this.toDay).toArray();
+  }
+}
@@ -0,0 +1,73 @@
+package com.example.booking.benchmark;
+
+import com.example.booking.dto.AvailableDateDTO;
+import com.example.booking.dto.AvailableDatesDTO;
+import com.example.booking.dto.BookingDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Response bodies written by an {@link ObjectMapper} configured the way Spring Boot does it. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+  @Param({"10", "1000", "100000"})
+  private int availableDates;
+
+  private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+  private AvailableDatesDTO availableDatesDTO;
+
+  private BookingDTO bookingDTO;
+
+  @Setup
+  public void setUp() {
+    List<AvailableDateDTO> dates = new ArrayList<>(this.availableDates);
+    LocalDate from = SyntheticBookings.FIRST_NIGHT;
+    for (int i = 0; i < this.availableDates; i++) {
+      dates.add(AvailableDateDTO.builder().from(from).to(from.plusDays(1)).build());
+      from = from.plusDays(4);
+    }
+    this.availableDatesDTO = AvailableDatesDTO.builder().availableDates(dates).build();
+    this.bookingDTO =
+        BookingDTO.builder()
+            .id(1L)
+            .name("test name")
+            .email("mail@mail.com")
+            .arrivalDate(SyntheticBookings.FIRST_NIGHT)
+            .departureDate(SyntheticBookings.FIRST_NIGHT.plusDays(2))
+            .status("ACTIVE")
+            .build();
+  }
+
+  @Benchmark
+  public byte[] availableDates() throws JsonProcessingException {
+    return this.objectMapper.writeValueAsBytes(this.availableDatesDTO);
+  }
+
+  @Benchmark
+  public byte[] booking() throws JsonProcessingException {
+    return this.objectMapper.writeValueAsBytes(this.bookingDTO);
+  }
+}
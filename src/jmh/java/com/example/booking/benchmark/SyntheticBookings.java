@@ -0,0 +1,58 @@
+package com.example.booking.benchmark;
+
+import com.example.booking.helper.EpochDayRangeSet;
+import com.example.booking.model.Booking;
+import com.example.booking.model.BookingStatus;
+import com.vladmihalcea.hibernate.type.range.Range;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/** Deterministic, non overlapping bookings laid out like the ones read back from Postgres. */
+final class SyntheticBookings {
+
+  static final LocalDate FIRST_NIGHT = LocalDate.now().plusDays(2);
+
+  private SyntheticBookings() {}
+
+  /** Bookings of 1 to 3 nights, each followed by 0 to 2 free nights. */
+  static List<Booking> generate(int count) {
+    Random random = new Random(42);
+    List<Booking> bookings = new ArrayList<>(count);
+    LocalDate arrival = FIRST_NIGHT;
+    for (int i = 0; i < count; i++) {
+      LocalDate departure = arrival.plusDays(random.nextInt(3));
+      // postgres hands daterange back in its canonical [lower, upper) form
+      Booking booking =
+          new Booking(
+              Booking.DEFAULT_RESOURCE_ID,
+              "user " + i,
+              "user" + i + "@mail.com",
+              BookingStatus.ACTIVE,
+              Range.closedOpen(arrival, departure.plusDays(1)));
+      booking.setId((long) i + 1);
+      booking.setVersion(0L);
+      bookings.add(booking);
+      arrival = departure.plusDays(1 + random.nextInt(3));
+    }
+    return bookings;
+  }
+
+  /** Nights held by the bookings, as epoch days. */
+  static EpochDayRangeSet bookedDays(List<Booking> bookings) {
+    EpochDayRangeSet booked = new EpochDayRangeSet(bookings.size());
+    for (Booking booking : bookings) {
+      booked.add(
+          (int) booking.getBookingDateRange().lower().toEpochDay(),
+          (int) booking.getBookingDateRange().upper().toEpochDay() - 1);
+    }
+    return booked;
+  }
+
+  /** Last night of the last generated booking. */
+  static LocalDate lastNight(List<Booking> bookings) {
+    return bookings.get(bookings.size() - 1).getBookingDateRange().upper().minusDays(1);
+  }
+}
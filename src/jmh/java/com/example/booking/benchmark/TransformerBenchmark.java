@@ -0,0 +1,66 @@
+package com.example.booking.benchmark;
+
+import com.example.booking.dto.AvailableDatesDTO;
+import com.example.booking.dto.BookingDTO;
+import com.example.booking.model.Booking;
+import com.example.booking.transformer.AvailableDateRangeTransformer;
+import com.example.booking.transformer.BookingTransformer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Entity and free range conversions to DTOs, free ranges being the gaps between bookings. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransformerBenchmark {
+
+  @Param({"10", "1000", "100000"})
+  private int bookings;
+
+  private final AvailableDateRangeTransformer availableDateRangeTransformer =
+      new AvailableDateRangeTransformer();
+
+  private final BookingTransformer bookingTransformer = new BookingTransformer();
+
+  private int[] freeEpochDays;
+
+  private Booking booking;
+
+  @Setup
+  public void setUp() {
+    List<Booking> booked = SyntheticBookings.generate(this.bookings);
+    this.freeEpochDays =
+        SyntheticBookings.bookedDays(booked)
+            .complement(
+                (int) SyntheticBookings.FIRST_NIGHT.toEpochDay(),
+                (int) SyntheticBookings.lastNight(booked).toEpochDay())
+            .toArray();
+
+    this.booking = booked.get(0);
+  }
+
+  @Benchmark
+  public AvailableDatesDTO availableEpochDays() {
+    return this.availableDateRangeTransformer.transform(this.freeEpochDays);
+  }
+
+  @Benchmark
+  public BookingDTO booking() {
+    return this.bookingTransformer.transform(this.booking);
+  }
+}
@@ -1,5 +1,6 @@
 package com.example.booking;
 
+import com.example.booking.export.BookingExportApplication;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
@@ -7,6 +8,10 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 public class BookingApplication {
 
   public static void main(String[] args) {
+    if (BookingExportApplication.isRequested(args)) {
+      BookingExportApplication.main(args);
+      return;
+    }
     SpringApplication.run(BookingApplication.class, args);
   }
 }
@@ -2,6 +2,7 @@ package com.example.booking.advice;
 
 import com.example.booking.dto.ErrorResponseDTO;
 import com.example.booking.exception.BookingNotFoundException;
+import com.example.booking.exception.IdempotencyKeyReusedException;
 import com.example.booking.exception.InvalidBookingStateException;
 import com.example.booking.exception.UnavailableBookingDateException;
 import lombok.extern.slf4j.Slf4j;
@@ -22,6 +23,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeoutException;
 
 @ControllerAdvice
@@ -50,6 +52,13 @@ public class ControllerExceptionHandler extends ResponseEntityExceptionHandler {
         ex, this.build(ex), new HttpHeaders(), HttpStatus.CONFLICT, request);
   }
 
+  @ExceptionHandler(value = {IdempotencyKeyReusedException.class})
+  protected ResponseEntity<Object> handleIdempotencyKeyReusedException(
+      IdempotencyKeyReusedException ex, WebRequest request) {
+    return this.handleExceptionInternal(
+        ex, this.build(ex), new HttpHeaders(), HttpStatus.UNPROCESSABLE_ENTITY, request);
+  }
+
   @ExceptionHandler({ConstraintViolationException.class})
   public ResponseEntity<Object> handleConstraintViolationException(
       ConstraintViolationException ex, WebRequest request) {
@@ -126,6 +135,14 @@ public class ControllerExceptionHandler extends ResponseEntityExceptionHandler {
         ex, this.build(ex), new HttpHeaders(), HttpStatus.REQUEST_TIMEOUT, request);
   }
 
+  @ExceptionHandler({RejectedExecutionException.class})
+  public ResponseEntity<Object> handleRejectedExecutionException(
+      RejectedExecutionException ex, WebRequest request) {
+    log.warn("Request rejected, request queue is full");
+    return this.handleExceptionInternal(
+        ex, this.build(ex), new HttpHeaders(), HttpStatus.SERVICE_UNAVAILABLE, request);
+  }
+
   @ExceptionHandler({Exception.class})
   public ResponseEntity<Object> handleGenericException(Exception ex, WebRequest request) {
     log.error(ex.getCause().getMessage(), ex);
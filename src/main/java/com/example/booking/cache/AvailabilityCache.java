@@ -0,0 +1,134 @@
+package com.example.booking.cache;
+
+import com.example.booking.dto.AvailabilityCacheStatsDTO;
+import com.example.booking.dto.AvailableDatesDTO;
+import com.example.booking.event.BookingChangedEvent;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Availability results by resource and date window, for windows reaching beyond the occupancy
+ * horizon, bounded by the number of free ranges held. Entries of the changed resource overlapping a
+ * booking change are dropped once its transaction commits, a rolled back change leaves the cache
+ * untouched. The windows cached are also indexed by resource, so a change only looks at the windows
+ * of its own resource, however many other resources have entries.
+ */
+@Component
+public class AvailabilityCache implements MeterBinder {
+
+  private final Cache<AvailabilityWindow, AvailableDatesDTO> cache;
+
+  /**
+   * Cached windows of each resource, with the result last cached for them, indexed before it is
+   * cached. A window leaves the index when the cache drops that very result, so never while a newer
+   * result is cached for the same window.
+   */
+  private final ConcurrentMap<Long, ConcurrentMap<AvailabilityWindow, AvailableDatesDTO>>
+      windowsByResource = new ConcurrentHashMap<>();
+
+  /**
+   * Bumped on every invalidation of a resource, so results computed before it are not cached after
+   * it.
+   */
+  private final ConcurrentMap<Long, AtomicLong> generations = new ConcurrentHashMap<>();
+
+  public AvailabilityCache(
+      @Value("${booking.availability.cache.maximum-weight:100000}") long maximumWeight) {
+    this.cache =
+        CacheBuilder.newBuilder()
+            .maximumWeight(maximumWeight)
+            .weigher(
+                (AvailabilityWindow window, AvailableDatesDTO availableDates) ->
+                    1 + availableDates.getAvailableDates().size())
+            .removalListener(
+                (RemovalNotification<AvailabilityWindow, AvailableDatesDTO> notification) -> {
+                  if (notification.getCause() != RemovalCause.REPLACED) {
+                    this.windows(notification.getKey().getResourceId())
+                        .remove(notification.getKey(), notification.getValue());
+                  }
+                })
+            .recordStats()
+            .build();
+  }
+
+  public AvailableDatesDTO get(
+      Long resourceId,
+      LocalDate from,
+      LocalDate to,
+      Supplier<AvailableDatesDTO> availableDatesSupplier) {
+    AvailabilityWindow window = new AvailabilityWindow(resourceId, from, to);
+    AvailableDatesDTO availableDates = this.cache.getIfPresent(window);
+    if (availableDates != null) {
+      return availableDates;
+    }
+    AtomicLong generation = this.generation(resourceId);
+    long computedAt = generation.get();
+    availableDates = availableDatesSupplier.get();
+    this.windows(resourceId).put(window, availableDates);
+    this.cache.put(window, availableDates);
+    if (generation.get() != computedAt) {
+      this.cache.invalidate(window);
+    }
+    return availableDates;
+  }
+
+  /** Changes replayed from other instances arrive outside any transaction and apply at once. */
+  @Order(Ordered.LOWEST_PRECEDENCE)
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onBookingChanged(BookingChangedEvent event) {
+    this.generation(event.getResourceId()).incrementAndGet();
+    this.windows(event.getResourceId()).keySet().stream()
+        .filter(
+            window ->
+                (event.hasPreviousRange()
+                        && window.overlaps(event.getPreviousFrom(), event.getPreviousTo()))
+                    || (event.hasRange() && window.overlaps(event.getFrom(), event.getTo())))
+        .forEach(this.cache::invalidate);
+  }
+
+  /** Drops every entry, for when changes may have been missed. */
+  public void invalidateAll() {
+    this.generations.values().forEach(AtomicLong::incrementAndGet);
+    this.cache.invalidateAll();
+  }
+
+  private ConcurrentMap<AvailabilityWindow, AvailableDatesDTO> windows(Long resourceId) {
+    return this.windowsByResource.computeIfAbsent(resourceId, id -> new ConcurrentHashMap<>());
+  }
+
+  private AtomicLong generation(Long resourceId) {
+    return this.generations.computeIfAbsent(resourceId, id -> new AtomicLong());
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    GuavaCacheMetrics.monitor(registry, this.cache, "availability");
+  }
+
+  public AvailabilityCacheStatsDTO stats() {
+    CacheStats stats = this.cache.stats();
+    return AvailabilityCacheStatsDTO.builder()
+        .size(this.cache.size())
+        .hitCount(stats.hitCount())
+        .missCount(stats.missCount())
+        .evictionCount(stats.evictionCount())
+        .build();
+  }
+}
@@ -0,0 +1,22 @@
+package com.example.booking.cache;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDate;
+
+/** Closed date window of a resource an availability result was computed for. */
+@Getter
+@EqualsAndHashCode
+@RequiredArgsConstructor
+public class AvailabilityWindow {
+
+  private final Long resourceId;
+  private final LocalDate from;
+  private final LocalDate to;
+
+  public boolean overlaps(LocalDate otherFrom, LocalDate otherTo) {
+    return !from.isAfter(otherTo) && !otherFrom.isAfter(to);
+  }
+}
@@ -1,16 +1,23 @@
 package com.example.booking.configuration;
 
+import com.example.booking.validation.BookingPolicy;
+import com.example.booking.validation.BookingRules;
 import com.google.common.base.Predicates;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import springfox.documentation.builders.PathSelectors;
 import springfox.documentation.builders.RequestHandlerSelectors;
 import springfox.documentation.spi.DocumentationType;
 import springfox.documentation.spring.web.plugins.Docket;
 import springfox.documentation.swagger2.annotations.EnableSwagger2;
 
+import java.time.Clock;
+
 @Configuration
 @EnableSwagger2
+@EnableScheduling
 public class BookingAppConfig {
 
   @Bean
@@ -22,4 +29,15 @@ public class BookingAppConfig {
         .paths(Predicates.not(PathSelectors.regex("/error.*")))
         .build();
   }
+
+  /** Starting limits of the booking policy, {@code /actuator/bookingrules} changes them live. */
+  @Bean
+  public BookingRules bookingRules(
+      @Value("${booking.rules.max-nights:3}") int maxNights,
+      @Value("${booking.rules.max-anticipation-months:1}") int maxAnticipationMonths,
+      @Value("${booking.rules.min-lead-days:1}") int minLeadDays) {
+    return new BookingRules(
+        new BookingPolicy(maxNights, maxAnticipationMonths, minLeadDays),
+        Clock.systemDefaultZone());
+  }
 }
@@ -0,0 +1,25 @@
+package com.example.booking.configuration;
+
+import com.example.booking.datasource.PoolSizeByCores;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+
+/**
+ * Settings of the {@code high-throughput} profile that depend on the host, the rest is in {@code
+ * application-high-throughput.properties}.
+ */
+@Configuration
+@Profile("high-throughput")
+public class HighThroughputConfig {
+
+  /** A pool size set in {@code spring.datasource.hikari.maximum-pool-size} takes precedence. */
+  @Bean
+  @ConditionalOnExpression("'${spring.datasource.hikari.maximum-pool-size:}'.isEmpty()")
+  public static PoolSizeByCores poolSizeByCores(Environment environment) {
+    return new PoolSizeByCores(
+        environment.getProperty("booking.datasource.connections-per-core", Integer.class, 2));
+  }
+}
@@ -0,0 +1,32 @@
+package com.example.booking.configuration;
+
+import com.example.booking.validation.BookingRulesEndpoint;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
+import org.springframework.security.config.http.SessionCreationPolicy;
+
+/**
+ * Guards {@code /actuator/bookingrules} with HTTP basic authentication, for users with the {@code
+ * BOOKING_ADMIN} role ({@code spring.security.user.*}). Every other request, the booking API
+ * included, is left as before.
+ */
+@Configuration
+public class ManagementSecurityConfig extends WebSecurityConfigurerAdapter {
+
+  public static final String BOOKING_ADMIN = "BOOKING_ADMIN";
+
+  @Override
+  protected void configure(HttpSecurity http) throws Exception {
+    http.requestMatcher(EndpointRequest.to(BookingRulesEndpoint.class))
+        .authorizeRequests(requests -> requests.anyRequest().hasRole(BOOKING_ADMIN))
+        .httpBasic()
+        .and()
+        .sessionManagement()
+        .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+        .and()
+        .csrf()
+        .disable();
+  }
+}
@@ -0,0 +1,101 @@
+package com.example.booking.configuration;
+
+import com.example.booking.datasource.ReadReplicaRoutingDataSource;
+import com.example.booking.datasource.ReplicaSet;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the single data source with one routing read-only transactions to the replicas listed in
+ * {@code booking.datasource.replica.urls}, when there are any.
+ */
+@Configuration
+@ConditionalOnProperty("booking.datasource.replica.urls")
+public class ReadReplicaConfig {
+
+  @Value("${booking.datasource.replica.urls}")
+  private String[] replicaUrls;
+
+  @Value("${booking.datasource.replica.username:${spring.datasource.username}}")
+  private String replicaUsername;
+
+  @Value("${booking.datasource.replica.password:${spring.datasource.password}}")
+  private String replicaPassword;
+
+  @Value("${booking.datasource.replica.maximum-pool-size:10}")
+  private int replicaMaximumPoolSize;
+
+  @Value("${booking.datasource.replica.max-lag-ms:5000}")
+  private long maxLagMillis;
+
+  @Value("${booking.datasource.replica.lag-check-interval-ms:1000}")
+  private long lagCheckIntervalMillis;
+
+  @Value("${booking.datasource.replica.connection-timeout-ms:1000}")
+  private long connectionTimeoutMillis;
+
+  @Value("${booking.datasource.replica.validation-timeout-ms:500}")
+  private long validationTimeoutMillis;
+
+  @Value("${booking.datasource.replica.lag-check-timeout-seconds:1}")
+  private int lagCheckTimeoutSeconds;
+
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+    return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+  }
+
+  @Bean(destroyMethod = "close")
+  public ReplicaSet replicaSet(
+      DataSourceProperties dataSourceProperties, MeterRegistry meterRegistry) {
+    List<DataSource> replicas = new ArrayList<>(this.replicaUrls.length);
+    for (int i = 0; i < this.replicaUrls.length; i++) {
+      HikariDataSource replica = new HikariDataSource();
+      replica.setPoolName("replica-" + i);
+      replica.setDriverClassName(dataSourceProperties.determineDriverClassName());
+      replica.setJdbcUrl(this.replicaUrls[i].trim());
+      replica.setUsername(this.replicaUsername);
+      replica.setPassword(this.replicaPassword);
+      replica.setMaximumPoolSize(this.replicaMaximumPoolSize);
+      replica.setConnectionTimeout(this.connectionTimeoutMillis);
+      replica.setValidationTimeout(this.validationTimeoutMillis);
+      replica.setReadOnly(true);
+      replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+      replicas.add(replica);
+    }
+    ReplicaSet replicaSet =
+        new ReplicaSet(
+            replicas,
+            this.maxLagMillis,
+            this.lagCheckIntervalMillis,
+            this.lagCheckTimeoutSeconds,
+            Clock.systemUTC());
+    replicaSet.start();
+    return replicaSet;
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(
+      HikariDataSource primaryDataSource, ReplicaSet replicaSet, MeterRegistry meterRegistry) {
+    ReadReplicaRoutingDataSource routingDataSource =
+        new ReadReplicaRoutingDataSource(primaryDataSource, replicaSet, meterRegistry);
+    routingDataSource.afterPropertiesSet();
+    return new LazyConnectionDataSourceProxy(routingDataSource);
+  }
+}
@@ -7,4 +7,16 @@ public interface ExceptionMessages {
   String REQUESTED_BOOKING_CANNOT_BE_CREATED = "Request booking cannot be created.";
   String INVALID_BOOKING_STATE = "Booking cannot be canceled, status invalid.";
   String BOOKING_BEING_MODIFIED = "Booking is already modified, try again later.";
+  String INVALID_BOOKING_REQUEST = "Invalid booking request.";
+  String HOLD_NOT_CONFIRMABLE = "Booking cannot be confirmed, it is not held or the hold expired.";
+  String MISSING_ARRIVAL_DATE = "Missing arrival date";
+  String MISSING_DEPARTURE_DATE = "Missing departure date";
+  String DEPARTURE_NOT_AFTER_ARRIVAL = "Departure date must be higher than arrival date";
+  String TOO_MANY_NIGHTS = "Can't book more than %s day(s)";
+  String ARRIVAL_TOO_LATE = "Arrival date must be less than %s";
+  String ARRIVAL_TOO_SOON = "Must have at last %s day(s) before arrival";
+  String IDEMPOTENCY_KEY_REUSED = "Idempotency key already used for another request.";
+  String IDEMPOTENT_REQUEST_IN_PROGRESS =
+      "A request with the same idempotency key is in progress, try again later.";
+  String FROM_DATE_AFTER_TO_DATE = "From date must not be after to date";
 }
@@ -1,20 +1,42 @@
 package com.example.booking.controller;
 
+import com.example.booking.dto.AvailabilityCacheStatsDTO;
 import com.example.booking.dto.AvailableDatesDTO;
+import com.example.booking.dto.SuggestedStaysDTO;
+import com.example.booking.execution.RequestExecutor;
+import com.example.booking.helper.ETagHelper;
 import com.example.booking.service.AvailabilityService;
+import com.example.booking.service.VersionedAvailability;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Future;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Positive;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.SecureRandom;
 import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.Objects.nonNull;
 
 @RestController
 @Validated
@@ -22,15 +44,105 @@ import java.time.LocalDate;
 @RequiredArgsConstructor
 public class AvailabilityController {
 
+  private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+  private static final int MAX_SUGGESTIONS = 50;
+
+  /** Snapshot versions restart with the process, ETags tell processes apart. */
+  private static final String INSTANCE_ID = Long.toString(new SecureRandom().nextLong() >>> 1, 36);
+
   private final AvailabilityService availabilityService;
 
+  private final ObjectMapper objectMapper;
+
+  private final RequestExecutor requestExecutor;
+
+  /**
+   * Inside the occupancy horizon, the response carries an ETag naming the snapshot it was sliced
+   * from, and a request whose If-None-Match still names it gets a 304 without a body, before any
+   * slicing.
+   */
   @GetMapping()
-  public ResponseEntity<AvailableDatesDTO> getAvailability(
+  public CompletableFuture<ResponseEntity<AvailableDatesDTO>> getAvailability(
       @RequestParam(value = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @Valid @Future
           LocalDate from,
       @RequestParam(value = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @Valid @Future
-          LocalDate to) {
-    AvailableDatesDTO availableDates = this.availabilityService.availabilityFor(from, to);
-    return ResponseEntity.status(HttpStatus.OK).body(availableDates);
+          LocalDate to,
+      @RequestParam(value = "resourceId", defaultValue = "1") @Positive Long resourceId,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+    return this.requestExecutor.execute(
+        () -> {
+          if (nonNull(ifNoneMatch)) {
+            Optional<String> current =
+                Optional.ofNullable(this.availabilityService.snapshotVersion(resourceId, from, to))
+                    .map(version -> ETagHelper.eTag(INSTANCE_ID, version));
+            if (current.filter(eTag -> ETagHelper.matches(ifNoneMatch, eTag)).isPresent()) {
+              return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current.get()).build();
+            }
+          }
+          VersionedAvailability availability =
+              this.availabilityService.versionedAvailabilityFor(resourceId, from, to);
+          ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.OK);
+          if (nonNull(availability.getVersion())) {
+            response.eTag(ETagHelper.eTag(INSTANCE_ID, availability.getVersion()));
+          }
+          return response.body(availability.getAvailableDates());
+        });
+  }
+
+  /**
+   * Free date ranges as newline delimited JSON, one range per line, written while they are
+   * computed, so memory stays flat however wide the window is. See {@link
+   * AvailabilityService#streamAvailability} for the consistency of the ranges.
+   */
+  @GetMapping(value = "/stream", produces = APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> streamAvailability(
+      @RequestParam(value = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @Valid @Future
+          LocalDate from,
+      @RequestParam(value = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @Valid @Future
+          LocalDate to,
+      @RequestParam(value = "resourceId", defaultValue = "1") @Positive Long resourceId) {
+    ObjectWriter writer =
+        this.objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    StreamingResponseBody body =
+        outputStream -> {
+          try (JsonGenerator generator =
+              this.objectMapper.getFactory().createGenerator(outputStream)) {
+            // each value ends its own line, no separator in front of the next one
+            generator.setRootValueSeparator(null);
+            this.availabilityService.streamAvailability(
+                resourceId,
+                from,
+                to,
+                availableDate -> {
+                  try {
+                    writer.writeValue(generator, availableDate);
+                    generator.writeRaw('\n');
+                  } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                  }
+                });
+          }
+        };
+    return ResponseEntity.status(HttpStatus.OK)
+        .contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+        .body(body);
+  }
+
+  /** Free stays of the requested length that can be booked, closest to the wished arrival first. */
+  @GetMapping(value = "/suggest", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<SuggestedStaysDTO> suggestStays(
+      @RequestParam(value = "nights") @Positive Integer nights,
+      @RequestParam(value = "near") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate near,
+      @RequestParam(value = "limit", defaultValue = "5") @Positive @Max(MAX_SUGGESTIONS)
+          Integer limit,
+      @RequestParam(value = "resourceId", defaultValue = "1") @Positive Long resourceId) {
+    return ResponseEntity.status(HttpStatus.OK)
+        .body(this.availabilityService.suggestStays(resourceId, nights, near, limit));
+  }
+
+  @GetMapping("/cache/stats")
+  public ResponseEntity<AvailabilityCacheStatsDTO> getCacheStats() {
+    return ResponseEntity.status(HttpStatus.OK).body(this.availabilityService.cacheStats());
   }
 }
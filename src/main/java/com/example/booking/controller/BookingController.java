@@ -1,10 +1,20 @@
 package com.example.booking.controller;
 
 import com.example.booking.dto.BookingDTO;
+import com.example.booking.dto.BookingIdsDTO;
+import com.example.booking.dto.BookingPageDTO;
+import com.example.booking.dto.BookingResultsDTO;
+import com.example.booking.execution.RequestExecutor;
 import com.example.booking.facade.BookingFacade;
+import com.example.booking.helper.ETagHelper;
+import com.example.booking.model.BookingStatus;
+import com.example.booking.request.BookingSearchCriteria;
+import com.example.booking.request.CancelRangeRequestBody;
 import com.example.booking.request.CreateBookingRequestBody;
 import com.example.booking.request.UpdateBookingRequestBody;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -15,11 +25,25 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Email;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.Objects.nonNull;
 
 @RestController
 @Validated
@@ -27,27 +51,116 @@ import javax.validation.constraints.NotNull;
 @RequiredArgsConstructor
 public class BookingController {
 
+  private static final int MAX_BATCH_SIZE = 1000;
+
+  private static final int MAX_PAGE_SIZE = 1000;
+
+  private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
   private final BookingFacade bookingFacade;
 
+  private final RequestExecutor requestExecutor;
+
+  /** A retry carrying the same Idempotency-Key is answered with the booking first created. */
   @PostMapping(produces = MediaType.APPLICATION_JSON_VALUE)
   public ResponseEntity<BookingDTO> newBooking(
+      @RequestBody @Valid CreateBookingRequestBody createBookingRequestBody,
+      @RequestHeader(value = IDEMPOTENCY_KEY, required = false) @Size(max = 255)
+          String idempotencyKey) {
+    BookingDTO bookingDTO = this.bookingFacade.create(createBookingRequestBody, idempotencyKey);
+    return ResponseEntity.status(HttpStatus.CREATED).body(bookingDTO);
+  }
+
+  /** Holds the nights for a limited time, the booking must be confirmed before it expires. */
+  @PostMapping(value = "/hold", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<BookingDTO> holdBooking(
       @RequestBody @Valid CreateBookingRequestBody createBookingRequestBody) {
-    BookingDTO bookingDTO = this.bookingFacade.create(createBookingRequestBody);
+    BookingDTO bookingDTO = this.bookingFacade.hold(createBookingRequestBody);
     return ResponseEntity.status(HttpStatus.CREATED).body(bookingDTO);
   }
 
-  @GetMapping(value = "/{id}")
-  public ResponseEntity<BookingDTO> getBooking(@PathVariable @NotNull Long id) {
-    BookingDTO bookingDTO = this.bookingFacade.find(id);
+  @PostMapping(value = "/{id}/confirm", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<BookingDTO> confirmBooking(@PathVariable @NotNull Long id) {
+    BookingDTO bookingDTO = this.bookingFacade.confirm(id);
     return ResponseEntity.status(HttpStatus.OK).body(bookingDTO);
   }
 
+  /** Items are validated one by one, an invalid item is reported in its result. */
+  @PostMapping(value = "/batch", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<BookingResultsDTO> newBookings(
+      @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE)
+          List<CreateBookingRequestBody> createBookingRequestBodies) {
+    BookingResultsDTO bookingResultsDTO = this.bookingFacade.createAll(createBookingRequestBodies);
+    return ResponseEntity.status(HttpStatus.OK).body(bookingResultsDTO);
+  }
+
+  /**
+   * Bookings matching every filter given, in ascending id, a page at a time: a page starts after
+   * the {@code next} id of the previous one.
+   */
+  @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<BookingPageDTO> getBookings(
+      @RequestParam(value = "status", required = false) BookingStatus status,
+      @RequestParam(value = "email", required = false) @Email String email,
+      @RequestParam(value = "resourceId", required = false) @Positive Long resourceId,
+      @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate from,
+      @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate to,
+      @RequestParam(value = "after", defaultValue = "0") @PositiveOrZero Long after,
+      @RequestParam(value = "limit", defaultValue = "100") @Positive @Max(MAX_PAGE_SIZE)
+          Integer limit) {
+    BookingSearchCriteria criteria =
+        BookingSearchCriteria.builder()
+            .status(status)
+            .email(email)
+            .resourceId(resourceId)
+            .from(from)
+            .to(to)
+            .build();
+    return ResponseEntity.status(HttpStatus.OK)
+        .body(this.bookingFacade.findPage(criteria, after, limit));
+  }
+
+  /**
+   * The response carries an ETag made of the booking id and version. A request whose If-None-Match
+   * still names the current version gets a 304 after a version-only lookup, the booking itself is
+   * neither loaded nor serialized.
+   */
+  @GetMapping(value = "/{id}")
+  public CompletableFuture<ResponseEntity<BookingDTO>> getBooking(
+      @PathVariable @NotNull Long id,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+    return this.requestExecutor.execute(
+        () -> {
+          if (nonNull(ifNoneMatch)) {
+            Optional<String> current =
+                this.bookingFacade.findVersion(id).map(version -> ETagHelper.eTag(id, version));
+            if (current.filter(eTag -> ETagHelper.matches(ifNoneMatch, eTag)).isPresent()) {
+              return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current.get()).build();
+            }
+          }
+          BookingDTO bookingDTO = this.bookingFacade.find(id);
+          return ResponseEntity.status(HttpStatus.OK)
+              .eTag(ETagHelper.eTag(id, bookingDTO.getVersion()))
+              .body(bookingDTO);
+        });
+  }
+
   @DeleteMapping(value = "/{id}")
   public ResponseEntity<BookingDTO> cancelBooking(@PathVariable @NotNull Long id) {
     BookingDTO bookingDTO = this.bookingFacade.cancel(id);
     return ResponseEntity.status(HttpStatus.OK).body(bookingDTO);
   }
 
+  /** Cancels every ACTIVE booking of the resource with some night in the window. */
+  @PostMapping(value = "/cancel-range", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<BookingIdsDTO> cancelBookings(
+      @RequestBody @Valid CancelRangeRequestBody cancelRangeRequestBody) {
+    BookingIdsDTO bookingIdsDTO = this.bookingFacade.cancelRange(cancelRangeRequestBody);
+    return ResponseEntity.status(HttpStatus.OK).body(bookingIdsDTO);
+  }
+
   @PatchMapping(value = "/{id}")
   public ResponseEntity<BookingDTO> updateBooking(
       @RequestBody @Valid UpdateBookingRequestBody updateBookingRequestBody,
@@ -0,0 +1,38 @@
+package com.example.booking.controller;
+
+import com.example.booking.dto.BookingEventsDTO;
+import com.example.booking.service.BookingEventService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+
+@RestController
+@Validated
+@RequestMapping("/booking-events")
+@RequiredArgsConstructor
+public class BookingEventController {
+
+  private static final int MAX_LIMIT = 1000;
+
+  private final BookingEventService bookingEventService;
+
+  /** Relayed booking changes after the given position, for consumers resuming from an offset. */
+  @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<BookingEventsDTO> getBookingEvents(
+      @RequestParam(value = "after", defaultValue = "0") @PositiveOrZero Long after,
+      @RequestParam(value = "limit", defaultValue = "1000") @Positive @Max(MAX_LIMIT)
+          Integer limit) {
+    return ResponseEntity.status(HttpStatus.OK)
+        .body(this.bookingEventService.eventsAfter(after, limit));
+  }
+}
@@ -0,0 +1,42 @@
+package com.example.booking.controller;
+
+import com.example.booking.export.BookingExportFormat;
+import com.example.booking.export.BookingExporter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.channels.Channels;
+
+@RestController
+@RequestMapping("/booking/export")
+@RequiredArgsConstructor
+public class BookingExportController {
+
+  private final BookingExporter bookingExporter;
+
+  /** Every booking, streamed to the response while it is read from the database. */
+  @GetMapping
+  public ResponseEntity<StreamingResponseBody> exportBookings(
+      @RequestParam(value = "format", defaultValue = "CSV") BookingExportFormat format) {
+    StreamingResponseBody body =
+        outputStream -> this.bookingExporter.export(format, Channels.newChannel(outputStream));
+    return ResponseEntity.status(HttpStatus.OK)
+        .contentType(MediaType.parseMediaType(format.getMediaType()))
+        .header(
+            HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment()
+                .filename(String.format("bookings.%s", format.getExtension()))
+                .build()
+                .toString())
+        .body(body);
+  }
+}
@@ -0,0 +1,38 @@
+package com.example.booking.controller;
+
+import com.example.booking.dto.OccupancyStatsDTO;
+import com.example.booking.service.OccupancyStatsService;
+import com.example.booking.stats.OccupancyBucket;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.constraints.Positive;
+import java.time.LocalDate;
+
+@RestController
+@Validated
+@RequestMapping("/occupancy")
+@RequiredArgsConstructor
+public class OccupancyController {
+
+  private final OccupancyStatsService occupancyStatsService;
+
+  /** Occupancy rate per week or month, of one resource or of all of them. */
+  @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<OccupancyStatsDTO> getOccupancy(
+      @RequestParam(value = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam(value = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+      @RequestParam(value = "bucket", defaultValue = "WEEK") OccupancyBucket bucket,
+      @RequestParam(value = "resourceId", required = false) @Positive Long resourceId) {
+    return ResponseEntity.status(HttpStatus.OK)
+        .body(this.occupancyStatsService.occupancyBetween(resourceId, from, to, bucket));
+  }
+}
@@ -0,0 +1,36 @@
+package com.example.booking.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * Sizes every Hikari pool bean of the context to a fixed number of connections per core, plus one
+ * for the connection waiting on disk: more connections than the database can run at once only queue
+ * inside Postgres instead of in the pool, where the wait shows in {@code
+ * hikaricp.connections.pending}.
+ */
+@Slf4j
+public class PoolSizeByCores implements BeanPostProcessor {
+
+  private final int poolSize;
+
+  public PoolSizeByCores(int connectionsPerCore) {
+    this.poolSize = Runtime.getRuntime().availableProcessors() * connectionsPerCore + 1;
+  }
+
+  public int getPoolSize() {
+    return this.poolSize;
+  }
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String beanName) {
+    if (bean instanceof HikariDataSource) {
+      HikariDataSource dataSource = (HikariDataSource) bean;
+      dataSource.setMaximumPoolSize(this.poolSize);
+      dataSource.setMinimumIdle(this.poolSize);
+      log.info(String.format("Pool %s sized to %s connection(s)", beanName, this.poolSize));
+    }
+    return bean;
+  }
+}
@@ -0,0 +1,61 @@
+package com.example.booking.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to a replica within the tolerated staleness, and everything else,
+ * writes and reads outside a transaction included, to the primary. Reads fall back to the primary
+ * when no replica is fresh enough.
+ *
+ * <p>The transaction is only known to be read-only once it has begun, so this data source must sit
+ * behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, which takes
+ * the connection on the first statement.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+  private static final String PRIMARY = "primary";
+
+  private final ReplicaSet replicaSet;
+
+  private final Counter fallbacks;
+
+  public ReadReplicaRoutingDataSource(
+      DataSource primary, ReplicaSet replicaSet, MeterRegistry meterRegistry) {
+    this.replicaSet = replicaSet;
+    this.fallbacks =
+        Counter.builder("booking.datasource.replica.fallbacks")
+            .description(
+                "Read-only transactions sent to the primary, no replica being fresh enough")
+            .register(meterRegistry);
+
+    Map<Object, Object> targets = new HashMap<>();
+    targets.put(PRIMARY, primary);
+    List<DataSource> replicas = replicaSet.getDataSources();
+    for (int i = 0; i < replicas.size(); i++) {
+      targets.put(i, replicas.get(i));
+    }
+    this.setTargetDataSources(targets);
+    this.setDefaultTargetDataSource(primary);
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+      return PRIMARY;
+    }
+    int replica = this.replicaSet.pick();
+    if (replica < 0) {
+      this.fallbacks.increment();
+      return PRIMARY;
+    }
+    return replica;
+  }
+}
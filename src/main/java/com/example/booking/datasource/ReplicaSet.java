@@ -0,0 +1,155 @@
+package com.example.booking.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Read replicas and their replication lag, checked periodically on a thread of its own so that no
+ * other scheduled task can delay it. A replica lagging behind the primary by more than the
+ * tolerated staleness, failing the check, or not measured for longer than a check interval plus the
+ * tolerated staleness, takes no reads until a later check finds it caught up.
+ */
+@Slf4j
+public class ReplicaSet implements MeterBinder, Closeable {
+
+  /** Zero once every received WAL record is replayed, whatever the age of the last transaction. */
+  private static final String LAG_QUERY =
+      "select case when pg_is_in_recovery() "
+          + "and pg_last_wal_receive_lsn() is distinct from pg_last_wal_replay_lsn() "
+          + "then extract(epoch from now() - pg_last_xact_replay_timestamp()) * 1000 "
+          + "else 0 end";
+
+  private static final long UNREACHABLE = Long.MAX_VALUE;
+
+  private final List<DataSource> dataSources;
+
+  private final List<JdbcTemplate> replicas;
+
+  private final long maxLagMillis;
+
+  private final long checkIntervalMillis;
+
+  private final Clock clock;
+
+  /** Last measured lag of each replica, in milliseconds. */
+  private final AtomicLongArray lagMillis;
+
+  /** When each lag was measured, in epoch milliseconds. */
+  private final AtomicLongArray checkedAt;
+
+  private final AtomicInteger next = new AtomicInteger();
+
+  private final ScheduledExecutorService checker =
+      Executors.newSingleThreadScheduledExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "booking-replica-check");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  /**
+   * @param checkTimeoutSeconds longest a lag query may run before the replica counts as failing.
+   */
+  public ReplicaSet(
+      List<DataSource> replicas,
+      long maxLagMillis,
+      long checkIntervalMillis,
+      int checkTimeoutSeconds,
+      Clock clock) {
+    this.dataSources = replicas;
+    this.replicas = new ArrayList<>(replicas.size());
+    for (DataSource replica : replicas) {
+      JdbcTemplate jdbcTemplate = new JdbcTemplate(replica);
+      jdbcTemplate.setQueryTimeout(checkTimeoutSeconds);
+      this.replicas.add(jdbcTemplate);
+    }
+    this.maxLagMillis = maxLagMillis;
+    this.checkIntervalMillis = checkIntervalMillis;
+    this.clock = clock;
+    this.lagMillis = new AtomicLongArray(replicas.size());
+    this.checkedAt = new AtomicLongArray(replicas.size());
+  }
+
+  /** Checks the replicas now, then every check interval until closed. */
+  public void start() {
+    this.check();
+    this.checker.scheduleWithFixedDelay(
+        this::check, this.checkIntervalMillis, this.checkIntervalMillis, TimeUnit.MILLISECONDS);
+  }
+
+  public void check() {
+    for (int i = 0; i < this.replicas.size(); i++) {
+      long lag;
+      try {
+        Number measured = this.replicas.get(i).queryForObject(LAG_QUERY, Number.class);
+        lag = measured == null ? 0 : measured.longValue();
+      } catch (RuntimeException ex) {
+        log.warn(String.format("Replica %s lag check failed: %s", i, ex.getMessage()));
+        lag = UNREACHABLE;
+      }
+      this.lagMillis.set(i, lag);
+      this.checkedAt.set(i, this.clock.millis());
+    }
+  }
+
+  public List<DataSource> getDataSources() {
+    return this.dataSources;
+  }
+
+  /**
+   * @return a replica within the tolerated staleness, round robin, or -1 if none is.
+   */
+  public int pick() {
+    int size = this.replicas.size();
+    int start = Math.floorMod(this.next.getAndIncrement(), size);
+    long measuredSince = this.clock.millis() - this.checkIntervalMillis - this.maxLagMillis;
+    for (int i = 0; i < size; i++) {
+      int replica = (start + i) % size;
+      if (this.lagMillis.get(replica) <= this.maxLagMillis
+          && this.checkedAt.get(replica) >= measuredSince) {
+        return replica;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.checker.shutdownNow();
+    for (DataSource dataSource : this.dataSources) {
+      if (dataSource instanceof Closeable) {
+        ((Closeable) dataSource).close();
+      }
+    }
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    for (int i = 0; i < this.replicas.size(); i++) {
+      int replica = i;
+      Gauge.builder(
+              "booking.datasource.replica.lag",
+              this.lagMillis,
+              lags -> lags.get(replica) == UNREACHABLE ? Double.NaN : lags.get(replica))
+          .description("Replication lag of the replica as of the last check, NaN if unreachable")
+          .baseUnit("milliseconds")
+          .tag("replica", String.valueOf(replica))
+          .register(registry);
+    }
+  }
+}
@@ -0,0 +1,14 @@
+package com.example.booking.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class AvailabilityCacheStatsDTO {
+
+  private final long size;
+  private final long hitCount;
+  private final long missCount;
+  private final long evictionCount;
+}
@@ -1,9 +1,11 @@
 package com.example.booking.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 import lombok.Getter;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Getter
@@ -12,9 +14,14 @@ import java.time.LocalDate;
 public class BookingDTO {
 
   private final Long id;
+  private final Long resourceId;
   private final String name;
   private final String email;
   private final LocalDate arrivalDate;
   private final LocalDate departureDate;
   private final String status;
+  private final Instant heldUntil;
+
+  /** Optimistic lock version, sent as part of the ETag rather than in the body. */
+  @JsonIgnore private final Long version;
 }
@@ -0,0 +1,28 @@
+package com.example.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * A booking change as relayed from the outbox. Positions grow with relay order and are never
+ * reused, a consumer resumes after the last one it handled.
+ */
+@Getter
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookingEventDTO {
+
+  private final Long position;
+  private final Long bookingId;
+  private final Long resourceId;
+  private final String status;
+  private final LocalDate previousArrivalDate;
+  private final LocalDate previousDepartureDate;
+  private final LocalDate arrivalDate;
+  private final LocalDate departureDate;
+  private final Instant createdAt;
+}
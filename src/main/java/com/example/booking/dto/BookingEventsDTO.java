@@ -0,0 +1,14 @@
+package com.example.booking.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+/** Relayed booking changes, in ascending position. */
+@Getter
+@Builder
+public class BookingEventsDTO {
+
+  private final List<BookingEventDTO> events;
+}
@@ -0,0 +1,13 @@
+package com.example.booking.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class BookingIdsDTO {
+
+  private final List<Long> ids;
+}
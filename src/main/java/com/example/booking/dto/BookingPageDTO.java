@@ -0,0 +1,18 @@
+package com.example.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+/** Bookings in ascending id, and where the next page starts when there may be one. */
+@Getter
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookingPageDTO {
+
+  private final List<BookingDTO> bookings;
+  /** Value of {@code after} for the next page, null on the last one. */
+  private final Long next;
+}
@@ -0,0 +1,18 @@
+package com.example.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+/** Outcome of one item of a batch: the booking id when created, the reason otherwise. */
+@Getter
+@Builder
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class BookingResultDTO {
+
+  private final Long id;
+  private final String error;
+  private final List<String> details;
+}
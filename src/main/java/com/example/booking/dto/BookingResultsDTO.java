@@ -0,0 +1,16 @@
+package com.example.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+/** Per-item outcomes of a batch, in the order the items were requested. */
+@Getter
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookingResultsDTO {
+
+  private final List<BookingResultDTO> results;
+}
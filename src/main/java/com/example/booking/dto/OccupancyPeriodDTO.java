@@ -0,0 +1,21 @@
+package com.example.booking.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/** Occupancy of a week or month, cut to the requested dates. */
+@Getter
+@Builder
+public class OccupancyPeriodDTO {
+
+  private final LocalDate from;
+  private final LocalDate to;
+  /** Nights the resources could be booked in the period. */
+  private final long nights;
+
+  private final long bookedNights;
+  /** Booked nights over nights, between 0 and 1. */
+  private final double rate;
+}
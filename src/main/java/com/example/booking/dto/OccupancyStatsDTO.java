@@ -0,0 +1,18 @@
+package com.example.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+/** Occupancy of one resource, or of all of them when no resource is given. */
+@Getter
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OccupancyStatsDTO {
+
+  private final Long resourceId;
+  private final int resources;
+  private final List<OccupancyPeriodDTO> periods;
+}
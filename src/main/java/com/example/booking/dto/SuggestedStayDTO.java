@@ -0,0 +1,15 @@
+package com.example.booking.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/** A free stay, with the dates to book it with. */
+@Getter
+@Builder
+public class SuggestedStayDTO {
+
+  private final LocalDate arrivalDate;
+  private final LocalDate departureDate;
+}
@@ -0,0 +1,14 @@
+package com.example.booking.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+/** Free stays, closest to the requested date first. */
+@Getter
+@Builder
+public class SuggestedStaysDTO {
+
+  private final List<SuggestedStayDTO> stays;
+}
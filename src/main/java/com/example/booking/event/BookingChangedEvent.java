@@ -0,0 +1,37 @@
+package com.example.booking.event;
+
+import com.example.booking.model.BookingStatus;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Published by the booking write path whenever a booking changes, with its status after the change.
+ * Previous and current ranges are closed (both ends are occupied nights) and are null when absent,
+ * e.g. a newly created booking has no previous range and a cancelled one has no current range; both
+ * are the same when the dates did not change. The version is the one the booking is committed with,
+ * so that a change delivered after a later one, which may happen across threads or instances, is
+ * recognized and dropped.
+ */
+@Getter
+@RequiredArgsConstructor
+public class BookingChangedEvent {
+
+  private final Long bookingId;
+  private final Long resourceId;
+  private final BookingStatus status;
+  private final long version;
+  private final LocalDate previousFrom;
+  private final LocalDate previousTo;
+  private final LocalDate from;
+  private final LocalDate to;
+
+  public boolean hasPreviousRange() {
+    return previousFrom != null && previousTo != null;
+  }
+
+  public boolean hasRange() {
+    return from != null && to != null;
+  }
+}
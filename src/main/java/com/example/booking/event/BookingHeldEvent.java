@@ -0,0 +1,15 @@
+package com.example.booking.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Instant;
+
+/** A booking was created as HELD, its nights are released at the expiry unless confirmed. */
+@Getter
+@RequiredArgsConstructor
+public class BookingHeldEvent {
+
+  private final Long bookingId;
+  private final Instant heldUntil;
+}
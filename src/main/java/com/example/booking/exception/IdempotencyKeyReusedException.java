@@ -0,0 +1,8 @@
+package com.example.booking.exception;
+
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+  public IdempotencyKeyReusedException(String s) {
+    super(s);
+  }
+}
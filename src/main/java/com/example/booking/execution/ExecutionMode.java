@@ -0,0 +1,14 @@
+package com.example.booking.execution;
+
+/** Where read requests run, selected by {@code booking.execution.mode}. */
+public enum ExecutionMode {
+
+  /** On the servlet container thread that accepted the request. */
+  BLOCKING,
+
+  /**
+   * On the request executor, the container thread is handed back while the request waits for the
+   * database.
+   */
+  ASYNC
+}
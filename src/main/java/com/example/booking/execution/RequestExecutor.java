@@ -0,0 +1,81 @@
+package com.example.booking.execution;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.Collections;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs read requests according to the execution mode. In {@link ExecutionMode#ASYNC} mode they are
+ * queued on a small pool sized to the connection pool, so thousands of requests in flight wait in
+ * the queue rather than on servlet container threads; once the queue is full further requests are
+ * rejected instead of piling up.
+ */
+@Component
+@Slf4j
+public class RequestExecutor implements MeterBinder {
+
+  private final ExecutionMode mode;
+
+  private final ThreadPoolExecutor executor;
+
+  public RequestExecutor(
+      @Value("${booking.execution.mode:blocking}") ExecutionMode mode,
+      @Value("${booking.execution.async.threads:10}") int threads,
+      @Value("${booking.execution.async.queue-capacity:10000}") int queueCapacity) {
+    this.mode = mode;
+    this.executor =
+        ExecutionMode.ASYNC.equals(mode)
+            ? new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("booking-request-"))
+            : null;
+    log.info(String.format("Read requests run in %s mode", mode));
+  }
+
+  /**
+   * @param request the work of the request.
+   * @return its result, already completed in {@link ExecutionMode#BLOCKING} mode.
+   * @throws java.util.concurrent.RejectedExecutionException if the queue is full.
+   */
+  public <T> CompletableFuture<T> execute(Supplier<T> request) {
+    if (this.executor == null) {
+      return CompletableFuture.completedFuture(request.get());
+    }
+    return CompletableFuture.supplyAsync(request, this.executor);
+  }
+
+  public ExecutionMode getMode() {
+    return this.mode;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    if (this.executor != null) {
+      new ExecutorServiceMetrics(this.executor, "booking.requests", Collections.emptyList())
+          .bindTo(registry);
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (this.executor != null) {
+      this.executor.shutdown();
+    }
+  }
+}
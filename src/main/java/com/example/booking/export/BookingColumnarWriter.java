@@ -0,0 +1,164 @@
+package com.example.booking.export;
+
+import com.example.booking.repository.ExportedBookingConsumer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes bookings to a channel in blocks of rows stored column by column, big-endian:
+ *
+ * <ul>
+ *   <li>the magic bytes {@code BKC1};
+ *   <li>blocks, each the number of rows as an int followed by, for every row in turn, the id
+ *       (long), the resource id (long), the status ordinal (byte), the arrival and departure epoch
+ *       days (ints, {@link ExportedBookingConsumer#NO_DAY} without nights), the hold expiry in
+ *       epoch milliseconds (long, {@link ExportedBookingConsumer#NO_INSTANT} if not held), the
+ *       version (long), the user name and the email (each a length as an int, -1 for null, then as
+ *       many UTF-8 bytes);
+ *   <li>an empty block ending the file.
+ * </ul>
+ *
+ * Only one block is held in memory, whatever the number of bookings.
+ */
+public class BookingColumnarWriter implements ExportedBookingConsumer {
+
+  static final byte[] MAGIC = {'B', 'K', 'C', '1'};
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final WritableByteChannel channel;
+
+  private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+  private final long[] ids;
+
+  private final long[] resourceIds;
+
+  private final byte[] statuses;
+
+  private final int[] arrivalDays;
+
+  private final int[] departureDays;
+
+  private final long[] heldUntils;
+
+  private final long[] versions;
+
+  private final byte[][] userNames;
+
+  private final byte[][] emails;
+
+  private int rows;
+
+  public BookingColumnarWriter(WritableByteChannel channel, int blockRows) throws IOException {
+    this.channel = channel;
+    this.ids = new long[blockRows];
+    this.resourceIds = new long[blockRows];
+    this.statuses = new byte[blockRows];
+    this.arrivalDays = new int[blockRows];
+    this.departureDays = new int[blockRows];
+    this.heldUntils = new long[blockRows];
+    this.versions = new long[blockRows];
+    this.userNames = new byte[blockRows][];
+    this.emails = new byte[blockRows][];
+    this.buffer.put(MAGIC);
+  }
+
+  @Override
+  public void accept(
+      long id,
+      long resourceId,
+      String userName,
+      String email,
+      int status,
+      int arrivalDay,
+      int departureDay,
+      long heldUntil,
+      long version) {
+    this.ids[this.rows] = id;
+    this.resourceIds[this.rows] = resourceId;
+    this.statuses[this.rows] = (byte) status;
+    this.arrivalDays[this.rows] = arrivalDay;
+    this.departureDays[this.rows] = departureDay;
+    this.heldUntils[this.rows] = heldUntil;
+    this.versions[this.rows] = version;
+    this.userNames[this.rows] = userName == null ? null : userName.getBytes(StandardCharsets.UTF_8);
+    this.emails[this.rows] = email == null ? null : email.getBytes(StandardCharsets.UTF_8);
+    if (++this.rows == this.ids.length) {
+      try {
+        this.writeBlock();
+      } catch (IOException ex) {
+        throw new UncheckedIOException(ex);
+      }
+    }
+  }
+
+  /** Writes the rows left and the end of the file, the channel is left open. */
+  public void finish() throws IOException {
+    if (this.rows > 0) {
+      this.writeBlock();
+    }
+    this.writeBlock();
+    this.drain();
+  }
+
+  private void writeBlock() throws IOException {
+    this.room(Integer.BYTES).putInt(this.rows);
+    for (int i = 0; i < this.rows; i++) {
+      this.room(Long.BYTES).putLong(this.ids[i]);
+    }
+    for (int i = 0; i < this.rows; i++) {
+      this.room(Long.BYTES).putLong(this.resourceIds[i]);
+    }
+    for (int i = 0; i < this.rows; i++) {
+      this.room(Byte.BYTES).put(this.statuses[i]);
+    }
+    for (int i = 0; i < this.rows; i++) {
+      this.room(Integer.BYTES).putInt(this.arrivalDays[i]);
+    }
+    for (int i = 0; i < this.rows; i++) {
+      this.room(Integer.BYTES).putInt(this.departureDays[i]);
+    }
+    for (int i = 0; i < this.rows; i++) {
+      this.room(Long.BYTES).putLong(this.heldUntils[i]);
+    }
+    for (int i = 0; i < this.rows; i++) {
+      this.room(Long.BYTES).putLong(this.versions[i]);
+    }
+    this.writeStrings(this.userNames);
+    this.writeStrings(this.emails);
+    this.rows = 0;
+  }
+
+  private void writeStrings(byte[][] strings) throws IOException {
+    for (int i = 0; i < this.rows; i++) {
+      byte[] string = strings[i];
+      if (string == null) {
+        this.room(Integer.BYTES).putInt(-1);
+      } else {
+        this.room(Integer.BYTES + string.length).putInt(string.length).put(string);
+      }
+      strings[i] = null;
+    }
+  }
+
+  /** The buffer, drained first if it lacks the room for the given bytes. */
+  private ByteBuffer room(int bytes) throws IOException {
+    if (this.buffer.remaining() < bytes) {
+      this.drain();
+    }
+    return this.buffer;
+  }
+
+  private void drain() throws IOException {
+    this.buffer.flip();
+    while (this.buffer.hasRemaining()) {
+      this.channel.write(this.buffer);
+    }
+    this.buffer.clear();
+  }
+}
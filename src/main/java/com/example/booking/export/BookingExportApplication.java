@@ -0,0 +1,92 @@
+package com.example.booking.export;
+
+import com.example.booking.repository.BookingJdbcRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Command line mode: with {@code booking.export.file} set, on the command line or in the
+ * environment, the application exports every booking to that file in {@code booking.export.format},
+ * then exits with 0, or 1 if the export failed. Its context only holds the data source and what the
+ * export reads through: no web server, scheduled job, change listener, hold expiry or outbox relay
+ * runs, so an export never acts on behalf of the serving instances.
+ */
+@ImportAutoConfiguration({
+  DataSourceAutoConfiguration.class,
+  DataSourceTransactionManagerAutoConfiguration.class,
+  JdbcTemplateAutoConfiguration.class,
+  TransactionAutoConfiguration.class
+})
+@Import({BookingJdbcRepository.class, BookingExporter.class})
+@Slf4j
+public class BookingExportApplication {
+
+  private static final String FILE_PROPERTY = "booking.export.file";
+
+  private static final String FORMAT_PROPERTY = "booking.export.format";
+
+  /** Whether the arguments or the environment ask for an export rather than the service. */
+  public static boolean isRequested(String... args) {
+    StandardEnvironment environment = new StandardEnvironment();
+    environment.getPropertySources().addFirst(new SimpleCommandLinePropertySource(args));
+    return environment.containsProperty(FILE_PROPERTY);
+  }
+
+  public static void main(String[] args) {
+    System.exit(run(args));
+  }
+
+  /**
+   * Starts the export context, exports, and closes it.
+   *
+   * @return the exit code.
+   */
+  public static int run(String... args) {
+    ConfigurableApplicationContext context =
+        new SpringApplicationBuilder(BookingExportApplication.class)
+            .web(WebApplicationType.NONE)
+            .run(args);
+    int exitCode = export(context) ? 0 : 1;
+    return SpringApplication.exit(context, () -> exitCode);
+  }
+
+  private static boolean export(ConfigurableApplicationContext context) {
+    Environment environment = context.getEnvironment();
+    Path path = Paths.get(environment.getRequiredProperty(FILE_PROPERTY));
+    BookingExportFormat format =
+        environment.getProperty(
+            FORMAT_PROPERTY, BookingExportFormat.class, BookingExportFormat.CSV);
+    try (FileChannel channel =
+        FileChannel.open(
+            path,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE)) {
+      context.getBean(BookingExporter.class).export(format, channel);
+      channel.force(false);
+    } catch (IOException | RuntimeException ex) {
+      log.error(String.format("Bookings could not be exported to %s", path.toAbsolutePath()), ex);
+      return false;
+    }
+    log.info(String.format("Bookings exported to %s", path.toAbsolutePath()));
+    return true;
+  }
+}
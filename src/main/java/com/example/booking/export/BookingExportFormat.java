@@ -0,0 +1,18 @@
+package com.example.booking.export;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/** Formats bookings are exported in. */
+@Getter
+@RequiredArgsConstructor
+public enum BookingExportFormat {
+  /** One line per booking after a header line, written by Postgres. */
+  CSV("text/csv", "csv"),
+  /** Blocks of rows stored column by column, see {@link BookingColumnarWriter}. */
+  COLUMNAR("application/octet-stream", "bkc");
+
+  private final String mediaType;
+
+  private final String extension;
+}
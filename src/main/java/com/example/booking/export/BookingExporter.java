@@ -0,0 +1,47 @@
+package com.example.booking.export;
+
+import com.example.booking.repository.BookingJdbcRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Streams every booking to a channel, from a read-only transaction. Rows are written as they come
+ * from the database, so memory stays flat however many bookings there are.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingExporter {
+
+  private final BookingJdbcRepository bookingJdbcRepository;
+
+  @Value("${booking.export.block-rows:4096}")
+  private int blockRows;
+
+  /** Writes every booking in ascending id, the channel is left open. */
+  public void export(BookingExportFormat format, WritableByteChannel channel) throws IOException {
+    long started = System.nanoTime();
+    switch (format) {
+      case CSV:
+        // closing the stream would close the channel
+        this.bookingJdbcRepository.copyAllAsCsv(Channels.newOutputStream(channel));
+        break;
+      case COLUMNAR:
+        BookingColumnarWriter writer = new BookingColumnarWriter(channel, this.blockRows);
+        this.bookingJdbcRepository.forEachBooking(writer);
+        writer.finish();
+        break;
+      default:
+        throw new IllegalArgumentException(String.format("Unknown export format %s", format));
+    }
+    log.info(
+        String.format(
+            "Bookings exported as %s in %s ms", format, (System.nanoTime() - started) / 1_000_000));
+  }
+}
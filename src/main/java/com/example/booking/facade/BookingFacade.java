@@ -1,7 +1,19 @@
 package com.example.booking.facade;
 
 import com.example.booking.dto.BookingDTO;
+import com.example.booking.dto.BookingIdsDTO;
+import com.example.booking.dto.BookingPageDTO;
+import com.example.booking.dto.BookingResultDTO;
+import com.example.booking.dto.BookingResultsDTO;
 import com.example.booking.exception.InvalidBookingStateException;
+import com.example.booking.exception.UnavailableBookingDateException;
+import com.example.booking.helper.RequestHashHelper;
+import com.example.booking.hold.HoldExpiryQueue;
+import com.example.booking.idempotency.IdempotencyKeyStore;
+import com.example.booking.index.ReservationFastPath;
+import com.example.booking.metrics.BookingMetrics;
+import com.example.booking.request.BookingSearchCriteria;
+import com.example.booking.request.CancelRangeRequestBody;
 import com.example.booking.request.CreateBookingRequestBody;
 import com.example.booking.request.UpdateBookingRequestBody;
 import com.example.booking.service.BookingService;
@@ -11,8 +23,22 @@ import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Component;
 
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
 import static com.example.booking.constant.ExceptionMessages.BOOKING_BEING_MODIFIED;
+import static com.example.booking.constant.ExceptionMessages.INVALID_BOOKING_REQUEST;
 import static com.example.booking.constant.ExceptionMessages.REQUESTED_BOOKING_CANNOT_BE_CREATED;
+import static com.example.booking.constant.ExceptionMessages.REQUESTED_DATE_NOT_AVAILABLE;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 
 @Component
 @RequiredArgsConstructor
@@ -21,36 +47,241 @@ public class BookingFacade {
 
   private final BookingService bookingService;
 
-  public BookingDTO create(CreateBookingRequestBody createBookingRequestBody) {
-    Long id;
+  private final ReservationFastPath reservationFastPath;
+
+  private final Validator validator;
+
+  private final BookingMetrics bookingMetrics;
+
+  private final IdempotencyKeyStore idempotencyKeyStore;
+
+  private final HoldExpiryQueue holdExpiryQueue;
+
+  /**
+   * Creates the booking unless the idempotency key already created one, in which case that booking
+   * is returned without checking availability or opening a write transaction. A retry arriving
+   * while the original request is still being served by this instance waits for its outcome; one
+   * racing it on another instance loses on the dates or on the key, and is answered the same way
+   * once the original commits. A key reused for another request is rejected.
+   *
+   * @param idempotencyKey key sent by the client, may be null.
+   */
+  public BookingDTO create(
+      CreateBookingRequestBody createBookingRequestBody, String idempotencyKey) {
+    if (isNull(idempotencyKey)) {
+      return BookingDTO.builder().id(this.reserve(createBookingRequestBody, null, null)).build();
+    }
+
+    String requestHash = RequestHashHelper.hash(createBookingRequestBody);
+    while (true) {
+      Optional<Long> replayed = this.replay(idempotencyKey, requestHash);
+      if (replayed.isPresent()) {
+        return BookingDTO.builder().id(replayed.get()).build();
+      }
+      Optional<CompletableFuture<Long>> inFlight =
+          this.idempotencyKeyStore.start(idempotencyKey, requestHash);
+      if (!inFlight.isPresent()) {
+        break;
+      }
+      Long id = this.idempotencyKeyStore.await(inFlight.get());
+      if (nonNull(id)) {
+        this.bookingMetrics.idempotentReplay();
+        return BookingDTO.builder().id(id).build();
+      }
+    }
+
+    Long id = null;
     try {
-      id = this.bookingService.create(createBookingRequestBody);
+      id = this.reserve(createBookingRequestBody, idempotencyKey, requestHash);
+    } finally {
+      this.idempotencyKeyStore.finish(idempotencyKey, requestHash, id);
+    }
+    return BookingDTO.builder().id(id).build();
+  }
+
+  /** Holds the nights for the configured time to live, see {@link HoldExpiryQueue}. */
+  public BookingDTO hold(CreateBookingRequestBody createBookingRequestBody) {
+    try {
+      return this.reservationFastPath.reserve(
+          createBookingRequestBody.getResourceId(),
+          createBookingRequestBody.getArrivalDate(),
+          createBookingRequestBody.getDepartureDate(),
+          () ->
+              this.bookingService.hold(
+                  createBookingRequestBody, this.holdExpiryQueue.expiryFromNow()));
+    } catch (UnavailableBookingDateException ex) {
+      this.bookingMetrics.availabilityConflict();
+      throw ex;
     } catch (DataIntegrityViolationException ex) {
+      this.bookingMetrics.exclusionConstraintViolation();
       throw new InvalidBookingStateException(REQUESTED_BOOKING_CANNOT_BE_CREATED, ex);
     }
+  }
 
-    return BookingDTO.builder().id(id).build();
+  /**
+   * Validates every item on its own and creates the valid ones in a single batch. Should a
+   * concurrent booking make the batch hit the exclusion constraint, the items are settled one by
+   * one instead.
+   *
+   * @param requestBodies items of the batch.
+   * @return one result per item, in the same order.
+   */
+  public BookingResultsDTO createAll(List<CreateBookingRequestBody> requestBodies) {
+    BookingResultDTO[] results = new BookingResultDTO[requestBodies.size()];
+    List<Integer> validPositions = new ArrayList<>(requestBodies.size());
+    List<CreateBookingRequestBody> validRequestBodies = new ArrayList<>(requestBodies.size());
+    for (int i = 0; i < requestBodies.size(); i++) {
+      Set<ConstraintViolation<CreateBookingRequestBody>> violations =
+          this.validator.validate(requestBodies.get(i));
+      if (violations.isEmpty()) {
+        validPositions.add(i);
+        validRequestBodies.add(requestBodies.get(i));
+      } else {
+        results[i] =
+            BookingResultDTO.builder()
+                .error(INVALID_BOOKING_REQUEST)
+                .details(
+                    violations.stream()
+                        .map(
+                            violation ->
+                                String.format(
+                                    "%s : %s", violation.getPropertyPath(), violation.getMessage()))
+                        .collect(Collectors.toList()))
+                .build();
+      }
+    }
+
+    List<BookingResultDTO> created;
+    try {
+      created = this.bookingService.createAll(validRequestBodies);
+    } catch (DataIntegrityViolationException ex) {
+      this.bookingMetrics.exclusionConstraintViolation();
+      log.info("Booking batch hit the exclusion constraint, creating one by one", ex);
+      created = new ArrayList<>(validRequestBodies.size());
+      for (CreateBookingRequestBody requestBody : validRequestBodies) {
+        created.add(this.createOne(requestBody));
+      }
+    }
+
+    for (int i = 0; i < created.size(); i++) {
+      results[validPositions.get(i)] = created.get(i);
+    }
+    return BookingResultsDTO.builder().results(List.of(results)).build();
   }
 
   public BookingDTO find(Long id) {
     return this.bookingService.find(id);
   }
 
+  /**
+   * @throws ConstraintViolationException if the criteria are inconsistent, such as dates out of
+   *     order.
+   */
+  public BookingPageDTO findPage(BookingSearchCriteria criteria, long afterId, int limit) {
+    Set<ConstraintViolation<BookingSearchCriteria>> violations = this.validator.validate(criteria);
+    if (!violations.isEmpty()) {
+      throw new ConstraintViolationException(violations);
+    }
+    return this.bookingService.findPage(criteria, afterId, limit);
+  }
+
+  public Optional<Long> findVersion(Long id) {
+    return this.bookingService.findVersion(id);
+  }
+
   public BookingDTO cancel(Long id) {
     BookingDTO booking;
     try {
       booking = this.bookingService.cancel(id);
     } catch (OptimisticLockingFailureException ex) {
+      this.bookingMetrics.optimisticLockFailure();
       throw new InvalidBookingStateException(BOOKING_BEING_MODIFIED);
     }
     return booking;
   }
 
+  /**
+   * No optimistic locking failure to map here: the bookings are locked in ascending id, so
+   * concurrent range cancellations queue up behind each other, and a booking cancelled meanwhile no
+   * longer matches once its lock is granted.
+   */
+  public BookingIdsDTO cancelRange(CancelRangeRequestBody cancelRangeRequestBody) {
+    List<Long> ids =
+        this.bookingService.cancelRange(
+            cancelRangeRequestBody.getResourceId(),
+            cancelRangeRequestBody.getFrom(),
+            cancelRangeRequestBody.getTo());
+    return BookingIdsDTO.builder().ids(ids).build();
+  }
+
+  public BookingDTO confirm(Long id) {
+    BookingDTO booking;
+    try {
+      booking = this.bookingService.confirm(id);
+    } catch (OptimisticLockingFailureException ex) {
+      this.bookingMetrics.optimisticLockFailure();
+      throw new InvalidBookingStateException(BOOKING_BEING_MODIFIED);
+    }
+    return booking;
+  }
+
+  private Long reserve(
+      CreateBookingRequestBody createBookingRequestBody,
+      String idempotencyKey,
+      String requestHash) {
+    try {
+      return this.reservationFastPath.reserve(
+          createBookingRequestBody.getResourceId(),
+          createBookingRequestBody.getArrivalDate(),
+          createBookingRequestBody.getDepartureDate(),
+          () -> this.bookingService.create(createBookingRequestBody, idempotencyKey, requestHash));
+    } catch (UnavailableBookingDateException ex) {
+      Optional<Long> replayed = this.replay(idempotencyKey, requestHash);
+      if (replayed.isPresent()) {
+        return replayed.get();
+      }
+      this.bookingMetrics.availabilityConflict();
+      throw ex;
+    } catch (DataIntegrityViolationException ex) {
+      Optional<Long> replayed = this.replay(idempotencyKey, requestHash);
+      if (replayed.isPresent()) {
+        return replayed.get();
+      }
+      this.bookingMetrics.exclusionConstraintViolation();
+      throw new InvalidBookingStateException(REQUESTED_BOOKING_CANNOT_BE_CREATED, ex);
+    }
+  }
+
+  private Optional<Long> replay(String idempotencyKey, String requestHash) {
+    if (isNull(idempotencyKey)) {
+      return Optional.empty();
+    }
+    Optional<Long> replayed = this.idempotencyKeyStore.bookingIdFor(idempotencyKey, requestHash);
+    replayed.ifPresent(id -> this.bookingMetrics.idempotentReplay());
+    return replayed;
+  }
+
+  private BookingResultDTO createOne(CreateBookingRequestBody requestBody) {
+    try {
+      return BookingResultDTO.builder().id(this.bookingService.create(requestBody)).build();
+    } catch (UnavailableBookingDateException ex) {
+      this.bookingMetrics.availabilityConflict();
+      return BookingResultDTO.builder().error(REQUESTED_DATE_NOT_AVAILABLE).build();
+    } catch (DataIntegrityViolationException ex) {
+      this.bookingMetrics.exclusionConstraintViolation();
+      return BookingResultDTO.builder().error(REQUESTED_BOOKING_CANNOT_BE_CREATED).build();
+    }
+  }
+
   public BookingDTO update(Long id, UpdateBookingRequestBody updateBookingRequestBody) {
     BookingDTO booking;
     try {
       booking = this.bookingService.update(id, updateBookingRequestBody);
+    } catch (UnavailableBookingDateException ex) {
+      this.bookingMetrics.availabilityConflict();
+      throw ex;
     } catch (OptimisticLockingFailureException ex) {
+      this.bookingMetrics.optimisticLockFailure();
       throw new InvalidBookingStateException(BOOKING_BEING_MODIFIED);
     }
     return booking;
@@ -0,0 +1,43 @@
+package com.example.booking.helper;
+
+import static java.util.Objects.isNull;
+
+/** Builds strong entity tags and compares them with If-None-Match headers. */
+public class ETagHelper {
+
+  private static final String WEAK_PREFIX = "W/";
+
+  /**
+   * @return the parts, joined by dashes, as a quoted strong entity tag.
+   */
+  public static String eTag(Object... parts) {
+    StringBuilder eTag = new StringBuilder().append('"');
+    for (int i = 0; i < parts.length; i++) {
+      if (i > 0) {
+        eTag.append('-');
+      }
+      eTag.append(parts[i]);
+    }
+    return eTag.append('"').toString();
+  }
+
+  /**
+   * Whether an If-None-Match header names the entity tag, weak comparison as RFC 7232 requires:
+   * {@code W/} prefixes are ignored, {@code *} names any tag.
+   */
+  public static boolean matches(String ifNoneMatch, String eTag) {
+    if (isNull(ifNoneMatch)) {
+      return false;
+    }
+    for (String candidate : ifNoneMatch.split(",")) {
+      String trimmed = candidate.trim();
+      if (trimmed.startsWith(WEAK_PREFIX)) {
+        trimmed = trimmed.substring(WEAK_PREFIX.length());
+      }
+      if (trimmed.equals("*") || trimmed.equals(eTag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
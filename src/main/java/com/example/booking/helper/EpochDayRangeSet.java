@@ -0,0 +1,169 @@
+package com.example.booking.helper;
+
+import java.util.Arrays;
+
+/**
+ * Set of closed epoch day ranges, each packed into a long with its first day in the high half and
+ * its last day in the low half, so ordering them is a primitive sort. Ranges arriving in ascending
+ * order are merged as they are added, any other order is sorted and merged once, on first read.
+ *
+ * <p>Not thread-safe.
+ */
+public class EpochDayRangeSet {
+
+  private static final int DEFAULT_CAPACITY = 16;
+
+  private long[] ranges;
+
+  private int size;
+
+  private boolean normalized = true;
+
+  public EpochDayRangeSet() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public EpochDayRangeSet(int expectedRanges) {
+    this.ranges = new long[Math.max(1, expectedRanges)];
+  }
+
+  /** Adds the nights between both epoch days (inclusive), empty ranges are ignored. */
+  public EpochDayRangeSet add(int fromDay, int toDay) {
+    if (fromDay > toDay) {
+      return this;
+    }
+    if (this.normalized && this.size > 0) {
+      long last = this.ranges[this.size - 1];
+      if (fromDay >= from(last)) {
+        if (fromDay <= to(last) + 1) {
+          this.ranges[this.size - 1] = pack(from(last), Math.max(to(last), toDay));
+          return this;
+        }
+      } else {
+        this.normalized = false;
+      }
+    }
+    if (this.size == this.ranges.length) {
+      this.ranges = Arrays.copyOf(this.ranges, this.size * 2);
+    }
+    this.ranges[this.size++] = pack(fromDay, toDay);
+    return this;
+  }
+
+  /** Nights in this set or in the other one. */
+  public EpochDayRangeSet union(EpochDayRangeSet other) {
+    this.normalize();
+    other.normalize();
+    EpochDayRangeSet union = new EpochDayRangeSet(this.size + other.size);
+    int i = 0;
+    int j = 0;
+    while (i < this.size || j < other.size) {
+      long next =
+          j == other.size || (i < this.size && this.ranges[i] <= other.ranges[j])
+              ? this.ranges[i++]
+              : other.ranges[j++];
+      union.add(from(next), to(next));
+    }
+    return union;
+  }
+
+  /** Nights of this set between both epoch days (inclusive). */
+  public EpochDayRangeSet clip(int fromDay, int toDay) {
+    this.normalize();
+    EpochDayRangeSet clipped = new EpochDayRangeSet(this.size);
+    for (int i = this.firstEndingFrom(fromDay); i < this.size; i++) {
+      long range = this.ranges[i];
+      if (from(range) > toDay) {
+        break;
+      }
+      clipped.add(Math.max(from(range), fromDay), Math.min(to(range), toDay));
+    }
+    return clipped;
+  }
+
+  /** Nights between both epoch days (inclusive) that are not in this set. */
+  public EpochDayRangeSet complement(int fromDay, int toDay) {
+    this.normalize();
+    EpochDayRangeSet complement = new EpochDayRangeSet(this.size + 1);
+    long next = fromDay;
+    for (int i = this.firstEndingFrom(fromDay); i < this.size && next <= toDay; i++) {
+      long range = this.ranges[i];
+      if (from(range) > toDay) {
+        break;
+      }
+      if (from(range) > next) {
+        complement.add((int) next, from(range) - 1);
+      }
+      next = Math.max(next, (long) to(range) + 1);
+    }
+    if (next <= toDay) {
+      complement.add((int) next, toDay);
+    }
+    return complement;
+  }
+
+  /** Number of disjoint, non adjacent ranges. */
+  public int size() {
+    this.normalize();
+    return this.size;
+  }
+
+  /**
+   * @return consecutive closed [from, to] epoch day pairs in ascending order.
+   */
+  public int[] toArray() {
+    this.normalize();
+    int[] array = new int[this.size * 2];
+    for (int i = 0; i < this.size; i++) {
+      array[2 * i] = from(this.ranges[i]);
+      array[2 * i + 1] = to(this.ranges[i]);
+    }
+    return array;
+  }
+
+  private void normalize() {
+    if (this.normalized) {
+      return;
+    }
+    Arrays.sort(this.ranges, 0, this.size);
+    int merged = 0;
+    for (int i = 1; i < this.size; i++) {
+      long last = this.ranges[merged];
+      long range = this.ranges[i];
+      if (from(range) <= to(last) + 1) {
+        this.ranges[merged] = pack(from(last), Math.max(to(last), to(range)));
+      } else {
+        this.ranges[++merged] = range;
+      }
+    }
+    this.size = this.size == 0 ? 0 : merged + 1;
+    this.normalized = true;
+  }
+
+  /** Index of the first range whose last day is not before the given one, ranges being merged. */
+  private int firstEndingFrom(int day) {
+    int low = 0;
+    int high = this.size;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (to(this.ranges[middle]) < day) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  private static long pack(int fromDay, int toDay) {
+    return ((long) fromDay << 32) | (toDay & 0xFFFFFFFFL);
+  }
+
+  private static int from(long range) {
+    return (int) (range >> 32);
+  }
+
+  private static int to(long range) {
+    return (int) range;
+  }
+}
@@ -0,0 +1,51 @@
+package com.example.booking.helper;
+
+import com.example.booking.dto.AvailableDateDTO;
+
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+/**
+ * Turns booked ranges, fed in ascending order of arrival, into the free ranges of a window as soon
+ * as each one is known, holding nothing but the next candidate date.
+ */
+public class FreeRangeScanner {
+
+  private final LocalDate to;
+
+  private final Consumer<AvailableDateDTO> freeRangeConsumer;
+
+  private LocalDate next;
+
+  public FreeRangeScanner(
+      LocalDate from, LocalDate to, Consumer<AvailableDateDTO> freeRangeConsumer) {
+    this.next = from;
+    this.to = to;
+    this.freeRangeConsumer = freeRangeConsumer;
+  }
+
+  /** Feeds the next booked range, both ends included. */
+  public void booked(LocalDate arrival, LocalDate departure) {
+    if (this.next.isAfter(this.to)) {
+      return;
+    }
+    if (arrival.isAfter(this.next)) {
+      this.emit(this.next, arrival.minusDays(1).isAfter(this.to) ? this.to : arrival.minusDays(1));
+    }
+    if (!departure.isBefore(this.next)) {
+      this.next = departure.plusDays(1);
+    }
+  }
+
+  /** Emits the free range left after the last booked range, if any. */
+  public void finish() {
+    if (!this.next.isAfter(this.to)) {
+      this.emit(this.next, this.to);
+      this.next = this.to.plusDays(1);
+    }
+  }
+
+  private void emit(LocalDate from, LocalDate to) {
+    this.freeRangeConsumer.accept(AvailableDateDTO.builder().from(from).to(to).build());
+  }
+}
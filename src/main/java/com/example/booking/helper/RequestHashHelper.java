@@ -0,0 +1,31 @@
+package com.example.booking.helper;
+
+import com.example.booking.request.CreateBookingRequestBody;
+import com.google.common.hash.Hashing;
+
+import java.nio.charset.StandardCharsets;
+
+/** Fingerprints requests, so that an idempotency key is only ever replayed for the same request. */
+public class RequestHashHelper {
+
+  private static final char SEPARATOR = '\n';
+
+  /**
+   * @return the SHA-256 of the request fields, as 64 hexadecimal digits.
+   */
+  public static String hash(CreateBookingRequestBody requestBody) {
+    String fields =
+        new StringBuilder(128)
+            .append(requestBody.getName())
+            .append(SEPARATOR)
+            .append(requestBody.getEmail())
+            .append(SEPARATOR)
+            .append(requestBody.getArrivalDate())
+            .append(SEPARATOR)
+            .append(requestBody.getDepartureDate())
+            .append(SEPARATOR)
+            .append(requestBody.getResourceId())
+            .toString();
+    return Hashing.sha256().hashString(fields, StandardCharsets.UTF_8).toString();
+  }
+}
@@ -0,0 +1,28 @@
+package com.example.booking.hold;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Instant;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/** A hold waiting for its expiry in the {@link HoldExpiryQueue}. */
+@Getter
+@RequiredArgsConstructor
+class HoldExpiry implements Delayed {
+
+  private final Long bookingId;
+  private final Instant heldUntil;
+
+  @Override
+  public long getDelay(TimeUnit unit) {
+    return unit.convert(
+        this.heldUntil.toEpochMilli() - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public int compareTo(Delayed other) {
+    return this.heldUntil.compareTo(((HoldExpiry) other).heldUntil);
+  }
+}
@@ -0,0 +1,109 @@
+package com.example.booking.hold;
+
+import com.example.booking.event.BookingHeldEvent;
+import com.example.booking.repository.BookingJdbcRepository;
+import com.example.booking.service.BookingService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.DelayQueue;
+
+/**
+ * Releases holds when they expire. Each hold waits in a delay queue, ordered by expiry, on which a
+ * single thread sleeps until the next one is due; every hold due by then is released in the same
+ * statement. Holds are queued on start up and whenever one is committed, holds taken on another
+ * instance are picked up by a periodic sweep of the expired ones.
+ */
+@Component
+@Slf4j
+public class HoldExpiryQueue {
+
+  private static final int RELEASE_BATCH_SIZE = 1000;
+
+  private final BookingService bookingService;
+
+  private final BookingJdbcRepository bookingJdbcRepository;
+
+  private final Duration ttl;
+
+  private final DelayQueue<HoldExpiry> queue = new DelayQueue<>();
+
+  private final Thread releaser = new Thread(this::releaseWhenDue, "booking-hold-expiry");
+
+  public HoldExpiryQueue(
+      BookingService bookingService,
+      BookingJdbcRepository bookingJdbcRepository,
+      @Value("${booking.hold.ttl-seconds:600}") long ttlSeconds) {
+    this.bookingService = bookingService;
+    this.bookingJdbcRepository = bookingJdbcRepository;
+    this.ttl = Duration.ofSeconds(ttlSeconds);
+    this.releaser.setDaemon(true);
+  }
+
+  /** Expiry of a hold taken now. */
+  public Instant expiryFromNow() {
+    return Instant.now().plus(this.ttl);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    this.bookingJdbcRepository.forEachHold(
+        (bookingId, heldUntil) -> this.queue.add(new HoldExpiry(bookingId, heldUntil)));
+    log.info(String.format("Hold expiry started with %s hold(s) queued", this.queue.size()));
+    this.releaser.start();
+  }
+
+  @TransactionalEventListener
+  public void onBookingHeld(BookingHeldEvent event) {
+    this.queue.add(new HoldExpiry(event.getBookingId(), event.getHeldUntil()));
+  }
+
+  @Scheduled(cron = "${booking.hold.sweep-cron:0 */5 * * * *}")
+  public void sweep() {
+    List<Long> expired =
+        this.bookingJdbcRepository.findExpiredHoldIds(Instant.now(), RELEASE_BATCH_SIZE);
+    if (!expired.isEmpty()) {
+      this.release(expired);
+    }
+  }
+
+  @PreDestroy
+  public void stop() {
+    this.releaser.interrupt();
+  }
+
+  private void releaseWhenDue() {
+    while (!Thread.currentThread().isInterrupted()) {
+      try {
+        List<Long> due = new ArrayList<>();
+        due.add(this.queue.take().getBookingId());
+        HoldExpiry next;
+        while (due.size() < RELEASE_BATCH_SIZE && (next = this.queue.poll()) != null) {
+          due.add(next.getBookingId());
+        }
+        this.release(due);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private void release(List<Long> bookingIds) {
+    try {
+      this.bookingService.releaseExpiredHolds(bookingIds);
+    } catch (RuntimeException ex) {
+      // left held, the next sweep retries them
+      log.error(String.format("Releasing %s expired hold(s) failed", bookingIds.size()), ex);
+    }
+  }
+}
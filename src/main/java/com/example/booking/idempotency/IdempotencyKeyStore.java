@@ -0,0 +1,162 @@
+package com.example.booking.idempotency;
+
+import com.example.booking.exception.IdempotencyKeyReusedException;
+import com.example.booking.exception.InvalidBookingStateException;
+import com.example.booking.repository.IdempotencyKeyRepository;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static com.example.booking.constant.ExceptionMessages.IDEMPOTENCY_KEY_REUSED;
+import static com.example.booking.constant.ExceptionMessages.IDEMPOTENT_REQUEST_IN_PROGRESS;
+
+/**
+ * Booking created for each idempotency key. Recent keys are answered from a bounded in-memory
+ * cache, older ones from the idempotency_key table, which holds them for the retention period. Keys
+ * whose booking is still being created by this instance are tracked too, so a retry waits for the
+ * outcome of the original rather than racing it. A key is only ever answered for the request it was
+ * first sent with.
+ */
+@Component
+@Slf4j
+public class IdempotencyKeyStore implements MeterBinder {
+
+  private final IdempotencyKeyRepository idempotencyKeyRepository;
+
+  private final Duration retention;
+
+  private final Cache<String, IdempotentBooking> cache;
+
+  private final long inFlightWaitMs;
+
+  private final ConcurrentMap<String, InFlightCreation> inFlight = new ConcurrentHashMap<>();
+
+  public IdempotencyKeyStore(
+      IdempotencyKeyRepository idempotencyKeyRepository,
+      @Value("${booking.idempotency.cache.maximum-size:100000}") long maximumSize,
+      @Value("${booking.idempotency.retention-hours:24}") long retentionHours,
+      @Value("${booking.idempotency.in-flight-wait-ms:10000}") long inFlightWaitMs) {
+    this.idempotencyKeyRepository = idempotencyKeyRepository;
+    this.inFlightWaitMs = inFlightWaitMs;
+    this.retention = Duration.ofHours(retentionHours);
+    this.cache =
+        CacheBuilder.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(retentionHours, TimeUnit.HOURS)
+            .recordStats()
+            .build();
+  }
+
+  /**
+   * Booking created for the key, if any.
+   *
+   * @throws IdempotencyKeyReusedException if the key created a booking for another request.
+   */
+  public Optional<Long> bookingIdFor(String idempotencyKey, String requestHash) {
+    IdempotentBooking booking = this.cache.getIfPresent(idempotencyKey);
+    if (booking == null) {
+      Optional<IdempotentBooking> stored =
+          this.idempotencyKeyRepository.findBooking(idempotencyKey);
+      if (!stored.isPresent()) {
+        return Optional.empty();
+      }
+      booking = stored.get();
+      this.cache.put(idempotencyKey, booking);
+    }
+    if (!booking.matches(requestHash)) {
+      throw new IdempotencyKeyReusedException(IDEMPOTENCY_KEY_REUSED);
+    }
+    return Optional.of(booking.getBookingId());
+  }
+
+  /**
+   * Marks the key as being created by the caller, who must then {@link #finish} it, unless another
+   * creation is in flight for it.
+   *
+   * @return the booking id the creation in flight ends with, null if it fails; empty if the caller
+   *     now owns the key.
+   * @throws IdempotencyKeyReusedException if the creation in flight is for another request.
+   */
+  public Optional<CompletableFuture<Long>> start(String idempotencyKey, String requestHash) {
+    InFlightCreation started = new InFlightCreation(requestHash);
+    InFlightCreation current = this.inFlight.putIfAbsent(idempotencyKey, started);
+    if (current == null) {
+      return Optional.empty();
+    }
+    if (!current.requestHash.equals(requestHash)) {
+      throw new IdempotencyKeyReusedException(IDEMPOTENCY_KEY_REUSED);
+    }
+    return Optional.of(current.bookingId);
+  }
+
+  /**
+   * Waits for a creation returned by {@link #start}.
+   *
+   * @return the booking id it ended with, null if it failed.
+   * @throws InvalidBookingStateException if it is still in flight after the configured wait.
+   */
+  public Long await(CompletableFuture<Long> creation) {
+    try {
+      return creation.get(this.inFlightWaitMs, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new InvalidBookingStateException(IDEMPOTENT_REQUEST_IN_PROGRESS, ex);
+    } catch (ExecutionException | TimeoutException ex) {
+      throw new InvalidBookingStateException(IDEMPOTENT_REQUEST_IN_PROGRESS, ex);
+    }
+  }
+
+  /**
+   * Caches a key once the booking it created is committed, and hands the outcome over to the
+   * retries waiting for it.
+   *
+   * @param bookingId booking created, null if the creation failed.
+   */
+  public void finish(String idempotencyKey, String requestHash, Long bookingId) {
+    if (bookingId != null) {
+      this.cache.put(idempotencyKey, new IdempotentBooking(bookingId, requestHash));
+    }
+    InFlightCreation finished = this.inFlight.remove(idempotencyKey);
+    if (finished != null) {
+      finished.bookingId.complete(bookingId);
+    }
+  }
+
+  @Scheduled(cron = "${booking.idempotency.cleanup-cron:0 0 * * * *}")
+  public void deleteExpired() {
+    int deleted = this.idempotencyKeyRepository.deleteCreatedBefore(Instant.now().minus(retention));
+    log.info(String.format("Deleted %s expired idempotency key(s)", deleted));
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    GuavaCacheMetrics.monitor(registry, this.cache, "idempotency");
+  }
+
+  private static final class InFlightCreation {
+
+    private final String requestHash;
+
+    private final CompletableFuture<Long> bookingId = new CompletableFuture<>();
+
+    private InFlightCreation(String requestHash) {
+      this.requestHash = requestHash;
+    }
+  }
+}
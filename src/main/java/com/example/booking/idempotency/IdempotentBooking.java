@@ -0,0 +1,21 @@
+package com.example.booking.idempotency;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import static java.util.Objects.isNull;
+
+/** Booking created for an idempotency key, with the hash of the request that created it. */
+@Getter
+@RequiredArgsConstructor
+public final class IdempotentBooking {
+
+  private final Long bookingId;
+
+  /** Null for keys stored before requests were hashed, they match any request. */
+  private final String requestHash;
+
+  public boolean matches(String requestHash) {
+    return isNull(this.requestHash) || this.requestHash.equals(requestHash);
+  }
+}
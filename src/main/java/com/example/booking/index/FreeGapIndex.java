@@ -0,0 +1,177 @@
+package com.example.booking.index;
+
+import java.util.Arrays;
+
+/**
+ * Free runs of nights of a snapshot, sorted, searched for the stays closest to a date. A binary
+ * search finds the runs around the date, then the search walks outwards, one arrival at a time,
+ * from both sides. A max tree over the run lengths jumps over the runs too short for the stay in
+ * logarithmic time, however many of them lie in between.
+ */
+final class FreeGapIndex {
+
+  private static final int NONE = Integer.MIN_VALUE;
+
+  /** Consecutive closed [from, to] epoch day pairs, in ascending order. */
+  private final int[] gaps;
+
+  /** Number of leaves of the max tree, the number of gaps rounded up to a power of two. */
+  private final int leaves;
+
+  /** Longest gap, in nights, under each node of the max tree; node 1 is the root. */
+  private final int[] longest;
+
+  FreeGapIndex(int[] gaps) {
+    this.gaps = gaps;
+    int count = gaps.length / 2;
+    int leaves = 1;
+    while (leaves < count) {
+      leaves <<= 1;
+    }
+    this.leaves = leaves;
+    this.longest = new int[2 * leaves];
+    for (int i = 0; i < count; i++) {
+      this.longest[leaves + i] = gaps[2 * i + 1] - gaps[2 * i] + 1;
+    }
+    for (int node = leaves - 1; node > 0; node--) {
+      this.longest[node] = Math.max(this.longest[2 * node], this.longest[2 * node + 1]);
+    }
+  }
+
+  /**
+   * Arrivals of stays occupying {@code days} days, all of them free, closest to {@code nearDay}
+   * first, and the earlier first when two are as close.
+   *
+   * @param minArrival earliest arrival allowed, as epoch day.
+   * @param maxArrival latest arrival allowed, as epoch day.
+   * @param limit maximum number of arrivals.
+   * @return the arrivals, as epoch days.
+   */
+  int[] nearestArrivals(int days, int nearDay, int minArrival, int maxArrival, int limit) {
+    Query query = new Query(days, minArrival, maxArrival);
+    int later = this.later(query, Math.max(nearDay, minArrival));
+    int earlier = this.earlier(query, Math.min(nearDay - 1, maxArrival));
+
+    int[] arrivals = new int[limit];
+    int size = 0;
+    while (size < limit && (later != NONE || earlier != NONE)) {
+      if (earlier != NONE && (later == NONE || nearDay - earlier <= later - nearDay)) {
+        arrivals[size++] = earlier;
+        earlier = this.earlier(query, earlier - 1);
+      } else {
+        arrivals[size++] = later;
+        later = this.later(query, later + 1);
+      }
+    }
+    return Arrays.copyOf(arrivals, size);
+  }
+
+  /**
+   * First arrival from {@code day} on, in the first gap long enough among those ending late enough
+   * to hold a stay arriving on that day, or {@link #NONE}.
+   */
+  private int later(Query query, int day) {
+    int gap = this.nextLongGap(this.firstGapEndingFrom(day + query.days - 1), query.days);
+    if (gap < 0) {
+      return NONE;
+    }
+    int arrival = Math.max(Math.max(this.gaps[2 * gap], query.minArrival), day);
+    return arrival <= this.lastArrival(query, gap) ? arrival : NONE;
+  }
+
+  /**
+   * Last arrival up to {@code day}, in the last gap long enough among those starting on that day or
+   * before, or {@link #NONE}.
+   */
+  private int earlier(Query query, int day) {
+    int gap = this.previousLongGap(this.firstGapStartingAfter(day) - 1, query.days);
+    if (gap < 0) {
+      return NONE;
+    }
+    int arrival = Math.min(this.lastArrival(query, gap), day);
+    return arrival >= Math.max(this.gaps[2 * gap], query.minArrival) ? arrival : NONE;
+  }
+
+  private int lastArrival(Query query, int gap) {
+    return Math.min(this.gaps[2 * gap + 1] - query.days + 1, query.maxArrival);
+  }
+
+  /** Index of the first gap whose last night is on or after the day, or the number of gaps. */
+  private int firstGapEndingFrom(int day) {
+    int low = 0;
+    int high = this.gaps.length / 2;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (this.gaps[2 * middle + 1] < day) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /** Index of the first gap whose first night is after the day, or the number of gaps. */
+  private int firstGapStartingAfter(int day) {
+    int low = 0;
+    int high = this.gaps.length / 2;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (this.gaps[2 * middle] <= day) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /** Index of the first gap from {@code from} on at least {@code days} nights long, or -1. */
+  private int nextLongGap(int from, int days) {
+    return from < this.gaps.length / 2 ? this.nextLongGap(1, 0, this.leaves - 1, from, days) : -1;
+  }
+
+  private int nextLongGap(int node, int low, int high, int from, int days) {
+    if (high < from || this.longest[node] < days) {
+      return -1;
+    }
+    if (low == high) {
+      return low;
+    }
+    int middle = (low + high) >>> 1;
+    int found = this.nextLongGap(2 * node, low, middle, from, days);
+    return found >= 0 ? found : this.nextLongGap(2 * node + 1, middle + 1, high, from, days);
+  }
+
+  /** Index of the last gap up to {@code upTo} at least {@code days} nights long, or -1. */
+  private int previousLongGap(int upTo, int days) {
+    return upTo >= 0 ? this.previousLongGap(1, 0, this.leaves - 1, upTo, days) : -1;
+  }
+
+  private int previousLongGap(int node, int low, int high, int upTo, int days) {
+    if (low > upTo || this.longest[node] < days) {
+      return -1;
+    }
+    if (low == high) {
+      return low;
+    }
+    int middle = (low + high) >>> 1;
+    int found = this.previousLongGap(2 * node + 1, middle + 1, high, upTo, days);
+    return found >= 0 ? found : this.previousLongGap(2 * node, low, middle, upTo, days);
+  }
+
+  private static final class Query {
+
+    private final int days;
+
+    private final int minArrival;
+
+    private final int maxArrival;
+
+    private Query(int days, int minArrival, int maxArrival) {
+      this.days = days;
+      this.minArrival = minArrival;
+      this.maxArrival = maxArrival;
+    }
+  }
+}
@@ -0,0 +1,65 @@
+package com.example.booking.index;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-night claims held by in-flight reservations, without a global lock. Each night maps to a slot
+ * of a ring, taken by compare-and-set of the night and the claim token packed together, so two
+ * claims only contend when they share a night.
+ */
+public class NightClaims {
+
+  private static final long FREE = 0L;
+
+  private final AtomicLongArray slots;
+
+  private final AtomicInteger tokens = new AtomicInteger();
+
+  public NightClaims(int capacity) {
+    this.slots = new AtomicLongArray(capacity);
+  }
+
+  /** Whether a window of that many nights can be claimed at once. */
+  public boolean fits(int fromDay, int toDay) {
+    return toDay - fromDay < this.slots.length();
+  }
+
+  /**
+   * Claims every night between both epoch days (inclusive), all or nothing.
+   *
+   * @return the claim token, or 0 when some night is already claimed.
+   */
+  public int tryClaim(int fromDay, int toDay) {
+    int token = this.nextToken();
+    for (int day = fromDay; day <= toDay; day++) {
+      if (!this.slots.compareAndSet(this.slot(day), FREE, claim(day, token))) {
+        this.release(fromDay, day - 1, token);
+        return 0;
+      }
+    }
+    return token;
+  }
+
+  public void release(int fromDay, int toDay, int token) {
+    for (int day = fromDay; day <= toDay; day++) {
+      this.slots.compareAndSet(this.slot(day), claim(day, token), FREE);
+    }
+  }
+
+  private int nextToken() {
+    int token;
+    do {
+      token = this.tokens.incrementAndGet();
+    } while (token == 0);
+    return token;
+  }
+
+  private int slot(int day) {
+    return Math.floorMod(day, this.slots.length());
+  }
+
+  private static long claim(int day, int token) {
+    return ((long) day << 32) | (token & 0xFFFFFFFFL);
+  }
+}
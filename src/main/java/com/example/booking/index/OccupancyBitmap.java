@@ -0,0 +1,98 @@
+package com.example.booking.index;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Night occupancy over a fixed window of epoch days, one bit per night. Each night also records the
+ * booking holding it, so applying the same change twice, or releasing nights another booking has
+ * already taken, leaves the bits right.
+ *
+ * <p>Not thread-safe. {@link OccupancyIndex} changes private copies only, and never touches one
+ * again once it is published in an {@link OccupancySnapshot}.
+ */
+public class OccupancyBitmap {
+
+  private final int baseEpochDay;
+  private final int days;
+  private final long[] owners;
+  private final BitSet occupied;
+
+  public OccupancyBitmap(int baseEpochDay, int days) {
+    this.baseEpochDay = baseEpochDay;
+    this.days = days;
+    this.owners = new long[days];
+    this.occupied = new BitSet(days);
+  }
+
+  /** Copy of another bitmap, changes to either leave the other alone. */
+  public OccupancyBitmap(OccupancyBitmap other) {
+    this.baseEpochDay = other.baseEpochDay;
+    this.days = other.days;
+    this.owners = other.owners.clone();
+    this.occupied = (BitSet) other.occupied.clone();
+  }
+
+  public int getBaseEpochDay() {
+    return baseEpochDay;
+  }
+
+  public int getLastEpochDay() {
+    return baseEpochDay + days - 1;
+  }
+
+  /** Whether every night between both epoch days (inclusive) is inside the window. */
+  public boolean covers(int fromDay, int toDay) {
+    return fromDay <= toDay && fromDay >= baseEpochDay && toDay <= this.getLastEpochDay();
+  }
+
+  /** Marks the nights as held by the booking, nights outside the window are ignored. */
+  public void occupy(long bookingId, int fromDay, int toDay) {
+    int to = Math.min(toDay, this.getLastEpochDay()) - baseEpochDay;
+    for (int i = Math.max(fromDay, baseEpochDay) - baseEpochDay; i <= to; i++) {
+      owners[i] = bookingId;
+      occupied.set(i);
+    }
+  }
+
+  /** Frees the nights still held by the booking, nights outside the window are ignored. */
+  public void release(long bookingId, int fromDay, int toDay) {
+    int to = Math.min(toDay, this.getLastEpochDay()) - baseEpochDay;
+    for (int i = Math.max(fromDay, baseEpochDay) - baseEpochDay; i <= to; i++) {
+      if (owners[i] == bookingId) {
+        owners[i] = 0;
+        occupied.clear(i);
+      }
+    }
+  }
+
+  public boolean isFree(int fromDay, int toDay) {
+    int next = occupied.nextSetBit(fromDay - baseEpochDay);
+    return next < 0 || next > toDay - baseEpochDay;
+  }
+
+  /**
+   * Scans the free nights between both epoch days (inclusive), which must be covered.
+   *
+   * @return consecutive closed [from, to] epoch day pairs, in ascending order.
+   */
+  public int[] freeRanges(int fromDay, int toDay) {
+    int to = toDay - baseEpochDay;
+    int[] ranges = new int[8];
+    int size = 0;
+    int start = occupied.nextClearBit(fromDay - baseEpochDay);
+    while (start <= to) {
+      int end = occupied.nextSetBit(start);
+      if (end < 0 || end > to) {
+        end = to + 1;
+      }
+      if (size == ranges.length) {
+        ranges = Arrays.copyOf(ranges, size * 2);
+      }
+      ranges[size++] = baseEpochDay + start;
+      ranges[size++] = baseEpochDay + end - 1;
+      start = occupied.nextClearBit(end);
+    }
+    return Arrays.copyOf(ranges, size);
+  }
+}
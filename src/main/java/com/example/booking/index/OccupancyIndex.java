@@ -0,0 +1,233 @@
+package com.example.booking.index;
+
+import com.example.booking.event.BookingChangedEvent;
+import com.example.booking.repository.BookingJdbcRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static java.lang.Math.toIntExact;
+
+/**
+ * In-process occupancy of the bookable horizon, starting today, partitioned by resource. Each
+ * resource is loaded from the database on first use and rebuilt every midnight, in between it
+ * follows the committed changes of the booking write path, so availability inside the horizon is
+ * answered without a database round-trip. Each change publishes a new immutable {@link
+ * OccupancySnapshot} of the resource, so reads never lock, and resources never contend.
+ *
+ * <p>Only resources with bookings are tracked: those found by a rebuild, and those a committed
+ * change names since. Any other resource id a client sends is answered with a shared empty
+ * snapshot, so lookups allocate nothing for it.
+ */
+@Component
+@Slf4j
+public class OccupancyIndex {
+
+  private final BookingJdbcRepository bookingJdbcRepository;
+
+  private final int horizonDays;
+
+  private final ConcurrentMap<Long, ResourceOccupancy> resources = new ConcurrentHashMap<>();
+
+  /** Last snapshot version handed out, shared by all resources so reloads never repeat one. */
+  private final AtomicLong versions = new AtomicLong();
+
+  /** Occupancy of the resources without bookings, replaced on each rebuild. */
+  private volatile OccupancySnapshot empty;
+
+  public OccupancyIndex(
+      BookingJdbcRepository bookingJdbcRepository,
+      @Value("${booking.occupancy.horizon-days:400}") int horizonDays) {
+    this.bookingJdbcRepository = bookingJdbcRepository;
+    this.horizonDays = horizonDays;
+  }
+
+  @PostConstruct
+  @Scheduled(cron = "${booking.occupancy.rebuild-cron:0 0 0 * * *}")
+  public void rebuild() {
+    this.empty =
+        new OccupancySnapshot(
+            this.versions.incrementAndGet(),
+            new OccupancyBitmap(epochDay(LocalDate.now()), this.horizonDays));
+    this.bookingJdbcRepository.findResourceIds().forEach(this::resource);
+    this.resources.values().forEach(ResourceOccupancy::reload);
+  }
+
+  /**
+   * Changes replayed from other instances arrive outside any transaction and apply at once. A
+   * change older than the one last applied to its booking is dropped.
+   */
+  @Order(Ordered.HIGHEST_PRECEDENCE)
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onBookingChanged(BookingChangedEvent event) {
+    this.resource(event.getResourceId()).apply(event);
+  }
+
+  /**
+   * Whether some night of the resource between both dates is known to be booked, never for nights
+   * beyond the horizon.
+   */
+  public boolean isOccupied(Long resourceId, LocalDate from, LocalDate to) {
+    return this.snapshot(resourceId).isOccupied(from, to);
+  }
+
+  /** Latest published occupancy of the resource, loaded on first use, empty if not tracked. */
+  public OccupancySnapshot snapshot(Long resourceId) {
+    ResourceOccupancy resource = this.resources.get(resourceId);
+    return resource != null ? resource.snapshot() : this.empty;
+  }
+
+  /** Whether the resource had bookings as of the last rebuild, or has had a change since. */
+  public boolean isTracked(Long resourceId) {
+    return this.resources.containsKey(resourceId);
+  }
+
+  private ResourceOccupancy resource(Long resourceId) {
+    return this.resources.computeIfAbsent(resourceId, ResourceOccupancy::new);
+  }
+
+  private static int epochDay(LocalDate date) {
+    return toIntExact(date.toEpochDay());
+  }
+
+  /**
+   * Occupancy of a single resource, loaded on first use. Writers take turns copying the latest
+   * snapshot, changing the copy and swapping it in; readers only dereference.
+   */
+  private class ResourceOccupancy {
+
+    private final Long resourceId;
+
+    private final Lock writeLock = new ReentrantLock();
+
+    private final AtomicReference<OccupancySnapshot> snapshot = new AtomicReference<>();
+
+    /**
+     * Version and nights last applied per booking, cancelled ones included until the next load.
+     * Guarded by the write lock.
+     */
+    private Map<Long, AppliedChange> applied = new HashMap<>();
+
+    private ResourceOccupancy(Long resourceId) {
+      this.resourceId = resourceId;
+    }
+
+    private OccupancySnapshot snapshot() {
+      OccupancySnapshot current = this.snapshot.get();
+      if (current != null) {
+        return current;
+      }
+
+      this.writeLock.lock();
+      try {
+        current = this.snapshot.get();
+        return current != null ? current : this.load();
+      } finally {
+        this.writeLock.unlock();
+      }
+    }
+
+    private void apply(BookingChangedEvent event) {
+      this.writeLock.lock();
+      try {
+        OccupancySnapshot current = this.snapshot();
+        AppliedChange last = this.applied.get(event.getBookingId());
+        if (last != null && event.getVersion() < last.version) {
+          return;
+        }
+        OccupancyBitmap next = current.copyBitmap();
+        long bookingId = event.getBookingId();
+        if (last != null) {
+          if (last.hasRange()) {
+            next.release(bookingId, last.fromDay, last.toDay);
+          }
+        } else if (event.hasPreviousRange()) {
+          next.release(
+              bookingId, epochDay(event.getPreviousFrom()), epochDay(event.getPreviousTo()));
+        }
+        AppliedChange change =
+            event.hasRange()
+                ? new AppliedChange(
+                    event.getVersion(), epochDay(event.getFrom()), epochDay(event.getTo()))
+                : new AppliedChange(event.getVersion());
+        if (change.hasRange()) {
+          next.occupy(bookingId, change.fromDay, change.toDay);
+        }
+        this.applied.put(bookingId, change);
+        this.snapshot.set(new OccupancySnapshot(versions.incrementAndGet(), next));
+      } finally {
+        this.writeLock.unlock();
+      }
+    }
+
+    private void reload() {
+      this.writeLock.lock();
+      try {
+        this.load();
+      } finally {
+        this.writeLock.unlock();
+      }
+    }
+
+    /** Caller holds the write lock. */
+    private OccupancySnapshot load() {
+      LocalDate today = LocalDate.now();
+      LocalDate last = today.plusDays(horizonDays - 1);
+      OccupancyBitmap loaded = new OccupancyBitmap(epochDay(today), horizonDays);
+      Map<Long, AppliedChange> loadedChanges = new HashMap<>();
+      bookingJdbcRepository.forEachBookedDaysOnPrimary(
+          this.resourceId,
+          today,
+          last,
+          (bookingId, version, arrivalDay, departureDay) -> {
+            loaded.occupy(bookingId, arrivalDay, departureDay);
+            loadedChanges.put(bookingId, new AppliedChange(version, arrivalDay, departureDay));
+          });
+      this.applied = loadedChanges;
+      OccupancySnapshot published = new OccupancySnapshot(versions.incrementAndGet(), loaded);
+      this.snapshot.set(published);
+      log.info(
+          String.format(
+              "Occupancy of resource %s loaded from %s to %s", this.resourceId, today, last));
+      return published;
+    }
+  }
+  /** Version of a booking with the nights it holds, none once cancelled. */
+  private static final class AppliedChange {
+
+    private final long version;
+
+    private final int fromDay;
+
+    private final int toDay;
+
+    private AppliedChange(long version) {
+      this(version, 1, 0);
+    }
+
+    private AppliedChange(long version, int fromDay, int toDay) {
+      this.version = version;
+      this.fromDay = fromDay;
+      this.toDay = toDay;
+    }
+
+    private boolean hasRange() {
+      return this.fromDay <= this.toDay;
+    }
+  }
+}
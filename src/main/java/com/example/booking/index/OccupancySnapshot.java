@@ -0,0 +1,83 @@
+package com.example.booking.index;
+
+import java.time.LocalDate;
+
+import static java.lang.Math.toIntExact;
+
+/**
+ * Immutable occupancy of a resource over the bookable horizon, as of a version. Any change to the
+ * resource publishes a new snapshot with a higher version, so readers slice one without locking,
+ * and two slices of the same version are equal.
+ */
+public class OccupancySnapshot {
+
+  private final long version;
+
+  private final OccupancyBitmap bitmap;
+
+  /** Built on the first search, at most once per thread racing for it. */
+  private volatile FreeGapIndex freeGapIndex;
+
+  /**
+   * @param bitmap never changed once handed over.
+   */
+  OccupancySnapshot(long version, OccupancyBitmap bitmap) {
+    this.version = version;
+    this.bitmap = bitmap;
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  /** Copy of the occupancy, to derive the next snapshot from. */
+  OccupancyBitmap copyBitmap() {
+    return new OccupancyBitmap(this.bitmap);
+  }
+
+  /** Whether every night between both dates (inclusive) is inside the horizon. */
+  public boolean covers(LocalDate from, LocalDate to) {
+    return this.bitmap.covers(epochDay(from), epochDay(to));
+  }
+
+  /** Whether some night between both dates is booked, never for nights beyond the horizon. */
+  public boolean isOccupied(LocalDate from, LocalDate to) {
+    int fromDay = Math.max(epochDay(from), this.bitmap.getBaseEpochDay());
+    int toDay = Math.min(epochDay(to), this.bitmap.getLastEpochDay());
+    return fromDay <= toDay && !this.bitmap.isFree(fromDay, toDay);
+  }
+
+  /**
+   * Free nights between both dates (inclusive), which must be {@link #covers covered}.
+   *
+   * @return consecutive closed [from, to] epoch day pairs, in ascending order.
+   */
+  public int[] freeRanges(LocalDate from, LocalDate to) {
+    return this.bitmap.freeRanges(epochDay(from), epochDay(to));
+  }
+
+  /**
+   * Arrivals of free stays occupying the given days within the horizon, closest to a date first.
+   *
+   * @param minArrival earliest arrival allowed.
+   * @param maxArrival latest arrival allowed.
+   * @param limit maximum number of arrivals.
+   * @return the arrivals, as epoch days.
+   */
+  public int[] nearestArrivals(
+      int days, LocalDate near, LocalDate minArrival, LocalDate maxArrival, int limit) {
+    FreeGapIndex index = this.freeGapIndex;
+    if (index == null) {
+      index =
+          new FreeGapIndex(
+              this.bitmap.freeRanges(this.bitmap.getBaseEpochDay(), this.bitmap.getLastEpochDay()));
+      this.freeGapIndex = index;
+    }
+    return index.nearestArrivals(
+        days, epochDay(near), epochDay(minArrival), epochDay(maxArrival), limit);
+  }
+
+  private static int epochDay(LocalDate date) {
+    return toIntExact(date.toEpochDay());
+  }
+}
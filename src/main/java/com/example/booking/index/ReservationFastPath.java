@@ -0,0 +1,75 @@
+package com.example.booking.index;
+
+import com.example.booking.exception.InvalidBookingStateException;
+import com.example.booking.exception.UnavailableBookingDateException;
+import com.example.booking.metrics.BookingMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import static com.example.booking.constant.ExceptionMessages.REQUESTED_BOOKING_CANNOT_BE_CREATED;
+import static com.example.booking.constant.ExceptionMessages.REQUESTED_DATE_NOT_AVAILABLE;
+import static java.lang.Math.toIntExact;
+
+/**
+ * Rejects obviously conflicting reservations before they take a database connection: nights the
+ * occupancy index knows are booked, and nights claimed by another reservation still in flight. The
+ * exclusion constraint on the booking table stays the source of truth. Claims are kept per
+ * resource, so reservations of different resources never contend, and only for resources the
+ * occupancy index tracks; the first reservations of a resource go straight to the database.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReservationFastPath {
+
+  private static final int CLAIM_CAPACITY = 4096;
+
+  private final OccupancyIndex occupancyIndex;
+
+  private final BookingMetrics bookingMetrics;
+
+  private final ConcurrentMap<Long, NightClaims> nightClaims = new ConcurrentHashMap<>();
+
+  /**
+   * Runs the reservation while its nights are claimed. The claim is released once the reservation
+   * returns, by then a committed booking is already part of the occupancy index.
+   *
+   * @param resourceId resource being reserved.
+   * @param from first night of the reservation.
+   * @param to last night of the reservation.
+   * @param reservation writes the booking.
+   * @return what the reservation returned.
+   */
+  public <T> T reserve(Long resourceId, LocalDate from, LocalDate to, Supplier<T> reservation) {
+    if (this.occupancyIndex.isOccupied(resourceId, from, to)) {
+      throw new UnavailableBookingDateException(REQUESTED_DATE_NOT_AVAILABLE);
+    }
+
+    if (!this.occupancyIndex.isTracked(resourceId)) {
+      return reservation.get();
+    }
+
+    int fromDay = toIntExact(from.toEpochDay());
+    int toDay = toIntExact(to.toEpochDay());
+    NightClaims claims =
+        this.nightClaims.computeIfAbsent(resourceId, id -> new NightClaims(CLAIM_CAPACITY));
+    if (!claims.fits(fromDay, toDay)) {
+      return reservation.get();
+    }
+
+    int token = claims.tryClaim(fromDay, toDay);
+    if (token == 0) {
+      this.bookingMetrics.claimConflict();
+      throw new InvalidBookingStateException(REQUESTED_BOOKING_CANNOT_BE_CREATED);
+    }
+    try {
+      return reservation.get();
+    } finally {
+      claims.release(fromDay, toDay, token);
+    }
+  }
+}
@@ -0,0 +1,68 @@
+package com.example.booking.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts the ways a booking write can lose against another one, and the retried writes answered
+ * without one.
+ */
+@Component
+public class BookingMetrics {
+
+  private static final String CONFLICTS = "booking.conflicts";
+
+  private static final String IDEMPOTENT_REPLAYS = "booking.idempotent.replays";
+
+  private final Counter availabilityConflicts;
+
+  private final Counter claimConflicts;
+
+  private final Counter optimisticLockFailures;
+
+  private final Counter exclusionConstraintViolations;
+
+  private final Counter idempotentReplays;
+
+  public BookingMetrics(MeterRegistry meterRegistry) {
+    this.availabilityConflicts = this.conflictCounter(meterRegistry, "unavailable_date");
+    this.claimConflicts = this.conflictCounter(meterRegistry, "night_claim");
+    this.optimisticLockFailures = this.conflictCounter(meterRegistry, "optimistic_lock");
+    this.exclusionConstraintViolations =
+        this.conflictCounter(meterRegistry, "exclusion_constraint");
+    this.idempotentReplays =
+        Counter.builder(IDEMPOTENT_REPLAYS)
+            .description("Booking creations answered with the booking of their idempotency key")
+            .register(meterRegistry);
+  }
+
+  /** Requested dates already booked, see UnavailableBookingDateException. */
+  public void availabilityConflict() {
+    this.availabilityConflicts.increment();
+  }
+
+  /** Requested nights claimed by another reservation in flight. */
+  public void claimConflict() {
+    this.claimConflicts.increment();
+  }
+
+  public void optimisticLockFailure() {
+    this.optimisticLockFailures.increment();
+  }
+
+  public void exclusionConstraintViolation() {
+    this.exclusionConstraintViolations.increment();
+  }
+
+  public void idempotentReplay() {
+    this.idempotentReplays.increment();
+  }
+
+  private Counter conflictCounter(MeterRegistry meterRegistry, String type) {
+    return Counter.builder(CONFLICTS)
+        .description("Booking writes rejected because of a concurrent or existing booking")
+        .tag("type", type)
+        .register(meterRegistry);
+  }
+}
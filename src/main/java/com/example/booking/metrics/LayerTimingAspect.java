@@ -0,0 +1,69 @@
+package com.example.booking.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every public call into the controller, facade, service and repository layers, tagged by
+ * layer, class, method and thrown exception. Runs outside the transaction advice, so commit time
+ * is part of the service timings.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class LayerTimingAspect {
+
+  private static final String TIMER_NAME = "booking.layer.calls";
+
+  private final MeterRegistry meterRegistry;
+
+  @Around("execution(public * com.example.booking.controller..*(..))")
+  public Object timeController(ProceedingJoinPoint joinPoint) throws Throwable {
+    return this.time("controller", joinPoint);
+  }
+
+  @Around("execution(public * com.example.booking.facade..*(..))")
+  public Object timeFacade(ProceedingJoinPoint joinPoint) throws Throwable {
+    return this.time("facade", joinPoint);
+  }
+
+  @Around("execution(public * com.example.booking.service..*(..))")
+  public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+    return this.time("service", joinPoint);
+  }
+
+  @Around(
+      "this(com.example.booking.repository.BookingRepository)"
+          + " || execution(public * com.example.booking.repository..*(..))")
+  public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+    return this.time("repository", joinPoint);
+  }
+
+  private Object time(String layer, ProceedingJoinPoint joinPoint) throws Throwable {
+    Timer.Sample sample = Timer.start(this.meterRegistry);
+    String exception = "none";
+    try {
+      return joinPoint.proceed();
+    } catch (Throwable ex) {
+      exception = ex.getClass().getSimpleName();
+      throw ex;
+    } finally {
+      sample.stop(
+          Timer.builder(TIMER_NAME)
+              .tag("layer", layer)
+              .tag("class", joinPoint.getSignature().getDeclaringType().getSimpleName())
+              .tag("method", joinPoint.getSignature().getName())
+              .tag("exception", exception)
+              .publishPercentileHistogram()
+              .register(this.meterRegistry));
+    }
+  }
+}
@@ -14,6 +14,7 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.Version;
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Entity
@@ -23,12 +24,18 @@ import java.time.LocalDate;
 @Getter
 public class Booking {
 
+  /** Resource bookings belong to unless told otherwise, the only one before resources existed. */
+  public static final Long DEFAULT_RESOURCE_ID = 1L;
+
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
   private Long id;
 
   @Version private Long version;
 
+  @Column(name = "resource_id", nullable = false)
+  private Long resourceId;
+
   private String userName;
 
   private String email;
@@ -38,8 +45,17 @@ public class Booking {
   @Column(name = "booking_date_range", columnDefinition = "daterange")
   private Range<LocalDate> bookingDateRange;
 
+  /** Expiry of a HELD booking, null in any other status. */
+  @Column(name = "held_until")
+  private Instant heldUntil;
+
   public Booking(
-      String userName, String email, BookingStatus status, Range<LocalDate> bookingDateRange) {
+      Long resourceId,
+      String userName,
+      String email,
+      BookingStatus status,
+      Range<LocalDate> bookingDateRange) {
+    this.resourceId = resourceId;
     this.userName = userName;
     this.email = email;
     this.status = status;
@@ -49,4 +65,8 @@ public class Booking {
   public boolean isCancelled() {
     return BookingStatus.CANCELLED.equals(this.status);
   }
+
+  public boolean isHeld() {
+    return BookingStatus.HELD.equals(this.status);
+  }
 }
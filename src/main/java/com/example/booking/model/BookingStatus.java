@@ -5,7 +5,9 @@ import lombok.Getter;
 @Getter
 public enum BookingStatus {
   ACTIVE(1),
-  CANCELLED(0);
+  CANCELLED(0),
+  /** Nights held until an expiry, then released unless confirmed. Stored by ordinal, keep last. */
+  HELD(2);
 
   Integer id;
 
@@ -0,0 +1,142 @@
+package com.example.booking.notification;
+
+import com.example.booking.cache.AvailabilityCache;
+import com.example.booking.index.OccupancyIndex;
+import com.example.booking.stats.OccupancyStats;
+import com.example.booking.validation.BookingPolicyStore;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Applies the booking changes committed on other instances, as sent by {@link
+ * BookingChangeNotifier}, to the occupancy index, occupancy statistics and availability cache of
+ * this one. A single thread LISTENs on a connection of its own, outside the pool, and republishes
+ * each change as a local event. Notifications sent while it is disconnected are lost, so every
+ * (re)connection is followed by a rebuild of the local state. Booking policy changes, sent by
+ * {@link BookingPolicyStore}, arrive on the same connection and reload the stored policy.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(value = "booking.notification.enabled", matchIfMissing = true)
+public class BookingChangeListener {
+
+  private static final int POLL_TIMEOUT_MILLIS = 10_000;
+
+  private static final long RECONNECT_DELAY_MILLIS = 1_000;
+
+  private final DataSourceProperties dataSourceProperties;
+
+  private final BookingChangeNotifier bookingChangeNotifier;
+
+  private final OccupancyIndex occupancyIndex;
+
+  private final OccupancyStats occupancyStats;
+
+  private final AvailabilityCache availabilityCache;
+
+  private final BookingPolicyStore bookingPolicyStore;
+
+  private final ApplicationEventPublisher applicationEventPublisher;
+
+  private final Thread listener = new Thread(this::listen, "booking-change-listener");
+
+  public BookingChangeListener(
+      DataSourceProperties dataSourceProperties,
+      BookingChangeNotifier bookingChangeNotifier,
+      OccupancyIndex occupancyIndex,
+      OccupancyStats occupancyStats,
+      AvailabilityCache availabilityCache,
+      BookingPolicyStore bookingPolicyStore,
+      ApplicationEventPublisher applicationEventPublisher) {
+    this.dataSourceProperties = dataSourceProperties;
+    this.bookingChangeNotifier = bookingChangeNotifier;
+    this.occupancyIndex = occupancyIndex;
+    this.occupancyStats = occupancyStats;
+    this.availabilityCache = availabilityCache;
+    this.bookingPolicyStore = bookingPolicyStore;
+    this.applicationEventPublisher = applicationEventPublisher;
+    this.listener.setDaemon(true);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    this.listener.start();
+  }
+
+  @PreDestroy
+  public void stop() {
+    this.listener.interrupt();
+  }
+
+  private void listen() {
+    while (!Thread.currentThread().isInterrupted()) {
+      try (Connection connection =
+          DriverManager.getConnection(
+              this.dataSourceProperties.determineUrl(),
+              this.dataSourceProperties.determineUsername(),
+              this.dataSourceProperties.determinePassword())) {
+        try (Statement statement = connection.createStatement()) {
+          statement.execute("LISTEN " + BookingChangeNotifier.CHANNEL);
+          statement.execute("LISTEN " + BookingPolicyStore.CHANNEL);
+        }
+        this.resync();
+        log.info(
+            String.format(
+                "Listening to booking changes as node %s", this.bookingChangeNotifier.getNodeId()));
+
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        while (!Thread.currentThread().isInterrupted()) {
+          PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+          if (notifications != null) {
+            for (PGNotification notification : notifications) {
+              if (BookingPolicyStore.CHANNEL.equals(notification.getName())) {
+                this.bookingPolicyStore.reload();
+              } else {
+                this.apply(notification.getParameter());
+              }
+            }
+          }
+        }
+      } catch (SQLException | RuntimeException ex) {
+        log.error("Booking change listener disconnected, reconnecting", ex);
+        try {
+          Thread.sleep(RECONNECT_DELAY_MILLIS);
+        } catch (InterruptedException interrupted) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+  }
+
+  private void apply(String payload) {
+    if (this.bookingChangeNotifier.getNodeId().equals(BookingChangePayload.nodeId(payload))) {
+      return;
+    }
+    try {
+      // outside a transaction, the index, statistics and cache listeners run straight away
+      this.applicationEventPublisher.publishEvent(BookingChangePayload.decode(payload));
+    } catch (IllegalArgumentException ex) {
+      log.warn(String.format("Ignoring booking change %s: %s", payload, ex.getMessage()));
+    }
+  }
+
+  private void resync() {
+    this.occupancyIndex.rebuild();
+    this.occupancyStats.rebuild();
+    this.availabilityCache.invalidateAll();
+    this.bookingPolicyStore.reload();
+  }
+}
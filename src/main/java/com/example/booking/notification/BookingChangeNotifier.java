@@ -0,0 +1,45 @@
+package com.example.booking.notification;
+
+import com.example.booking.event.BookingChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.security.SecureRandom;
+
+/**
+ * Tells the other instances about every booking change, through a Postgres NOTIFY issued in the
+ * changing transaction: it is delivered when, and only if, the transaction commits, and in commit
+ * order. See {@link BookingChangeListener} for the receiving end.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(value = "booking.notification.enabled", matchIfMissing = true)
+public class BookingChangeNotifier {
+
+  static final String CHANNEL = "booking_changed";
+
+  private static final String NOTIFY = "select pg_notify(?, ?)";
+
+  /** Tells this instance's own notifications apart. */
+  private final String nodeId = Long.toString(new SecureRandom().nextLong() >>> 1, 36);
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public String getNodeId() {
+    return this.nodeId;
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+  public void onBookingChanged(BookingChangedEvent event) {
+    this.jdbcTemplate.query(
+        NOTIFY,
+        (RowCallbackHandler) resultSet -> {},
+        CHANNEL,
+        BookingChangePayload.encode(this.nodeId, event));
+  }
+}
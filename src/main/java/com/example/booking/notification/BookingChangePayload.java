@@ -0,0 +1,81 @@
+package com.example.booking.notification;
+
+import com.example.booking.event.BookingChangedEvent;
+import com.example.booking.model.BookingStatus;
+
+import java.time.LocalDate;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Booking change as a NOTIFY payload: the sending node, then the booking, its resource, its status,
+ * its version and both ranges as epoch days, separated by commas, absent days left empty.
+ */
+public class BookingChangePayload {
+
+  private static final char SEPARATOR = ',';
+
+  private static final int FIELDS = 9;
+
+  public static String encode(String nodeId, BookingChangedEvent event) {
+    return new StringBuilder(64)
+        .append(nodeId)
+        .append(SEPARATOR)
+        .append(event.getBookingId())
+        .append(SEPARATOR)
+        .append(event.getResourceId())
+        .append(SEPARATOR)
+        .append(event.getStatus().ordinal())
+        .append(SEPARATOR)
+        .append(event.getVersion())
+        .append(SEPARATOR)
+        .append(epochDay(event.getPreviousFrom()))
+        .append(SEPARATOR)
+        .append(epochDay(event.getPreviousTo()))
+        .append(SEPARATOR)
+        .append(epochDay(event.getFrom()))
+        .append(SEPARATOR)
+        .append(epochDay(event.getTo()))
+        .toString();
+  }
+
+  /**
+   * @return the node that sent the payload.
+   */
+  public static String nodeId(String payload) {
+    return payload.substring(0, payload.indexOf(SEPARATOR));
+  }
+
+  public static BookingChangedEvent decode(String payload) {
+    String[] fields = payload.split(String.valueOf(SEPARATOR), -1);
+    if (fields.length != FIELDS) {
+      throw new IllegalArgumentException(String.format("Malformed booking change %s", payload));
+    }
+    return new BookingChangedEvent(
+        Long.valueOf(fields[1]),
+        Long.valueOf(fields[2]),
+        status(fields[3]),
+        Long.parseLong(fields[4]),
+        date(fields[5]),
+        date(fields[6]),
+        date(fields[7]),
+        date(fields[8]));
+  }
+
+  private static BookingStatus status(String ordinal) {
+    BookingStatus[] statuses = BookingStatus.values();
+    int index = Integer.parseInt(ordinal);
+    if (index < 0 || index >= statuses.length) {
+      throw new IllegalArgumentException(String.format("Unknown booking status %s", ordinal));
+    }
+    return statuses[index];
+  }
+
+  private static String epochDay(LocalDate date) {
+    return isNull(date) ? "" : Long.toString(date.toEpochDay());
+  }
+
+  private static LocalDate date(String epochDay) {
+    return epochDay.isEmpty() ? null : LocalDate.ofEpochDay(Long.parseLong(epochDay));
+  }
+}
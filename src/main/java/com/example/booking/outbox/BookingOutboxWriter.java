@@ -0,0 +1,61 @@
+package com.example.booking.outbox;
+
+import com.example.booking.event.BookingChangedEvent;
+import com.example.booking.repository.BookingOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records every booking change in the outbox, in the transaction making it. Changes are gathered
+ * while the transaction runs and written as one batch right before it commits, however many there
+ * are.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingOutboxWriter {
+
+  private final BookingOutboxRepository bookingOutboxRepository;
+
+  /** Changes replayed from other instances arrive outside any transaction, and are not recorded. */
+  @EventListener
+  public void onBookingChanged(BookingChangedEvent event) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      return;
+    }
+    @SuppressWarnings("unchecked")
+    List<BookingChangedEvent> pending =
+        (List<BookingChangedEvent>) TransactionSynchronizationManager.getResource(this);
+    if (pending == null) {
+      pending = new ArrayList<>();
+      TransactionSynchronizationManager.bindResource(this, pending);
+      TransactionSynchronizationManager.registerSynchronization(new PendingChanges(pending));
+    }
+    pending.add(event);
+  }
+
+  private class PendingChanges implements TransactionSynchronization {
+
+    private final List<BookingChangedEvent> events;
+
+    private PendingChanges(List<BookingChangedEvent> events) {
+      this.events = events;
+    }
+
+    @Override
+    public void beforeCommit(boolean readOnly) {
+      bookingOutboxRepository.insertAll(this.events, Instant.now());
+    }
+
+    @Override
+    public void afterCompletion(int status) {
+      TransactionSynchronizationManager.unbindResource(BookingOutboxWriter.this);
+    }
+  }
+}
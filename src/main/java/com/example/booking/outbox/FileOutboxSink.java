@@ -0,0 +1,64 @@
+package com.example.booking.outbox;
+
+import com.example.booking.dto.BookingEventDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends booking changes to a file as newline delimited JSON, a batch per write, forced to disk
+ * before the batch counts as delivered. A batch delivered again after a failure repeats positions,
+ * readers skip those they have already seen.
+ */
+@Component
+@ConditionalOnProperty(value = "booking.outbox.sink", havingValue = "file")
+public class FileOutboxSink implements OutboxSink {
+
+  private final ObjectWriter writer;
+
+  private final FileChannel channel;
+
+  public FileOutboxSink(
+      ObjectMapper objectMapper, @Value("${booking.outbox.file:booking-events.ndjson}") String file)
+      throws IOException {
+    this(objectMapper, Paths.get(file));
+  }
+
+  FileOutboxSink(ObjectMapper objectMapper, Path path) throws IOException {
+    this.writer = objectMapper.writer();
+    this.channel =
+        FileChannel.open(
+            path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+  }
+
+  @Override
+  public synchronized void publish(List<BookingEventDTO> events) throws IOException {
+    ByteArrayOutputStream lines = new ByteArrayOutputStream(events.size() * 256);
+    for (BookingEventDTO event : events) {
+      lines.write(this.writer.writeValueAsBytes(event));
+      lines.write('\n');
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+    while (buffer.hasRemaining()) {
+      this.channel.write(buffer);
+    }
+    this.channel.force(false);
+  }
+
+  @PreDestroy
+  public void close() throws IOException {
+    this.channel.close();
+  }
+}
@@ -0,0 +1,29 @@
+package com.example.booking.outbox;
+
+import com.example.booking.dto.BookingEventDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Hands booking changes to {@code @EventListener}s of {@link BookingEventDTO} in this application,
+ * within the relaying transaction: a failing listener fails the batch.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(
+    value = "booking.outbox.sink",
+    havingValue = "in-process",
+    matchIfMissing = true)
+public class InProcessOutboxSink implements OutboxSink {
+
+  private final ApplicationEventPublisher applicationEventPublisher;
+
+  @Override
+  public void publish(List<BookingEventDTO> events) {
+    events.forEach(this.applicationEventPublisher::publishEvent);
+  }
+}
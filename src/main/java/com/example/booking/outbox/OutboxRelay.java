@@ -0,0 +1,87 @@
+package com.example.booking.outbox;
+
+import com.example.booking.dto.BookingEventDTO;
+import com.example.booking.repository.BookingOutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Delivers the outbox to the {@link OutboxSink} in batches, oldest first: each batch is claimed,
+ * numbered, published and marked processed in one transaction, so a failed publication leaves it
+ * pending. Runs until the outbox is drained, on one instance at a time.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+  private final BookingOutboxRepository bookingOutboxRepository;
+
+  private final OutboxSink outboxSink;
+
+  private final TransactionTemplate transactionTemplate;
+
+  private final int batchSize;
+
+  private final Duration retention;
+
+  public OutboxRelay(
+      BookingOutboxRepository bookingOutboxRepository,
+      OutboxSink outboxSink,
+      PlatformTransactionManager transactionManager,
+      @Value("${booking.outbox.batch-size:1000}") int batchSize,
+      @Value("${booking.outbox.retention-hours:168}") long retentionHours) {
+    this.bookingOutboxRepository = bookingOutboxRepository;
+    this.outboxSink = outboxSink;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.batchSize = batchSize;
+    this.retention = Duration.ofHours(retentionHours);
+  }
+
+  @Scheduled(fixedDelayString = "${booking.outbox.relay-interval-ms:1000}")
+  public void relay() {
+    try {
+      Integer relayed;
+      do {
+        relayed = this.transactionTemplate.execute(status -> this.relayBatch());
+      } while (relayed != null && relayed == this.batchSize);
+    } catch (RuntimeException ex) {
+      // left pending, the next run retries them
+      log.error("Relaying the booking outbox failed", ex);
+    }
+  }
+
+  @Scheduled(cron = "${booking.outbox.cleanup-cron:0 30 * * * *}")
+  public void deleteProcessed() {
+    int deleted =
+        this.bookingOutboxRepository.deleteProcessedBefore(Instant.now().minus(this.retention));
+    log.info(String.format("Deleted %s relayed booking change(s)", deleted));
+  }
+
+  private int relayBatch() {
+    List<BookingEventDTO> events =
+        this.bookingOutboxRepository.claimPending(this.batchSize, Instant.now());
+    if (events.isEmpty()) {
+      return 0;
+    }
+    try {
+      this.outboxSink.publish(events);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    log.debug(
+        String.format(
+            "Relayed booking changes %s to %s",
+            events.get(0).getPosition(), events.get(events.size() - 1).getPosition()));
+    return events.size();
+  }
+}
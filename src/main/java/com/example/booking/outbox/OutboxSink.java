@@ -0,0 +1,18 @@
+package com.example.booking.outbox;
+
+import com.example.booking.dto.BookingEventDTO;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Where {@link OutboxRelay} delivers booking changes. Failing a batch leaves it pending, to be
+ * delivered again, with the same positions, on the next run: delivery is at least once.
+ */
+public interface OutboxSink {
+
+  /**
+   * @param events in ascending position.
+   */
+  void publish(List<BookingEventDTO> events) throws IOException;
+}
@@ -0,0 +1,13 @@
+package com.example.booking.repository;
+
+/** Receives a booked range as epoch days, so no entity or date is allocated per row. */
+@FunctionalInterface
+public interface BookedDaysConsumer {
+
+  /**
+   * @param bookingId id of the booking.
+   * @param arrivalDay first booked night, as epoch day.
+   * @param departureDay last booked night, as epoch day.
+   */
+  void accept(long bookingId, int arrivalDay, int departureDay);
+}
@@ -0,0 +1,411 @@
+package com.example.booking.repository;
+
+import com.example.booking.dto.BookingDTO;
+import com.example.booking.model.BookingStatus;
+import com.example.booking.request.BookingSearchCriteria;
+import com.example.booking.request.CreateBookingRequestBody;
+import com.google.common.primitives.Ints;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+/** Booking table access that needs plain JDBC rather than managed entities. */
+@Repository
+@RequiredArgsConstructor
+public class BookingJdbcRepository {
+
+  private static final String INSERT_BOOKING =
+      "insert into booking (resource_id, user_name, email, status, booking_date_range, version) "
+          + "values (?, ?, ?, ?, daterange(?, ?, '[]'), 0)";
+
+  private static final String SELECT_BOOKED_RANGES =
+      "select lower(booking_date_range) - date '1970-01-01' as arrival_day, "
+          + "upper(booking_date_range) - date '1970-01-01' - 1 as departure_day "
+          + "from booking where resource_id = ? and booking_date_range && daterange(?, ?, '[]') "
+          + "and lower(booking_date_range) > coalesce(?::date, '-infinity'::date) "
+          + "order by lower(booking_date_range) limit ?";
+
+  private static final String SELECT_BOOKED_DAYS =
+      "select id, lower(booking_date_range) - date '1970-01-01' as arrival_day, "
+          + "upper(booking_date_range) - date '1970-01-01' - 1 as departure_day, version "
+          + "from booking where resource_id = ? and booking_date_range && daterange(?, ?, '[]')";
+
+  /** Every booking in ascending id, see {@link #forEachBooking}. */
+  private static final String SELECT_ALL =
+      "select id, resource_id, user_name, email, status, "
+          + "lower(booking_date_range) - date '1970-01-01' as arrival_day, "
+          + "upper(booking_date_range) - date '1970-01-01' - 1 as departure_day, "
+          + "held_until, version from booking order by id";
+
+  /** Every booking in ascending id as CSV with a header line, written by the server itself. */
+  private static final String COPY_ALL_CSV =
+      "copy (select id, resource_id, user_name, email, "
+          + statusNames()
+          + " as status, lower(booking_date_range) as arrival_date, "
+          + "upper(booking_date_range) - 1 as departure_date, held_until, version "
+          + "from booking order by id) to stdout with (format csv, header)";
+
+  /** Filters and the page size follow, see {@link #findPage}. */
+  private static final String SELECT_PAGE =
+      "select id, resource_id, user_name, email, status, lower(booking_date_range) as arrival, "
+          + "upper(booking_date_range) - 1 as departure, held_until, version "
+          + "from booking where id > ?";
+
+  private static final String SELECT_VERSION = "select version from booking where id = ?";
+
+  private static final String SELECT_RESOURCE_IDS = "select distinct resource_id from booking";
+
+  private static final String SELECT_HOLDS =
+      "select id, held_until from booking where status = ? and held_until is not null";
+
+  private static final String SELECT_EXPIRED_HOLD_IDS =
+      "select id from booking where status = ? and held_until <= ? limit ?";
+
+  /** Cancels the still held ones among the given bookings, handing back the nights they held. */
+  private static final String RELEASE_EXPIRED_HOLDS =
+      "update booking b set status = ?, booking_date_range = null, held_until = null, "
+          + "version = b.version + 1 "
+          + "from (select id, booking_date_range from booking "
+          + "where id = any(?) and status = ? and held_until <= ? for update) held "
+          + "where b.id = held.id "
+          + "returning b.id, b.resource_id, b.version, lower(held.booking_date_range) as arrival, "
+          + "upper(held.booking_date_range) - 1 as departure";
+
+  /** Cancels the ACTIVE bookings of a resource overlapping a window, handing back their nights. */
+  private static final String CANCEL_OVERLAPPING =
+      "update booking b set status = ?, booking_date_range = null, version = b.version + 1 from"
+          + " (select id, booking_date_range from booking where resource_id = ? and status = ? and"
+          + " booking_date_range && daterange(?, ?, '[]') order by id for update) active where b.id"
+          + " = active.id returning b.id, b.resource_id, b.version,"
+          + " lower(active.booking_date_range) as arrival, upper(active.booking_date_range) - 1 as"
+          + " departure";
+
+  private static final RowMapper<BookingDTO> BOOKING_MAPPER =
+      (ResultSet resultSet, int rowNum) -> {
+        Timestamp heldUntil = resultSet.getTimestamp("held_until");
+        return BookingDTO.builder()
+            .id(resultSet.getLong("id"))
+            .resourceId(resultSet.getLong("resource_id"))
+            .name(resultSet.getString("user_name"))
+            .email(resultSet.getString("email"))
+            .arrivalDate(resultSet.getObject("arrival", LocalDate.class))
+            .departureDate(resultSet.getObject("departure", LocalDate.class))
+            .status(BookingStatus.values()[resultSet.getInt("status")].name())
+            .heldUntil(heldUntil == null ? null : heldUntil.toInstant())
+            .version(resultSet.getLong("version"))
+            .build();
+      };
+
+  private static final int STREAM_FETCH_SIZE = 1000;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * Inserts ACTIVE bookings as a single JDBC batch, within the current transaction.
+   *
+   * @return generated ids, in the order of the given requests.
+   */
+  public List<Long> insertAll(List<CreateBookingRequestBody> requestBodies) {
+    return this.jdbcTemplate.execute(
+        (ConnectionCallback<List<Long>>)
+            connection -> {
+              try (PreparedStatement statement =
+                  connection.prepareStatement(INSERT_BOOKING, new String[] {"id"})) {
+                for (CreateBookingRequestBody requestBody : requestBodies) {
+                  statement.setLong(1, requestBody.getResourceId());
+                  statement.setString(2, requestBody.getName());
+                  statement.setString(3, requestBody.getEmail());
+                  statement.setInt(4, BookingStatus.ACTIVE.ordinal());
+                  statement.setObject(5, requestBody.getArrivalDate());
+                  statement.setObject(6, requestBody.getDepartureDate());
+                  statement.addBatch();
+                }
+                statement.executeBatch();
+
+                List<Long> ids = new ArrayList<>(requestBodies.size());
+                try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                  while (generatedKeys.next()) {
+                    ids.add(generatedKeys.getLong(1));
+                  }
+                }
+                return ids;
+              }
+            });
+  }
+
+  /**
+   * Booked ranges of a resource overlapping both dates (inclusive), read as plain epoch day columns
+   * in a read-only transaction: no entity is loaded, nothing enters a persistence context.
+   *
+   * @param bookedDaysConsumer receives each booking id with its first and last booked nights.
+   */
+  @Transactional(readOnly = true)
+  public void forEachBookedDays(
+      Long resourceId, LocalDate from, LocalDate to, BookedDaysConsumer bookedDaysConsumer) {
+    this.jdbcTemplate.query(
+        SELECT_BOOKED_DAYS,
+        (ResultSet resultSet) ->
+            bookedDaysConsumer.accept(
+                resultSet.getLong("id"),
+                resultSet.getInt("arrival_day"),
+                resultSet.getInt("departure_day")),
+        resourceId,
+        from,
+        to);
+  }
+
+  /**
+   * Same as {@link #forEachBookedDays}, with the version of each booking, in a read-write
+   * transaction so that, with read replicas configured, the primary answers: whatever loads from
+   * here, the occupancy index and statistics or the availability cache, is then kept current by
+   * commit events only, and must not start from a lagging copy.
+   */
+  @Transactional
+  public void forEachBookedDaysOnPrimary(
+      Long resourceId,
+      LocalDate from,
+      LocalDate to,
+      VersionedBookedDaysConsumer bookedDaysConsumer) {
+    this.jdbcTemplate.query(
+        SELECT_BOOKED_DAYS,
+        (ResultSet resultSet) ->
+            bookedDaysConsumer.accept(
+                resultSet.getLong("id"),
+                resultSet.getLong("version"),
+                resultSet.getInt("arrival_day"),
+                resultSet.getInt("departure_day")),
+        resourceId,
+        from,
+        to);
+  }
+
+  /** Every HELD booking with its expiry, expired or not. */
+  @Transactional(readOnly = true)
+  public void forEachHold(BiConsumer<Long, Instant> holdConsumer) {
+    this.jdbcTemplate.query(
+        SELECT_HOLDS,
+        (ResultSet resultSet) ->
+            holdConsumer.accept(
+                resultSet.getLong("id"), resultSet.getTimestamp("held_until").toInstant()),
+        BookingStatus.HELD.ordinal());
+  }
+
+  @Transactional(readOnly = true)
+  public List<Long> findExpiredHoldIds(Instant now, int limit) {
+    return this.jdbcTemplate.queryForList(
+        SELECT_EXPIRED_HOLD_IDS,
+        Long.class,
+        BookingStatus.HELD.ordinal(),
+        Timestamp.from(now),
+        limit);
+  }
+
+  /**
+   * Cancels, in a single statement, those of the given bookings still HELD with an expiry not after
+   * now, bumping their version. Bookings confirmed, cancelled or extended in the meantime are left
+   * alone.
+   *
+   * @param releasedRangeConsumer receives each released booking with the nights it held.
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void releaseExpiredHolds(
+      Collection<Long> bookingIds, Instant now, ReleasedRangeConsumer releasedRangeConsumer) {
+    this.jdbcTemplate.query(
+        connection -> {
+          PreparedStatement statement = connection.prepareStatement(RELEASE_EXPIRED_HOLDS);
+          statement.setInt(1, BookingStatus.CANCELLED.ordinal());
+          statement.setArray(2, connection.createArrayOf("bigint", bookingIds.toArray()));
+          statement.setInt(3, BookingStatus.HELD.ordinal());
+          statement.setTimestamp(4, Timestamp.from(now));
+          return statement;
+        },
+        (ResultSet resultSet) ->
+            releasedRangeConsumer.accept(
+                resultSet.getLong("id"),
+                resultSet.getLong("resource_id"),
+                resultSet.getLong("version"),
+                resultSet.getObject("arrival", LocalDate.class),
+                resultSet.getObject("departure", LocalDate.class)));
+  }
+
+  /**
+   * Cancels, in a single statement, the ACTIVE bookings of a resource with some night between both
+   * dates (inclusive), bumping their version so that concurrent changes to any of them fail their
+   * optimistic lock. Rows are locked in id order, and those changed by a transaction committing in
+   * the meantime are matched again against their latest version.
+   *
+   * @param releasedRangeConsumer receives each cancelled booking with the nights it held.
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void cancelOverlapping(
+      Long resourceId, LocalDate from, LocalDate to, ReleasedRangeConsumer releasedRangeConsumer) {
+    this.jdbcTemplate.query(
+        CANCEL_OVERLAPPING,
+        (ResultSet resultSet) ->
+            releasedRangeConsumer.accept(
+                resultSet.getLong("id"),
+                resultSet.getLong("resource_id"),
+                resultSet.getLong("version"),
+                resultSet.getObject("arrival", LocalDate.class),
+                resultSet.getObject("departure", LocalDate.class)),
+        BookingStatus.CANCELLED.ordinal(),
+        resourceId,
+        BookingStatus.ACTIVE.ordinal(),
+        from,
+        to);
+  }
+
+  /**
+   * Bookings matching the criteria after the given id, read as plain columns. The page starts by
+   * seeking the id in an index, so it costs the same however deep it is.
+   *
+   * @param afterId last id of the previous page, 0 for the first one.
+   * @param limit maximum number of bookings.
+   * @return the bookings, in ascending id.
+   */
+  @Transactional(readOnly = true)
+  public List<BookingDTO> findPage(BookingSearchCriteria criteria, long afterId, int limit) {
+    StringBuilder sql = new StringBuilder(SELECT_PAGE);
+    List<Object> arguments = new ArrayList<>(7);
+    arguments.add(afterId);
+    if (criteria.getStatus() != null) {
+      sql.append(" and status = ?");
+      arguments.add(criteria.getStatus().ordinal());
+    }
+    if (criteria.getEmail() != null) {
+      sql.append(" and email = ?");
+      arguments.add(criteria.getEmail());
+    }
+    if (criteria.getResourceId() != null) {
+      sql.append(" and resource_id = ?");
+      arguments.add(criteria.getResourceId());
+    }
+    if (criteria.hasDates()) {
+      sql.append(" and booking_date_range && daterange(?::date, ?::date, '[]')");
+      arguments.add(criteria.getFrom());
+      arguments.add(criteria.getTo());
+    }
+    sql.append(" order by id limit ?");
+    arguments.add(limit);
+    return this.jdbcTemplate.query(sql.toString(), BOOKING_MAPPER, arguments.toArray());
+  }
+
+  /**
+   * Walks every booking in ascending id through a server-side cursor, so rows are fetched in chunks
+   * rather than all at once.
+   */
+  @Transactional(readOnly = true)
+  public void forEachBooking(ExportedBookingConsumer exportedBookingConsumer) {
+    this.jdbcTemplate.query(
+        connection -> {
+          PreparedStatement statement = connection.prepareStatement(SELECT_ALL);
+          statement.setFetchSize(STREAM_FETCH_SIZE);
+          return statement;
+        },
+        (ResultSet resultSet) -> {
+          int arrivalDay = resultSet.getInt("arrival_day");
+          boolean noNights = resultSet.wasNull();
+          int departureDay = resultSet.getInt("departure_day");
+          Timestamp heldUntil = resultSet.getTimestamp("held_until");
+          exportedBookingConsumer.accept(
+              resultSet.getLong("id"),
+              resultSet.getLong("resource_id"),
+              resultSet.getString("user_name"),
+              resultSet.getString("email"),
+              resultSet.getInt("status"),
+              noNights ? ExportedBookingConsumer.NO_DAY : arrivalDay,
+              noNights ? ExportedBookingConsumer.NO_DAY : departureDay,
+              heldUntil == null ? ExportedBookingConsumer.NO_INSTANT : heldUntil.getTime(),
+              resultSet.getLong("version"));
+        });
+  }
+
+  /**
+   * Has Postgres write every booking as CSV, through {@code COPY TO STDOUT}, straight into the
+   * stream: rows go through no result set.
+   *
+   * @return the number of bookings written.
+   */
+  @Transactional(readOnly = true)
+  public long copyAllAsCsv(OutputStream outputStream) {
+    return this.jdbcTemplate.execute(
+        (ConnectionCallback<Long>)
+            connection -> {
+              try {
+                return connection
+                    .unwrap(PGConnection.class)
+                    .getCopyAPI()
+                    .copyOut(COPY_ALL_CSV, outputStream);
+              } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+              }
+            });
+  }
+
+  /** Version of the booking, without loading it. */
+  @Transactional(readOnly = true)
+  public Optional<Long> findVersion(Long bookingId) {
+    return this.jdbcTemplate.queryForList(SELECT_VERSION, Long.class, bookingId).stream()
+        .findFirst();
+  }
+
+  /** Resources holding at least one booking, cancelled ones included. */
+  @Transactional(readOnly = true)
+  public List<Long> findResourceIds() {
+    return this.jdbcTemplate.queryForList(SELECT_RESOURCE_IDS, Long.class);
+  }
+
+  /**
+   * Reads a page of the booked ranges of a resource overlapping both dates (inclusive), in
+   * ascending order of arrival, in a short transaction of its own. Arrivals are unique per
+   * resource, so the next page starts right after the last arrival of the previous one.
+   *
+   * @param afterArrival arrival of the last range of the previous page, null for the first page.
+   * @param limit maximum number of ranges to read.
+   * @return arrival and departure epoch days, both included, two entries per range.
+   */
+  @Transactional(readOnly = true)
+  public int[] findBookedRangesPage(
+      Long resourceId, LocalDate from, LocalDate to, LocalDate afterArrival, int limit) {
+    List<Integer> days = new ArrayList<>(2 * limit);
+    this.jdbcTemplate.query(
+        SELECT_BOOKED_RANGES,
+        (ResultSet resultSet) -> {
+          days.add(resultSet.getInt("arrival_day"));
+          days.add(resultSet.getInt("departure_day"));
+        },
+        resourceId,
+        from,
+        to,
+        afterArrival,
+        limit);
+    return Ints.toArray(days);
+  }
+
+  private static String statusNames() {
+    StringBuilder statusNames = new StringBuilder("case status");
+    for (BookingStatus status : BookingStatus.values()) {
+      statusNames.append(String.format(" when %s then '%s'", status.ordinal(), status.name()));
+    }
+    return statusNames.append(" end").toString();
+  }
+}
@@ -0,0 +1,128 @@
+package com.example.booking.repository;
+
+import com.example.booking.dto.BookingEventDTO;
+import com.example.booking.event.BookingChangedEvent;
+import com.example.booking.model.BookingStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/** Outbox of booking changes, written along with them and relayed downstream in batches. */
+@Repository
+@RequiredArgsConstructor
+public class BookingOutboxRepository {
+
+  /** Key of the transaction scoped advisory lock held while relaying, one relay at a time. */
+  private static final long RELAY_LOCK = 0x626f6f6b696e67L;
+
+  private static final String INSERT_CHANGE =
+      "insert into booking_outbox (booking_id, resource_id, status, previous_from, previous_to, "
+          + "from_date, to_date, created_at) values (?, ?, ?, ?, ?, ?, ?, ?)";
+
+  private static final String TRY_RELAY_LOCK = "select pg_try_advisory_xact_lock(?)";
+
+  private static final String SELECT_LAST_POSITION =
+      "select coalesce(max(relay_position), 0) from booking_outbox";
+
+  /** Marks the oldest pending changes processed, numbering them after the last position. */
+  private static final String CLAIM_PENDING =
+      "update booking_outbox o set processed_at = ?, relay_position = ? + pending.n "
+          + "from (select id, row_number() over (order by id) as n from "
+          + "(select id from booking_outbox where processed_at is null order by id limit ?) oldest"
+          + ") pending "
+          + "where o.id = pending.id "
+          + "returning o.relay_position, o.booking_id, o.resource_id, o.status, o.previous_from, "
+          + "o.previous_to, o.from_date, o.to_date, o.created_at";
+
+  private static final String SELECT_AFTER =
+      "select relay_position, booking_id, resource_id, status, previous_from, previous_to,"
+          + " from_date, to_date, created_at from booking_outbox where relay_position > ? order by"
+          + " relay_position limit ?";
+
+  /** The last position is kept, numbering carries on from it. */
+  private static final String DELETE_PROCESSED_BEFORE =
+      "delete from booking_outbox where processed_at < ? "
+          + "and relay_position < (select max(relay_position) from booking_outbox)";
+
+  private static final RowMapper<BookingEventDTO> BOOKING_EVENT_MAPPER =
+      (ResultSet resultSet, int rowNum) ->
+          BookingEventDTO.builder()
+              .position(resultSet.getLong("relay_position"))
+              .bookingId(resultSet.getLong("booking_id"))
+              .resourceId(resultSet.getLong("resource_id"))
+              .status(BookingStatus.values()[resultSet.getInt("status")].name())
+              .previousArrivalDate(resultSet.getObject("previous_from", LocalDate.class))
+              .previousDepartureDate(resultSet.getObject("previous_to", LocalDate.class))
+              .arrivalDate(resultSet.getObject("from_date", LocalDate.class))
+              .departureDate(resultSet.getObject("to_date", LocalDate.class))
+              .createdAt(resultSet.getTimestamp("created_at").toInstant())
+              .build();
+
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * Records the changes within the transaction making them, as a single JDBC batch, so they commit
+   * or roll back together.
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void insertAll(List<BookingChangedEvent> events, Instant createdAt) {
+    Timestamp timestamp = Timestamp.from(createdAt);
+    this.jdbcTemplate.batchUpdate(
+        INSERT_CHANGE,
+        events,
+        events.size(),
+        (statement, event) -> {
+          statement.setLong(1, event.getBookingId());
+          statement.setLong(2, event.getResourceId());
+          statement.setInt(3, event.getStatus().ordinal());
+          statement.setObject(4, event.getPreviousFrom());
+          statement.setObject(5, event.getPreviousTo());
+          statement.setObject(6, event.getFrom());
+          statement.setObject(7, event.getTo());
+          statement.setTimestamp(8, timestamp);
+        });
+  }
+
+  /**
+   * Marks up to limit of the oldest pending changes as processed and numbers them, in the order
+   * they were recorded, after the last position handed out. Nothing is claimed while another
+   * transaction is relaying. Rolling back returns the changes to pending, and they get the same
+   * positions again on the next try.
+   *
+   * @return the claimed changes, in ascending position.
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public List<BookingEventDTO> claimPending(int limit, Instant processedAt) {
+    Boolean locked = this.jdbcTemplate.queryForObject(TRY_RELAY_LOCK, Boolean.class, RELAY_LOCK);
+    if (!Boolean.TRUE.equals(locked)) {
+      return Collections.emptyList();
+    }
+    Long lastPosition = this.jdbcTemplate.queryForObject(SELECT_LAST_POSITION, Long.class);
+    List<BookingEventDTO> claimed =
+        this.jdbcTemplate.query(
+            CLAIM_PENDING, BOOKING_EVENT_MAPPER, Timestamp.from(processedAt), lastPosition, limit);
+    claimed.sort(Comparator.comparing(BookingEventDTO::getPosition));
+    return claimed;
+  }
+
+  /** Relayed changes after the given position, in ascending position. */
+  @Transactional(readOnly = true)
+  public List<BookingEventDTO> findAfter(long position, int limit) {
+    return this.jdbcTemplate.query(SELECT_AFTER, BOOKING_EVENT_MAPPER, position, limit);
+  }
+
+  public int deleteProcessedBefore(Instant processedBefore) {
+    return this.jdbcTemplate.update(DELETE_PROCESSED_BEFORE, Timestamp.from(processedBefore));
+  }
+}
@@ -0,0 +1,60 @@
+package com.example.booking.repository;
+
+import com.example.booking.validation.BookingPolicy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/** Booking policy set while the application runs, a single row shared by every instance. */
+@Repository
+@RequiredArgsConstructor
+public class BookingPolicyRepository {
+
+  private static final String SELECT_POLICY =
+      "select max_nights, max_anticipation_months, min_lead_days from booking_policy where id = 1";
+
+  private static final String UPSERT_POLICY =
+      "insert into booking_policy "
+          + "(id, max_nights, max_anticipation_months, min_lead_days, updated_at) "
+          + "values (1, ?, ?, ?, ?) on conflict (id) do update set "
+          + "max_nights = excluded.max_nights, "
+          + "max_anticipation_months = excluded.max_anticipation_months, "
+          + "min_lead_days = excluded.min_lead_days, updated_at = excluded.updated_at";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * The stored policy, if one was ever set, read in a read-write transaction so that, with read
+   * replicas configured, the primary answers and a change just committed is never missed.
+   */
+  @Transactional
+  public Optional<BookingPolicy> find() {
+    List<BookingPolicy> policies =
+        this.jdbcTemplate.query(
+            SELECT_POLICY,
+            (ResultSet resultSet, int rowNum) ->
+                new BookingPolicy(
+                    resultSet.getInt("max_nights"),
+                    resultSet.getInt("max_anticipation_months"),
+                    resultSet.getInt("min_lead_days")));
+    return policies.stream().findFirst();
+  }
+
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void save(BookingPolicy policy) {
+    this.jdbcTemplate.update(
+        UPSERT_POLICY,
+        policy.getMaxNights(),
+        policy.getMaxAnticipationMonths(),
+        policy.getMinLeadDays(),
+        Timestamp.from(Instant.now()));
+  }
+}
@@ -14,8 +14,8 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
   @Query(
       value =
-          "select *  from Booking b where b.booking_date_range && daterange(''||'[' || :d1 ||',' || :d2 ||']' || '')",
+          "select *  from Booking b where b.resource_id = :resourceId and b.booking_date_range && daterange(''||'[' || :d1 ||',' || :d2 ||']' || '')",
       nativeQuery = true)
   List<Booking> findBookingDatesBetweenDateRange(
-      @Param("d1") LocalDate d1, @Param("d2") LocalDate d2);
+      @Param("resourceId") Long resourceId, @Param("d1") LocalDate d1, @Param("d2") LocalDate d2);
 }
@@ -0,0 +1,32 @@
+package com.example.booking.repository;
+
+/**
+ * Receives a booking row as plain values, so nothing but its strings is allocated per row. Days are
+ * epoch days, instants epoch milliseconds.
+ */
+@FunctionalInterface
+public interface ExportedBookingConsumer {
+
+  /** Arrival or departure of a booking without nights, such as a cancelled one. */
+  int NO_DAY = Integer.MIN_VALUE;
+
+  /** Expiry of a booking not held. */
+  long NO_INSTANT = Long.MIN_VALUE;
+
+  /**
+   * @param status ordinal of the booking status.
+   * @param arrivalDay first booked night, or {@link #NO_DAY}.
+   * @param departureDay last booked night, or {@link #NO_DAY}.
+   * @param heldUntil hold expiry, or {@link #NO_INSTANT}.
+   */
+  void accept(
+      long id,
+      long resourceId,
+      String userName,
+      String email,
+      int status,
+      int arrivalDay,
+      int departureDay,
+      long heldUntil,
+      long version);
+}
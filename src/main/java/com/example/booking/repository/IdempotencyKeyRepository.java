@@ -0,0 +1,63 @@
+package com.example.booking.repository;
+
+import com.example.booking.idempotency.IdempotentBooking;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Idempotency keys of created bookings, with the booking each one created and the hash of the
+ * request that created it.
+ */
+@Repository
+@RequiredArgsConstructor
+public class IdempotencyKeyRepository {
+
+  private static final String SELECT_BOOKING =
+      "select booking_id, request_hash from idempotency_key where idempotency_key = ?";
+
+  private static final String INSERT_KEY =
+      "insert into idempotency_key (idempotency_key, booking_id, request_hash, created_at) "
+          + "values (?, ?, ?, ?)";
+
+  private static final String DELETE_CREATED_BEFORE =
+      "delete from idempotency_key where created_at < ?";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public Optional<IdempotentBooking> findBooking(String idempotencyKey) {
+    List<IdempotentBooking> bookings =
+        this.jdbcTemplate.query(
+            SELECT_BOOKING,
+            (ResultSet resultSet, int rowNum) ->
+                new IdempotentBooking(
+                    resultSet.getLong("booking_id"), resultSet.getString("request_hash")),
+            idempotencyKey);
+    return bookings.stream().findFirst();
+  }
+
+  /**
+   * Records the key within the transaction creating the booking, so both commit or roll back
+   * together. A key already taken fails with a duplicate key violation.
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void save(String idempotencyKey, Long bookingId, String requestHash) {
+    this.jdbcTemplate.update(
+        INSERT_KEY, idempotencyKey, bookingId, requestHash, Timestamp.from(Instant.now()));
+  }
+
+  /**
+   * @return how many keys were deleted.
+   */
+  public int deleteCreatedBefore(Instant instant) {
+    return this.jdbcTemplate.update(DELETE_CREATED_BEFORE, Timestamp.from(instant));
+  }
+}
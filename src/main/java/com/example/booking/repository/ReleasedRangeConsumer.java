@@ -0,0 +1,17 @@
+package com.example.booking.repository;
+
+import java.time.LocalDate;
+
+/** Receives the nights a booking held before they were released. */
+@FunctionalInterface
+public interface ReleasedRangeConsumer {
+
+  /**
+   * @param bookingId id of the booking.
+   * @param resourceId resource of the booking.
+   * @param version version of the booking once released.
+   * @param from first released night.
+   * @param to last released night.
+   */
+  void accept(long bookingId, long resourceId, long version, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,14 @@
+package com.example.booking.repository;
+
+/** Same as {@link BookedDaysConsumer}, along with the version the booking was read at. */
+@FunctionalInterface
+public interface VersionedBookedDaysConsumer {
+
+  /**
+   * @param bookingId id of the booking.
+   * @param version version of the booking.
+   * @param arrivalDay first booked night, as epoch day.
+   * @param departureDay last booked night, as epoch day.
+   */
+  void accept(long bookingId, long version, int arrivalDay, int departureDay);
+}
@@ -0,0 +1,33 @@
+package com.example.booking.request;
+
+import com.example.booking.model.BookingStatus;
+import lombok.Builder;
+import lombok.Getter;
+
+import javax.validation.constraints.AssertTrue;
+import java.time.LocalDate;
+
+import static com.example.booking.constant.ExceptionMessages.FROM_DATE_AFTER_TO_DATE;
+
+/** Filters of a booking listing, each one left out when null. */
+@Getter
+@Builder
+public class BookingSearchCriteria {
+
+  private final BookingStatus status;
+  private final String email;
+  private final Long resourceId;
+  /** With {@link #to}, bookings with some night in between, both included; open when null. */
+  private final LocalDate from;
+
+  private final LocalDate to;
+
+  public boolean hasDates() {
+    return this.from != null || this.to != null;
+  }
+
+  @AssertTrue(message = FROM_DATE_AFTER_TO_DATE)
+  public boolean isOrdered() {
+    return this.from == null || this.to == null || !this.from.isAfter(this.to);
+  }
+}
@@ -0,0 +1,39 @@
+package com.example.booking.request;
+
+import com.example.booking.model.Booking;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import java.time.LocalDate;
+
+import static com.example.booking.constant.ExceptionMessages.FROM_DATE_AFTER_TO_DATE;
+import static java.util.Objects.isNull;
+
+/** Window of nights, both included, whose bookings on the resource are to be cancelled. */
+@Getter
+@Setter
+@RequiredArgsConstructor
+public class CancelRangeRequestBody {
+
+  @NotNull
+  @JsonFormat(pattern = "yyyy-MM-dd")
+  private final LocalDate from;
+
+  @NotNull
+  @JsonFormat(pattern = "yyyy-MM-dd")
+  private final LocalDate to;
+
+  @NotNull @Positive private Long resourceId = Booking.DEFAULT_RESOURCE_ID;
+
+  @JsonIgnore
+  @AssertTrue(message = FROM_DATE_AFTER_TO_DATE)
+  public boolean isOrdered() {
+    return isNull(this.from) || isNull(this.to) || !this.from.isAfter(this.to);
+  }
+}
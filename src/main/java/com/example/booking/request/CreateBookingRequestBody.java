@@ -1,6 +1,7 @@
 package com.example.booking.request;
 
 import com.example.booking.annotation.ValidDates;
+import com.example.booking.model.Booking;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -10,6 +11,7 @@ import javax.validation.constraints.Email;
 import javax.validation.constraints.Future;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
 import java.time.LocalDate;
 
 @Getter
@@ -31,4 +33,6 @@ public class CreateBookingRequestBody implements BookingRequestBody {
   @Future
   @JsonFormat(pattern = "yyyy-MM-dd")
   private final LocalDate departureDate;
+
+  @NotNull @Positive private Long resourceId = Booking.DEFAULT_RESOURCE_ID;
 }
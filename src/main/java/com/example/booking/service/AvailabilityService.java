@@ -1,39 +1,176 @@
 package com.example.booking.service;
 
+import com.example.booking.cache.AvailabilityCache;
+import com.example.booking.dto.AvailabilityCacheStatsDTO;
+import com.example.booking.dto.AvailableDateDTO;
 import com.example.booking.dto.AvailableDatesDTO;
-import com.example.booking.helper.DateRangeHelper;
-import com.example.booking.model.Booking;
-import com.example.booking.repository.BookingRepository;
+import com.example.booking.dto.SuggestedStayDTO;
+import com.example.booking.dto.SuggestedStaysDTO;
+import com.example.booking.helper.EpochDayRangeSet;
+import com.example.booking.helper.FreeRangeScanner;
+import com.example.booking.index.OccupancyIndex;
+import com.example.booking.index.OccupancySnapshot;
+import com.example.booking.repository.BookingJdbcRepository;
 import com.example.booking.transformer.AvailableDateRangeTransformer;
-import com.google.common.collect.Range;
-import com.google.common.collect.RangeSet;
-import com.google.common.collect.TreeRangeSet;
+import com.example.booking.validation.BookingRules;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
+
+import static java.lang.Math.toIntExact;
 
 @Service
 @RequiredArgsConstructor
 public class AvailabilityService {
 
-  private final BookingRepository bookingRepository;
+  private static final int STREAM_PAGE_SIZE = 1000;
 
   private final AvailableDateRangeTransformer availableDateRangeTransformer;
 
-  @Transactional
-  public AvailableDatesDTO availabilityFor(LocalDate from, LocalDate to) {
-    List<Booking> booked = this.bookingRepository.findBookingDatesBetweenDateRange(from, to);
-    RangeSet<LocalDate> rangeSet = TreeRangeSet.create();
-    for (Booking booking : booked) {
-      rangeSet.add(
-          Range.closed(
-              DateRangeHelper.lower(booking.getBookingDateRange()),
-              DateRangeHelper.upper(booking.getBookingDateRange())));
+  private final OccupancyIndex occupancyIndex;
+
+  private final AvailabilityCache availabilityCache;
+
+  private final BookingJdbcRepository bookingJdbcRepository;
+
+  private final BookingRules bookingRules;
+
+  /**
+   * Free dates of a resource between both dates (inclusive), see {@link #versionedAvailabilityFor}.
+   *
+   * @param resourceId resource to look up.
+   * @param from first date of the window.
+   * @param to last date of the window.
+   * @return the free date ranges, in ascending order.
+   */
+  public AvailableDatesDTO availabilityFor(Long resourceId, LocalDate from, LocalDate to) {
+    return this.versionedAvailabilityFor(resourceId, from, to).getAvailableDates();
+  }
+
+  /**
+   * Version of the occupancy snapshot the free dates of the window would be sliced from, without
+   * slicing them.
+   *
+   * @param resourceId resource to look up.
+   * @param from first date of the window.
+   * @param to last date of the window.
+   * @return the version of the latest snapshot, null when the window reaches beyond its horizon.
+   */
+  public Long snapshotVersion(Long resourceId, LocalDate from, LocalDate to) {
+    OccupancySnapshot snapshot = this.occupancyIndex.snapshot(resourceId);
+    return snapshot.covers(from, to) ? snapshot.getVersion() : null;
+  }
+
+  /**
+   * Free dates of a resource between both dates (inclusive). Sliced from the latest occupancy
+   * snapshot while the window is inside its horizon, without locking nor database access; answered
+   * from the availability cache, then from the database, otherwise.
+   *
+   * @param resourceId resource to look up.
+   * @param from first date of the window.
+   * @param to last date of the window.
+   * @return the free date ranges, in ascending order, with the snapshot version when sliced from
+   *     one.
+   */
+  public VersionedAvailability versionedAvailabilityFor(
+      Long resourceId, LocalDate from, LocalDate to) {
+    OccupancySnapshot snapshot = this.occupancyIndex.snapshot(resourceId);
+    if (snapshot.covers(from, to)) {
+      return new VersionedAvailability(
+          this.availableDateRangeTransformer.transform(snapshot.freeRanges(from, to)),
+          snapshot.getVersion());
     }
+    return new VersionedAvailability(
+        this.availabilityCache.get(
+            resourceId, from, to, () -> this.availabilityFromDatabase(resourceId, from, to)),
+        null);
+  }
+
+  /**
+   * Free dates of a resource between both dates (inclusive), handed over one range at a time as the
+   * booked ranges are read from the database. Booked ranges are read a page at a time, each page in
+   * a transaction of its own, so no connection is held while a slow client drains the free ranges
+   * and only one page is held in between, whatever the window width. The ranges are therefore not a
+   * consistent snapshot: a booking committed while the window is streamed shows up, or not,
+   * depending on whether its page was already read.
+   *
+   * @param resourceId resource to look up.
+   * @param from first date of the window.
+   * @param to last date of the window.
+   * @param freeRangeConsumer receives the free date ranges, in ascending order.
+   */
+  public void streamAvailability(
+      Long resourceId, LocalDate from, LocalDate to, Consumer<AvailableDateDTO> freeRangeConsumer) {
+    FreeRangeScanner freeRangeScanner = new FreeRangeScanner(from, to, freeRangeConsumer);
+    LocalDate afterArrival = null;
+    int[] bookedDays;
+    do {
+      bookedDays =
+          this.bookingJdbcRepository.findBookedRangesPage(
+              resourceId, from, to, afterArrival, STREAM_PAGE_SIZE);
+      for (int i = 0; i < bookedDays.length; i += 2) {
+        afterArrival = LocalDate.ofEpochDay(bookedDays[i]);
+        freeRangeScanner.booked(afterArrival, LocalDate.ofEpochDay(bookedDays[i + 1]));
+      }
+    } while (bookedDays.length == 2 * STREAM_PAGE_SIZE);
+    freeRangeScanner.finish();
+  }
+
+  /**
+   * Free stays of a resource that the booking rules accept, closest to a date first, searched in
+   * the free runs of the latest occupancy snapshot. Stays reaching beyond the horizon are left out.
+   *
+   * @param resourceId resource to look up.
+   * @param nights days between arrival and departure, the way the booking rules count them; both
+   *     the arrival and the departure day are occupied.
+   * @param near arrival date wished for.
+   * @param limit maximum number of stays.
+   * @return the stays, none when the rules do not allow that many nights.
+   */
+  public SuggestedStaysDTO suggestStays(Long resourceId, int nights, LocalDate near, int limit) {
+    if (nights > this.bookingRules.getPolicy().getMaxNights()) {
+      return SuggestedStaysDTO.builder().stays(Collections.emptyList()).build();
+    }
+    int[] arrivals =
+        this.occupancyIndex
+            .snapshot(resourceId)
+            .nearestArrivals(
+                nights + 1,
+                near,
+                this.bookingRules.getEarliestArrival(),
+                this.bookingRules.getLatestArrival(),
+                limit);
+    List<SuggestedStayDTO> stays = new ArrayList<>(arrivals.length);
+    for (int arrival : arrivals) {
+      LocalDate arrivalDate = LocalDate.ofEpochDay(arrival);
+      stays.add(
+          SuggestedStayDTO.builder()
+              .arrivalDate(arrivalDate)
+              .departureDate(arrivalDate.plusDays(nights))
+              .build());
+    }
+    return SuggestedStaysDTO.builder().stays(stays).build();
+  }
+
+  public AvailabilityCacheStatsDTO cacheStats() {
+    return this.availabilityCache.stats();
+  }
+
+  private AvailableDatesDTO availabilityFromDatabase(
+      Long resourceId, LocalDate from, LocalDate to) {
+    EpochDayRangeSet booked = new EpochDayRangeSet();
+    // cached until the next change of the resource, so never computed from a lagging replica
+    this.bookingJdbcRepository.forEachBookedDaysOnPrimary(
+        resourceId,
+        from,
+        to,
+        (bookingId, version, arrivalDay, departureDay) -> booked.add(arrivalDay, departureDay));
     return this.availableDateRangeTransformer.transform(
-        rangeSet.complement().subRangeSet(Range.closed(from, to)));
+        booked.complement(toIntExact(from.toEpochDay()), toIntExact(to.toEpochDay())).toArray());
   }
 }
@@ -0,0 +1,26 @@
+package com.example.booking.service;
+
+import com.example.booking.dto.BookingEventsDTO;
+import com.example.booking.repository.BookingOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class BookingEventService {
+
+  private final BookingOutboxRepository bookingOutboxRepository;
+
+  /**
+   * Booking changes already relayed, for a consumer to catch up from the last position it handled.
+   *
+   * @param position last position handled, 0 to start from the oldest change kept.
+   * @param limit maximum number of changes.
+   * @return the changes after the position, in ascending position.
+   */
+  public BookingEventsDTO eventsAfter(long position, int limit) {
+    return BookingEventsDTO.builder()
+        .events(this.bookingOutboxRepository.findAfter(position, limit))
+        .build();
+  }
+}
@@ -1,27 +1,46 @@
 package com.example.booking.service;
 
 import com.example.booking.dto.BookingDTO;
+import com.example.booking.dto.BookingPageDTO;
+import com.example.booking.dto.BookingResultDTO;
+import com.example.booking.event.BookingChangedEvent;
+import com.example.booking.event.BookingHeldEvent;
 import com.example.booking.exception.BookingNotFoundException;
 import com.example.booking.exception.InvalidBookingStateException;
 import com.example.booking.exception.UnavailableBookingDateException;
+import com.example.booking.helper.DateRangeHelper;
+import com.example.booking.index.OccupancyBitmap;
 import com.example.booking.model.Booking;
 import com.example.booking.model.BookingStatus;
+import com.example.booking.repository.BookingJdbcRepository;
 import com.example.booking.repository.BookingRepository;
+import com.example.booking.repository.IdempotencyKeyRepository;
 import com.example.booking.request.BookingRequestBody;
+import com.example.booking.request.BookingSearchCriteria;
 import com.example.booking.request.CreateBookingRequestBody;
 import com.example.booking.request.UpdateBookingRequestBody;
 import com.example.booking.transformer.BookingTransformer;
 import com.vladmihalcea.hibernate.type.range.Range;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import static com.example.booking.constant.ExceptionMessages.*;
+import static java.lang.Math.toIntExact;
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
@@ -32,14 +51,39 @@ public class BookingService {
 
   private final BookingRepository bookingRepository;
 
+  private final BookingJdbcRepository bookingJdbcRepository;
+
+  private final IdempotencyKeyRepository idempotencyKeyRepository;
+
   private final BookingTransformer bookingTransformer;
 
-  @Transactional
+  private final ApplicationEventPublisher applicationEventPublisher;
+
+  @Transactional(readOnly = true)
   public BookingDTO find(Long id) {
     Booking booking = this.findBooking(id);
     return this.bookingTransformer.transform(booking);
   }
 
+  /**
+   * A page of the bookings matching the criteria, read as projections rather than entities.
+   *
+   * @param afterId last id of the previous page, 0 for the first one.
+   * @param limit maximum number of bookings.
+   */
+  public BookingPageDTO findPage(BookingSearchCriteria criteria, long afterId, int limit) {
+    List<BookingDTO> bookings = this.bookingJdbcRepository.findPage(criteria, afterId, limit);
+    return BookingPageDTO.builder()
+        .bookings(bookings)
+        .next(bookings.size() < limit ? null : bookings.get(bookings.size() - 1).getId())
+        .build();
+  }
+
+  /** Current version of the booking, read without loading the entity. */
+  public Optional<Long> findVersion(Long id) {
+    return this.bookingJdbcRepository.findVersion(id);
+  }
+
   /**
    * Creates a new Booking with status ACTIVE. Checks if arrival date and departure dates are
    * available. Thread-safe method, if multiple creation request are made-with overlapping dates-
@@ -50,24 +94,180 @@ public class BookingService {
    */
   @Transactional
   public Long create(CreateBookingRequestBody requestBody) {
+    return this.create(requestBody, null, null);
+  }
 
-    this.checkAvailableBookingDate(requestBody, null);
+  /**
+   * Same as {@link #create(CreateBookingRequestBody)}, recording the idempotency key, if any, in
+   * the same transaction.
+   *
+   * @param requestBody a valid request body
+   * @param idempotencyKey key sent by the client, may be null
+   * @param requestHash hash of the request body, stored along with the key
+   * @return a booking id
+   */
+  @Transactional
+  public Long create(
+      CreateBookingRequestBody requestBody, String idempotencyKey, String requestHash) {
+    Booking booking = this.book(requestBody, BookingStatus.ACTIVE, null);
+    if (nonNull(idempotencyKey)) {
+      this.idempotencyKeyRepository.save(idempotencyKey, booking.getId(), requestHash);
+    }
+    return booking.getId();
+  }
 
-    Booking booking =
-        new Booking(
-            requestBody.getName(),
-            requestBody.getEmail(),
+  /**
+   * Creates a new Booking with status HELD, its nights are taken exactly like an ACTIVE booking
+   * until it is confirmed, cancelled or expires.
+   *
+   * @param requestBody a valid request body
+   * @param heldUntil expiry of the hold
+   * @return a bookingDTO with the hold
+   */
+  @Transactional
+  public BookingDTO hold(CreateBookingRequestBody requestBody, Instant heldUntil) {
+    Booking booking = this.book(requestBody, BookingStatus.HELD, heldUntil);
+    this.applicationEventPublisher.publishEvent(
+        new BookingHeldEvent(booking.getId(), booking.getHeldUntil()));
+    return this.bookingTransformer.transform(booking);
+  }
+
+  /**
+   * Turns a HELD booking into an ACTIVE one, its nights stay taken. A hold past its expiry cannot
+   * be confirmed even if it was not released yet.
+   *
+   * @param bookingId to confirm.
+   * @return a bookingDTO with updated values.
+   */
+  @Transactional
+  public BookingDTO confirm(Long bookingId) {
+    Booking booking = this.findBooking(bookingId);
+    if (!booking.isHeld() || !booking.getHeldUntil().isAfter(Instant.now())) {
+      throw new InvalidBookingStateException(HOLD_NOT_CONFIRMABLE);
+    }
+
+    booking.setStatus(BookingStatus.ACTIVE);
+    booking.setHeldUntil(null);
+
+    log.info(String.format("Confirming held booking %s", booking.getId()));
+    booking = this.bookingRepository.saveAndFlush(booking);
+
+    LocalDate from = DateRangeHelper.lower(booking.getBookingDateRange());
+    LocalDate to = DateRangeHelper.upper(booking.getBookingDateRange());
+    this.applicationEventPublisher.publishEvent(
+        new BookingChangedEvent(
+            booking.getId(),
+            booking.getResourceId(),
             BookingStatus.ACTIVE,
-            Range.closed(requestBody.getArrivalDate(), requestBody.getDepartureDate()));
+            booking.getVersion(),
+            from,
+            to,
+            from,
+            to));
+
+    return this.bookingTransformer.transform(booking);
+  }
+
+  /**
+   * Cancels, in bulk, those of the given bookings still HELD past their expiry and frees their
+   * nights.
+   *
+   * @param bookingIds holds due to expire.
+   * @return how many holds were released.
+   */
+  @Transactional
+  public int releaseExpiredHolds(Collection<Long> bookingIds) {
+    int[] released = new int[1];
+    this.bookingJdbcRepository.releaseExpiredHolds(
+        bookingIds,
+        Instant.now(),
+        (bookingId, resourceId, version, from, to) -> {
+          released[0]++;
+          this.applicationEventPublisher.publishEvent(
+              new BookingChangedEvent(
+                  bookingId, resourceId, BookingStatus.CANCELLED, version, from, to, null, null));
+        });
+    log.info(String.format("Released %s expired hold(s)", released[0]));
+    return released[0];
+  }
+
+  /**
+   * Creates many bookings with status ACTIVE in a single transaction. Requests overlapping an
+   * existing booking, or an earlier request of the same batch, on the same resource are rejected;
+   * the accepted ones are written as one JDBC batch. If a concurrent booking takes some of the
+   * nights in between, the exclusion constraint fails the whole transaction.
+   *
+   * @param requestBodies valid request bodies.
+   * @return one result per request body, in the same order.
+   */
+  @Transactional
+  public List<BookingResultDTO> createAll(List<CreateBookingRequestBody> requestBodies) {
+    if (requestBodies.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    LocalDate first =
+        requestBodies.stream()
+            .map(CreateBookingRequestBody::getArrivalDate)
+            .min(Comparator.naturalOrder())
+            .orElseThrow(IllegalStateException::new);
+    LocalDate last =
+        requestBodies.stream()
+            .map(CreateBookingRequestBody::getDepartureDate)
+            .max(Comparator.naturalOrder())
+            .orElseThrow(IllegalStateException::new);
+
+    Map<Long, OccupancyBitmap> occupancyByResource = new HashMap<>();
+    for (CreateBookingRequestBody requestBody : requestBodies) {
+      occupancyByResource.computeIfAbsent(
+          requestBody.getResourceId(), resourceId -> this.occupancyOf(resourceId, first, last));
+    }
+
+    boolean[] available = new boolean[requestBodies.size()];
+    List<CreateBookingRequestBody> accepted = new ArrayList<>(requestBodies.size());
+    for (int i = 0; i < requestBodies.size(); i++) {
+      CreateBookingRequestBody requestBody = requestBodies.get(i);
+      int arrivalDay = toIntExact(requestBody.getArrivalDate().toEpochDay());
+      int departureDay = toIntExact(requestBody.getDepartureDate().toEpochDay());
+      OccupancyBitmap occupancy = occupancyByResource.get(requestBody.getResourceId());
+      available[i] = occupancy.isFree(arrivalDay, departureDay);
+      if (available[i]) {
+        occupancy.occupy(Long.MIN_VALUE, arrivalDay, departureDay);
+        accepted.add(requestBody);
+      }
+    }
 
     log.info(
         String.format(
-            "Creating booking from %s to %s",
-            booking.getBookingDateRange().lower(), booking.getBookingDateRange().upper()));
+            "Creating %s booking(s) out of %s requested", accepted.size(), requestBodies.size()));
 
-    booking = this.bookingRepository.save(booking);
+    List<Long> ids =
+        accepted.isEmpty()
+            ? Collections.emptyList()
+            : this.bookingJdbcRepository.insertAll(accepted);
 
-    return booking.getId();
+    List<BookingResultDTO> results = new ArrayList<>(requestBodies.size());
+    int created = 0;
+    for (int i = 0; i < requestBodies.size(); i++) {
+      if (!available[i]) {
+        results.add(BookingResultDTO.builder().error(REQUESTED_DATE_NOT_AVAILABLE).build());
+        continue;
+      }
+      CreateBookingRequestBody requestBody = requestBodies.get(i);
+      Long id = ids.get(created++);
+      this.applicationEventPublisher.publishEvent(
+          new BookingChangedEvent(
+              id,
+              requestBody.getResourceId(),
+              BookingStatus.ACTIVE,
+              0L,
+              null,
+              null,
+              requestBody.getArrivalDate(),
+              requestBody.getDepartureDate()));
+      results.add(BookingResultDTO.builder().id(id).build());
+    }
+    return results;
   }
 
   /**
@@ -83,19 +283,69 @@ public class BookingService {
     Booking booking = this.findBooking(bookingId);
     this.checkCancelledStatus(booking);
 
-    LocalDate from = booking.getBookingDateRange().lower();
-    LocalDate to = booking.getBookingDateRange().upper();
+    LocalDate from = DateRangeHelper.lower(booking.getBookingDateRange());
+    LocalDate to = DateRangeHelper.upper(booking.getBookingDateRange());
 
     booking.setStatus(BookingStatus.CANCELLED);
     booking.setBookingDateRange(null);
+    booking.setHeldUntil(null);
 
     log.info(String.format("Cancelling booking %s, from %s to %s", booking.getId(), from, to));
 
-    booking = this.bookingRepository.save(booking);
+    booking = this.bookingRepository.saveAndFlush(booking);
+
+    this.applicationEventPublisher.publishEvent(
+        new BookingChangedEvent(
+            booking.getId(),
+            booking.getResourceId(),
+            booking.getStatus(),
+            booking.getVersion(),
+            from,
+            to,
+            null,
+            null));
 
     return this.bookingTransformer.transform(booking);
   }
 
+  /**
+   * Cancels, with one set-based update, every ACTIVE booking of the resource with some night in the
+   * window, and frees their dates. A booking modified concurrently through {@link #update} or
+   * {@link #cancel} makes one of both transactions fail on its version.
+   *
+   * @param resourceId resource to clear.
+   * @param from first night of the window.
+   * @param to last night of the window.
+   * @return ids of the cancelled bookings, in ascending order.
+   */
+  @Transactional
+  public List<Long> cancelRange(Long resourceId, LocalDate from, LocalDate to) {
+    List<Long> cancelled = new ArrayList<>();
+    this.bookingJdbcRepository.cancelOverlapping(
+        resourceId,
+        from,
+        to,
+        (bookingId, bookingResourceId, version, arrival, departure) -> {
+          cancelled.add(bookingId);
+          this.applicationEventPublisher.publishEvent(
+              new BookingChangedEvent(
+                  bookingId,
+                  bookingResourceId,
+                  BookingStatus.CANCELLED,
+                  version,
+                  arrival,
+                  departure,
+                  null,
+                  null));
+        });
+    Collections.sort(cancelled);
+    log.info(
+        String.format(
+            "Cancelled %s booking(s) on resource %s from %s to %s",
+            cancelled.size(), resourceId, from, to));
+    return cancelled;
+  }
+
   /**
    * When an update request is made, this method also checks availability on given dates.
    * Thread-safe method, if multiple request are made-for the same booking-, the first request will
@@ -118,22 +368,73 @@ public class BookingService {
     if (nonNull(requestBody.getName())) {
       booking.setUserName((requestBody.getName()));
     }
+    LocalDate previousFrom = DateRangeHelper.lower(booking.getBookingDateRange());
+    LocalDate previousTo = DateRangeHelper.upper(booking.getBookingDateRange());
     // if dates are present, i need to check if they are available
     if (nonNull(requestBody.getArrivalDate()) && nonNull(requestBody.getDepartureDate())) {
-      this.checkAvailableBookingDate(requestBody, booking.getId());
+      this.checkAvailableBookingDate(requestBody, booking.getResourceId(), booking.getId());
       booking.setBookingDateRange(
           Range.closed(requestBody.getArrivalDate(), requestBody.getDepartureDate()));
     }
-
     log.info(String.format("Updating booking %s", booking.getId()));
-    booking = this.bookingRepository.save(booking);
+    booking = this.bookingRepository.saveAndFlush(booking);
+
+    this.applicationEventPublisher.publishEvent(
+        new BookingChangedEvent(
+            booking.getId(),
+            booking.getResourceId(),
+            booking.getStatus(),
+            booking.getVersion(),
+            previousFrom,
+            previousTo,
+            DateRangeHelper.lower(booking.getBookingDateRange()),
+            DateRangeHelper.upper(booking.getBookingDateRange())));
 
     return this.bookingTransformer.transform(booking);
   }
 
-  private void checkAvailableBookingDate(BookingRequestBody requestBody, Long bookingId) {
+  private Booking book(
+      CreateBookingRequestBody requestBody, BookingStatus status, Instant heldUntil) {
+
+    this.checkAvailableBookingDate(requestBody, requestBody.getResourceId(), null);
+
+    Booking booking =
+        new Booking(
+            requestBody.getResourceId(),
+            requestBody.getName(),
+            requestBody.getEmail(),
+            status,
+            Range.closed(requestBody.getArrivalDate(), requestBody.getDepartureDate()));
+    booking.setHeldUntil(heldUntil);
+
+    log.info(
+        String.format(
+            "Creating %s booking on resource %s from %s to %s",
+            status,
+            booking.getResourceId(),
+            booking.getBookingDateRange().lower(),
+            booking.getBookingDateRange().upper()));
+
+    booking = this.bookingRepository.save(booking);
+
+    this.applicationEventPublisher.publishEvent(
+        new BookingChangedEvent(
+            booking.getId(),
+            booking.getResourceId(),
+            status,
+            booking.getVersion(),
+            null,
+            null,
+            requestBody.getArrivalDate(),
+            requestBody.getDepartureDate()));
+
+    return booking;
+  }
+
+  private void checkAvailableBookingDate(
+      BookingRequestBody requestBody, Long resourceId, Long bookingId) {
     List<Booking> bookings =
-        this.findBooking(requestBody.getArrivalDate(), requestBody.getDepartureDate());
+        this.findBooking(resourceId, requestBody.getArrivalDate(), requestBody.getDepartureDate());
 
     // the range of dates holds more than one booking already, i assume they are not available
     if (!CollectionUtils.isEmpty(bookings) && bookings.size() > 1) {
@@ -154,8 +455,18 @@ public class BookingService {
     }
   }
 
-  private List<Booking> findBooking(LocalDate arrivalDate, LocalDate departureDate) {
-    return this.bookingRepository.findBookingDatesBetweenDateRange(arrivalDate, departureDate);
+  private OccupancyBitmap occupancyOf(Long resourceId, LocalDate first, LocalDate last) {
+    OccupancyBitmap occupancy =
+        new OccupancyBitmap(
+            toIntExact(first.toEpochDay()), toIntExact(last.toEpochDay() - first.toEpochDay()) + 1);
+    this.bookingJdbcRepository.forEachBookedDays(resourceId, first, last, occupancy::occupy);
+    return occupancy;
+  }
+
+  private List<Booking> findBooking(
+      Long resourceId, LocalDate arrivalDate, LocalDate departureDate) {
+    return this.bookingRepository.findBookingDatesBetweenDateRange(
+        resourceId, arrivalDate, departureDate);
   }
 
   private Booking findBooking(Long id) {
@@ -0,0 +1,67 @@
+package com.example.booking.service;
+
+import com.example.booking.dto.OccupancyPeriodDTO;
+import com.example.booking.dto.OccupancyStatsDTO;
+import com.example.booking.stats.OccupancyBucket;
+import com.example.booking.stats.OccupancyStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.time.temporal.ChronoUnit.DAYS;
+import static java.util.Objects.isNull;
+
+@Service
+@RequiredArgsConstructor
+public class OccupancyStatsService {
+
+  private final OccupancyStats occupancyStats;
+
+  /**
+   * Occupancy rate per week or month between both dates, cut to the days statistics are kept for.
+   *
+   * @param resourceId resource to report, null for all of them.
+   * @return one period per week or month overlapping the dates, none if no day is kept.
+   */
+  public OccupancyStatsDTO occupancyBetween(
+      Long resourceId, LocalDate from, LocalDate to, OccupancyBucket bucket) {
+    LocalDate first = max(from, this.occupancyStats.getFirstDay());
+    LocalDate last = min(to, this.occupancyStats.getLastDay());
+    int resources = isNull(resourceId) ? this.occupancyStats.resourceCount() : 1;
+
+    List<OccupancyPeriodDTO> periods = new ArrayList<>();
+    for (LocalDate start = first; !start.isAfter(last); ) {
+      LocalDate end = min(bucket.lastDay(start), last);
+      long nights = (DAYS.between(start, end) + 1) * resources;
+      long bookedNights =
+          isNull(resourceId)
+              ? this.occupancyStats.bookedNights(start, end)
+              : this.occupancyStats.bookedNights(resourceId, start, end);
+      periods.add(
+          OccupancyPeriodDTO.builder()
+              .from(start)
+              .to(end)
+              .nights(nights)
+              .bookedNights(bookedNights)
+              .rate(nights == 0 ? 0 : (double) bookedNights / nights)
+              .build());
+      start = end.plusDays(1);
+    }
+    return OccupancyStatsDTO.builder()
+        .resourceId(resourceId)
+        .resources(resources)
+        .periods(periods)
+        .build();
+  }
+
+  private static LocalDate max(LocalDate date, LocalDate other) {
+    return date.isAfter(other) ? date : other;
+  }
+
+  private static LocalDate min(LocalDate date, LocalDate other) {
+    return date.isBefore(other) ? date : other;
+  }
+}
@@ -0,0 +1,16 @@
+package com.example.booking.service;
+
+import com.example.booking.dto.AvailableDatesDTO;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/** Free dates of a window, with the version of the occupancy snapshot they were sliced from. */
+@Getter
+@RequiredArgsConstructor
+public class VersionedAvailability {
+
+  private final AvailableDatesDTO availableDates;
+
+  /** Null when the window reaches beyond the horizon and the database answered. */
+  private final Long version;
+}
@@ -0,0 +1,65 @@
+package com.example.booking.stats;
+
+/**
+ * Booked nights per day over a fixed window of epoch days, as a pair of Fenwick trees so that
+ * adding a stay and summing any range of days both take logarithmic time, whatever their length.
+ * Days outside the window are ignored. Not thread-safe.
+ */
+final class NightCountTree {
+
+  private final int firstDay;
+
+  private final int days;
+
+  /** Range updates as point updates of the slope, and their correction for prefix sums. */
+  private final long[] slopes;
+
+  private final long[] offsets;
+
+  NightCountTree(int firstDay, int days) {
+    this.firstDay = firstDay;
+    this.days = days;
+    this.slopes = new long[days + 1];
+    this.offsets = new long[days + 1];
+  }
+
+  /** Adds {@code delta} to every day from {@code fromDay} to {@code toDay}, both included. */
+  void add(int fromDay, int toDay, long delta) {
+    int from = Math.max(fromDay - this.firstDay, 0) + 1;
+    int to = Math.min(toDay - this.firstDay, this.days - 1) + 1;
+    if (from > to) {
+      return;
+    }
+    this.update(from, delta, delta * (from - 1));
+    if (to < this.days) {
+      this.update(to + 1, -delta, -delta * to);
+    }
+  }
+
+  /** Sum of the days from {@code fromDay} to {@code toDay}, both included. */
+  long sum(int fromDay, int toDay) {
+    int from = Math.max(fromDay - this.firstDay, 0) + 1;
+    int to = Math.min(toDay - this.firstDay, this.days - 1) + 1;
+    if (from > to) {
+      return 0;
+    }
+    return this.prefixSum(to) - this.prefixSum(from - 1);
+  }
+
+  private void update(int index, long slope, long offset) {
+    for (int i = index; i <= this.days; i += i & -i) {
+      this.slopes[i] += slope;
+      this.offsets[i] += offset;
+    }
+  }
+
+  private long prefixSum(int index) {
+    long slope = 0;
+    long offset = 0;
+    for (int i = index; i > 0; i -= i & -i) {
+      slope += this.slopes[i];
+      offset += this.offsets[i];
+    }
+    return slope * index - offset;
+  }
+}
@@ -0,0 +1,25 @@
+package com.example.booking.stats;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/** Calendar periods occupancy is reported by. */
+public enum OccupancyBucket {
+  /** ISO weeks, Monday to Sunday. */
+  WEEK {
+    @Override
+    public LocalDate lastDay(LocalDate day) {
+      return day.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
+    }
+  },
+  MONTH {
+    @Override
+    public LocalDate lastDay(LocalDate day) {
+      return day.with(TemporalAdjusters.lastDayOfMonth());
+    }
+  };
+
+  /** Last day of the period the given day belongs to. */
+  public abstract LocalDate lastDay(LocalDate day);
+}
@@ -0,0 +1,240 @@
+package com.example.booking.stats;
+
+import com.example.booking.event.BookingChangedEvent;
+import com.example.booking.repository.BookingJdbcRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.lang.Math.toIntExact;
+
+/**
+ * Booked nights, held ones included, per resource and across all of them, from {@code history-days}
+ * ago to the end of the occupancy horizon. Loaded from the database at startup and every midnight,
+ * in between each committed change replaces the nights last counted for its booking, so any range
+ * of days is summed in logarithmic time without reading a booking.
+ *
+ * <p>A rebuild loads one resource at a time. Changes of a resource not loaded yet are held back and
+ * replayed once its rows are in: a change committed before the read is then counted once, because a
+ * booking only ever holds its latest nights, and one committed after it is not lost.
+ */
+@Component
+@Slf4j
+public class OccupancyStats {
+
+  private final BookingJdbcRepository bookingJdbcRepository;
+
+  private final int historyDays;
+
+  private final int horizonDays;
+
+  /** Guards both windows, and the changes held back for the resources still to load. */
+  private final Object lock = new Object();
+
+  /** Empty until the first load. */
+  private Window window;
+
+  /** Window being rebuilt, null outside of a rebuild. */
+  private Window loading;
+
+  /** Changes of the resources of the rebuild not loaded yet, in the order they were committed. */
+  private Map<Long, List<BookingChangedEvent>> pendingResources;
+
+  public OccupancyStats(
+      BookingJdbcRepository bookingJdbcRepository,
+      @Value("${booking.occupancy.stats.history-days:365}") int historyDays,
+      @Value("${booking.occupancy.horizon-days:400}") int horizonDays) {
+    this.bookingJdbcRepository = bookingJdbcRepository;
+    this.historyDays = historyDays;
+    this.horizonDays = horizonDays;
+    this.window = new Window(epochDay(LocalDate.now()), 0);
+  }
+
+  @PostConstruct
+  @Scheduled(cron = "${booking.occupancy.rebuild-cron:0 0 0 * * *}")
+  public void rebuild() {
+    LocalDate first = LocalDate.now().minusDays(this.historyDays);
+    LocalDate last = LocalDate.now().plusDays(this.horizonDays - 1L);
+    Window next = new Window(epochDay(first), this.historyDays + this.horizonDays);
+    List<Long> resourceIds = this.bookingJdbcRepository.findResourceIds();
+    synchronized (this.lock) {
+      this.loading = next;
+      this.pendingResources = new HashMap<>();
+      resourceIds.forEach(resourceId -> this.pendingResources.put(resourceId, new ArrayList<>()));
+    }
+
+    for (Long resourceId : resourceIds) {
+      Map<Long, CountedNights> bookings = new HashMap<>();
+      this.bookingJdbcRepository.forEachBookedDaysOnPrimary(
+          resourceId,
+          first,
+          last,
+          (bookingId, version, arrivalDay, departureDay) ->
+              bookings.put(
+                  bookingId, new CountedNights(resourceId, version, arrivalDay, departureDay)));
+      synchronized (this.lock) {
+        next.resource(resourceId);
+        bookings.forEach(next::count);
+        this.pendingResources.remove(resourceId).forEach(next::apply);
+      }
+    }
+
+    synchronized (this.lock) {
+      this.window = next;
+      this.loading = null;
+      this.pendingResources = null;
+    }
+    log.info(
+        String.format(
+            "Occupancy statistics of %s resource(s) loaded from %s to %s",
+            resourceIds.size(), first, last));
+  }
+
+  /** Changes replayed from other instances arrive outside any transaction and apply at once. */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onBookingChanged(BookingChangedEvent event) {
+    synchronized (this.lock) {
+      this.window.apply(event);
+      if (this.loading != null) {
+        List<BookingChangedEvent> pending = this.pendingResources.get(event.getResourceId());
+        if (pending != null) {
+          pending.add(event);
+        } else {
+          this.loading.apply(event);
+        }
+      }
+    }
+  }
+
+  /** First day with statistics. */
+  public LocalDate getFirstDay() {
+    synchronized (this.lock) {
+      return LocalDate.ofEpochDay(this.window.firstDay);
+    }
+  }
+
+  /** Last day with statistics. */
+  public LocalDate getLastDay() {
+    synchronized (this.lock) {
+      return LocalDate.ofEpochDay(this.window.firstDay + this.window.days - 1L);
+    }
+  }
+
+  /** Resources known to have been booked at some time. */
+  public int resourceCount() {
+    synchronized (this.lock) {
+      return this.window.resources.size();
+    }
+  }
+
+  /** Nights booked on all resources between both dates, included. */
+  public long bookedNights(LocalDate from, LocalDate to) {
+    synchronized (this.lock) {
+      return this.window.total.sum(epochDay(from), epochDay(to));
+    }
+  }
+
+  /** Nights booked on the resource between both dates, included. */
+  public long bookedNights(Long resourceId, LocalDate from, LocalDate to) {
+    synchronized (this.lock) {
+      NightCountTree resource = this.window.resources.get(resourceId);
+      return resource == null ? 0 : resource.sum(epochDay(from), epochDay(to));
+    }
+  }
+
+  private static int epochDay(LocalDate date) {
+    return toIntExact(date.toEpochDay());
+  }
+
+  /**
+   * Trees of every resource and of their total over the same days, along with the version and
+   * nights counted for each booking, so a change takes back what was counted rather than what it
+   * says was there, and is ignored if older.
+   */
+  private static final class Window {
+
+    private final int firstDay;
+
+    private final int days;
+
+    private final NightCountTree total;
+
+    private final Map<Long, NightCountTree> resources = new HashMap<>();
+
+    /** Cancelled bookings included, until the next rebuild. */
+    private final Map<Long, CountedNights> bookings = new HashMap<>();
+
+    private Window(int firstDay, int days) {
+      this.firstDay = firstDay;
+      this.days = days;
+      this.total = new NightCountTree(firstDay, days);
+    }
+
+    private NightCountTree resource(Long resourceId) {
+      return this.resources.computeIfAbsent(
+          resourceId, id -> new NightCountTree(this.firstDay, this.days));
+    }
+
+    private void add(CountedNights nights, long delta) {
+      if (nights != null && nights.hasRange()) {
+        this.resource(nights.resourceId).add(nights.fromDay, nights.toDay, delta);
+        this.total.add(nights.fromDay, nights.toDay, delta);
+      }
+    }
+
+    /** Counts the nights of the booking in place of the ones counted so far, if any. */
+    private void count(Long bookingId, CountedNights nights) {
+      this.add(this.bookings.put(bookingId, nights), -1);
+      this.add(nights, 1);
+    }
+
+    private void apply(BookingChangedEvent event) {
+      this.resource(event.getResourceId());
+      CountedNights counted = this.bookings.get(event.getBookingId());
+      if (counted != null && event.getVersion() < counted.version) {
+        return;
+      }
+      this.count(
+          event.getBookingId(),
+          event.hasRange()
+              ? new CountedNights(
+                  event.getResourceId(),
+                  event.getVersion(),
+                  epochDay(event.getFrom()),
+                  epochDay(event.getTo()))
+              : new CountedNights(event.getResourceId(), event.getVersion(), 1, 0));
+    }
+  }
+
+  /** Nights of a booking at some version, none once cancelled. */
+  private static final class CountedNights {
+
+    private final Long resourceId;
+
+    private final long version;
+
+    private final int fromDay;
+
+    private final int toDay;
+
+    private CountedNights(Long resourceId, long version, int fromDay, int toDay) {
+      this.resourceId = resourceId;
+      this.version = version;
+      this.fromDay = fromDay;
+      this.toDay = toDay;
+    }
+
+    private boolean hasRange() {
+      return this.fromDay <= this.toDay;
+    }
+  }
+}
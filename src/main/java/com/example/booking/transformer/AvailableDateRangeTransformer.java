@@ -2,12 +2,7 @@ package com.example.booking.transformer;
 
 import com.example.booking.dto.AvailableDateDTO;
 import com.example.booking.dto.AvailableDatesDTO;
-import com.google.common.collect.BoundType;
-import com.google.common.collect.Range;
-import com.google.common.collect.RangeSet;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -16,30 +11,20 @@ import java.util.Collection;
 @Component
 public class AvailableDateRangeTransformer {
 
-  @Transactional(propagation = Propagation.MANDATORY)
-  public AvailableDatesDTO transform(RangeSet<LocalDate> availableDates) {
-    Collection<AvailableDateDTO> response = new ArrayList<>();
-    availableDates
-        .asRanges()
-        .forEach(
-            localDateRange ->
-                response.add(
-                    AvailableDateDTO.builder()
-                        .from(getLowerBound(localDateRange))
-                        .to(getUpperBound(localDateRange))
-                        .build()));
+  /**
+   * The only place free ranges become dates.
+   *
+   * @param availableDates consecutive closed [from, to] epoch day pairs.
+   */
+  public AvailableDatesDTO transform(int[] availableDates) {
+    Collection<AvailableDateDTO> response = new ArrayList<>(availableDates.length / 2);
+    for (int i = 0; i < availableDates.length; i += 2) {
+      response.add(
+          AvailableDateDTO.builder()
+              .from(LocalDate.ofEpochDay(availableDates[i]))
+              .to(LocalDate.ofEpochDay(availableDates[i + 1]))
+              .build());
+    }
     return AvailableDatesDTO.builder().availableDates(response).build();
   }
-
-  private LocalDate getLowerBound(Range<LocalDate> localDateRange) {
-    return BoundType.CLOSED.equals(localDateRange.lowerBoundType())
-        ? localDateRange.lowerEndpoint()
-        : localDateRange.lowerEndpoint().plusDays(1);
-  }
-
-  private LocalDate getUpperBound(Range<LocalDate> localDateRange) {
-    return BoundType.CLOSED.equals(localDateRange.upperBoundType())
-        ? localDateRange.upperEndpoint()
-        : localDateRange.upperEndpoint().minusDays(1);
-  }
 }
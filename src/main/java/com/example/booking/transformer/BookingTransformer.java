@@ -16,6 +16,7 @@ public class BookingTransformer {
   public BookingDTO transform(Booking booking) {
     return BookingDTO.builder()
         .id(booking.getId())
+        .resourceId(booking.getResourceId())
         .name(booking.getUserName())
         .email(booking.getEmail())
         .arrivalDate(
@@ -27,6 +28,8 @@ public class BookingTransformer {
                 .map(DateRangeHelper::upper)
                 .orElse(null))
         .status(Optional.ofNullable(booking.getStatus()).map(Enum::name).orElse(null))
+        .heldUntil(booking.getHeldUntil())
+        .version(booking.getVersion())
         .build();
   }
 }
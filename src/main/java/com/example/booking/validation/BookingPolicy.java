@@ -0,0 +1,52 @@
+package com.example.booking.validation;
+
+import com.example.booking.constant.ExceptionMessages;
+import lombok.Getter;
+
+/**
+ * Limits a stay must respect. Violations whose message only depends on the limits are built once
+ * here rather than on every rejected request.
+ */
+public final class BookingPolicy {
+
+  public static final BookingPolicy DEFAULT = new BookingPolicy(3, 1, 1);
+
+  /** Nights of a single stay. */
+  @Getter private final int maxNights;
+
+  /** How far ahead, from today, an arrival may be. */
+  @Getter private final int maxAnticipationMonths;
+
+  /** Whole days there must be between today and the arrival. */
+  @Getter private final int minLeadDays;
+
+  private final BookingRuleViolation tooManyNights;
+
+  private final BookingRuleViolation arrivalTooSoon;
+
+  public BookingPolicy(int maxNights, int maxAnticipationMonths, int minLeadDays) {
+    if (maxNights < 1 || maxAnticipationMonths < 0 || minLeadDays < 0) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Invalid booking policy: %s night(s), %s month(s) ahead, %s day(s) lead",
+              maxNights, maxAnticipationMonths, minLeadDays));
+    }
+    this.maxNights = maxNights;
+    this.maxAnticipationMonths = maxAnticipationMonths;
+    this.minLeadDays = minLeadDays;
+    this.tooManyNights =
+        new BookingRuleViolation(
+            String.format(ExceptionMessages.TOO_MANY_NIGHTS, maxNights), "departureDate");
+    this.arrivalTooSoon =
+        new BookingRuleViolation(
+            String.format(ExceptionMessages.ARRIVAL_TOO_SOON, minLeadDays), "arrivalDate");
+  }
+
+  BookingRuleViolation tooManyNights() {
+    return this.tooManyNights;
+  }
+
+  BookingRuleViolation arrivalTooSoon() {
+    return this.arrivalTooSoon;
+  }
+}
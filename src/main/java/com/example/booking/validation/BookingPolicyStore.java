@@ -0,0 +1,58 @@
+package com.example.booking.validation;
+
+import com.example.booking.repository.BookingPolicyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Keeps the booking policy of every instance the same. A policy set while the application runs is
+ * stored, then announced through a Postgres NOTIFY issued in the storing transaction, on which
+ * every instance, this one included, reloads it. Instances starting up, or reconnecting to the
+ * notifications, load it too; the {@code booking.rules.*} properties only apply until a policy is
+ * stored.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingPolicyStore {
+
+  public static final String CHANNEL = "booking_policy_changed";
+
+  private static final String NOTIFY = "select pg_notify(?, '')";
+
+  private final BookingPolicyRepository bookingPolicyRepository;
+
+  private final BookingRules bookingRules;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  /** Stores the policy and tells every instance to reload it once committed. */
+  @Transactional
+  public void store(BookingPolicy policy) {
+    this.bookingPolicyRepository.save(policy);
+    this.jdbcTemplate.query(NOTIFY, (RowCallbackHandler) resultSet -> {}, CHANNEL);
+  }
+
+  /** Applies the stored policy, if any, to this instance. */
+  @EventListener(ApplicationReadyEvent.class)
+  public void reload() {
+    this.bookingPolicyRepository
+        .find()
+        .ifPresent(
+            policy -> {
+              this.bookingRules.setPolicy(policy);
+              log.info(
+                  String.format(
+                      "Booking policy set to %s night(s), %s month(s) ahead, %s day(s) lead",
+                      policy.getMaxNights(),
+                      policy.getMaxAnticipationMonths(),
+                      policy.getMinLeadDays()));
+            });
+  }
+}
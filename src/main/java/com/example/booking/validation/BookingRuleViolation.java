@@ -0,0 +1,14 @@
+package com.example.booking.validation;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/** A broken booking rule: its message, and the request property it is reported on. */
+@Getter
+@RequiredArgsConstructor
+public final class BookingRuleViolation {
+
+  private final String message;
+
+  private final String propertyNode;
+}
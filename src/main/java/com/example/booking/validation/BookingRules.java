@@ -0,0 +1,127 @@
+package com.example.booking.validation;
+
+import com.example.booking.constant.ExceptionMessages;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Evaluates the {@link BookingPolicy} against requested dates. The arrival window depends on today,
+ * so it is computed once per day of the clock, along with its violation message, and a request only
+ * compares epoch days against it.
+ */
+public class BookingRules {
+
+  private static final BookingRuleViolation MISSING_ARRIVAL =
+      new BookingRuleViolation(ExceptionMessages.MISSING_ARRIVAL_DATE, "arrivalDate");
+
+  private static final BookingRuleViolation MISSING_DEPARTURE =
+      new BookingRuleViolation(ExceptionMessages.MISSING_DEPARTURE_DATE, "departureDate");
+
+  private static final BookingRuleViolation DEPARTURE_NOT_AFTER_ARRIVAL =
+      new BookingRuleViolation(ExceptionMessages.DEPARTURE_NOT_AFTER_ARRIVAL, "departureDate");
+
+  private static final BookingRules DEFAULTS =
+      new BookingRules(BookingPolicy.DEFAULT, Clock.systemDefaultZone());
+
+  private final Clock clock;
+
+  private final AtomicReference<Boundaries> boundaries;
+
+  public BookingRules(BookingPolicy policy, Clock clock) {
+    this.clock = clock;
+    this.boundaries = new AtomicReference<>(new Boundaries(policy, clock));
+  }
+
+  /** The default policy on the system clock, for validators created outside of the context. */
+  public static BookingRules defaults() {
+    return DEFAULTS;
+  }
+
+  public BookingPolicy getPolicy() {
+    return this.boundaries.get().policy;
+  }
+
+  /** Takes effect for the next evaluation. */
+  public void setPolicy(BookingPolicy policy) {
+    this.boundaries.set(new Boundaries(policy, this.clock));
+  }
+
+  public LocalDate getEarliestArrival() {
+    return LocalDate.ofEpochDay(this.current().earliestArrival);
+  }
+
+  public LocalDate getLatestArrival() {
+    return LocalDate.ofEpochDay(this.current().latestArrival);
+  }
+
+  /**
+   * @return the first rule the dates break, or null if they break none.
+   */
+  public BookingRuleViolation evaluate(LocalDate arrivalDate, LocalDate departureDate) {
+    if (arrivalDate == null && departureDate == null) {
+      return null;
+    }
+    if (arrivalDate == null) {
+      return MISSING_ARRIVAL;
+    }
+    if (departureDate == null) {
+      return MISSING_DEPARTURE;
+    }
+
+    long arrival = arrivalDate.toEpochDay();
+    long nights = departureDate.toEpochDay() - arrival;
+    if (nights <= 0) {
+      return DEPARTURE_NOT_AFTER_ARRIVAL;
+    }
+
+    Boundaries boundaries = this.current();
+    if (nights > boundaries.policy.getMaxNights()) {
+      return boundaries.policy.tooManyNights();
+    }
+    if (arrival > boundaries.latestArrival) {
+      return boundaries.arrivalTooLate;
+    }
+    if (arrival < boundaries.earliestArrival) {
+      return boundaries.policy.arrivalTooSoon();
+    }
+    return null;
+  }
+
+  /** Boundaries of today, recomputed on the first call past midnight. */
+  private Boundaries current() {
+    Boundaries boundaries = this.boundaries.get();
+    if (this.clock.millis() < boundaries.validUntil) {
+      return boundaries;
+    }
+    // a policy set meanwhile wins over the rollover of the old one
+    this.boundaries.compareAndSet(boundaries, new Boundaries(boundaries.policy, this.clock));
+    return this.boundaries.get();
+  }
+
+  private static final class Boundaries {
+
+    private final BookingPolicy policy;
+
+    private final long earliestArrival;
+
+    private final long latestArrival;
+
+    private final BookingRuleViolation arrivalTooLate;
+
+    private final long validUntil;
+
+    private Boundaries(BookingPolicy policy, Clock clock) {
+      LocalDate today = LocalDate.now(clock);
+      LocalDate latestArrival = today.plusMonths(policy.getMaxAnticipationMonths());
+      this.policy = policy;
+      this.earliestArrival = today.plusDays(policy.getMinLeadDays() + 1L).toEpochDay();
+      this.latestArrival = latestArrival.toEpochDay();
+      this.arrivalTooLate =
+          new BookingRuleViolation(
+              String.format(ExceptionMessages.ARRIVAL_TOO_LATE, latestArrival), "arrivalDate");
+      this.validUntil = today.plusDays(1).atStartOfDay(clock.getZone()).toInstant().toEpochMilli();
+    }
+  }
+}
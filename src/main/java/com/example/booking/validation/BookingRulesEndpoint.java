@@ -0,0 +1,53 @@
+package com.example.booking.validation;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads and changes the booking policy while the application runs. Limits left out of a write keep
+ * their value. A change is stored and reaches every instance, see {@link BookingPolicyStore}; only
+ * users with the {@code BOOKING_ADMIN} role may make one.
+ */
+@Component
+@Endpoint(id = "bookingrules")
+@RequiredArgsConstructor
+public class BookingRulesEndpoint {
+
+  private final BookingRules bookingRules;
+
+  private final BookingPolicyStore bookingPolicyStore;
+
+  @ReadOperation
+  public BookingPolicy policy() {
+    return this.bookingRules.getPolicy();
+  }
+
+  @WriteOperation
+  public BookingPolicy updatePolicy(
+      @Nullable Integer maxNights,
+      @Nullable Integer maxAnticipationMonths,
+      @Nullable Integer minLeadDays) {
+    BookingPolicy current = this.bookingRules.getPolicy();
+    BookingPolicy policy;
+    try {
+      policy =
+          new BookingPolicy(
+              maxNights != null ? maxNights : current.getMaxNights(),
+              maxAnticipationMonths != null
+                  ? maxAnticipationMonths
+                  : current.getMaxAnticipationMonths(),
+              minLeadDays != null ? minLeadDays : current.getMinLeadDays());
+    } catch (IllegalArgumentException ex) {
+      throw new InvalidEndpointRequestException(ex.getMessage(), ex.getMessage());
+    }
+    this.bookingPolicyStore.store(policy);
+    // the stored policy, in case another instance stored one since
+    this.bookingPolicyStore.reload();
+    return this.bookingRules.getPolicy();
+  }
+}
@@ -0,0 +1,16 @@
+CREATE TABLE IF NOT EXISTS booking_outbox
+(
+    id             BIGSERIAL PRIMARY KEY,
+    booking_id     BIGINT    NOT NULL,
+    resource_id    BIGINT    NOT NULL,
+    status         INTEGER   NOT NULL,
+    previous_from  DATE,
+    previous_to    DATE,
+    from_date      DATE,
+    to_date        DATE,
+    created_at     TIMESTAMP NOT NULL,
+    processed_at   TIMESTAMP,
+    relay_position BIGINT
+);
+CREATE INDEX IF NOT EXISTS booking_outbox_pending ON booking_outbox (id) WHERE processed_at IS NULL;
+CREATE UNIQUE INDEX IF NOT EXISTS booking_outbox_relay_position ON booking_outbox (relay_position);
\ No newline at end of file
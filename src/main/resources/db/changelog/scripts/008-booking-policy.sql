@@ -0,0 +1,8 @@
+CREATE TABLE IF NOT EXISTS booking_policy
+(
+    id                      INT PRIMARY KEY CHECK (id = 1),
+    max_nights              INT       NOT NULL,
+    max_anticipation_months INT       NOT NULL,
+    min_lead_days           INT       NOT NULL,
+    updated_at              TIMESTAMP NOT NULL
+);
\ No newline at end of file
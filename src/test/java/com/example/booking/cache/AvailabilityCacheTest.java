@@ -0,0 +1,144 @@
+package com.example.booking.cache;
+
+import com.example.booking.dto.AvailabilityCacheStatsDTO;
+import com.example.booking.dto.AvailableDateDTO;
+import com.example.booking.dto.AvailableDatesDTO;
+import com.example.booking.event.BookingChangedEvent;
+import com.example.booking.model.BookingStatus;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AvailabilityCacheTest {
+
+  private static final Long RESOURCE_ID = 1L;
+  private static final LocalDate FROM = LocalDate.of(2030, 1, 10);
+  private static final LocalDate TO = LocalDate.of(2030, 1, 20);
+
+  @Test
+  public void whenSameWindowRequestedTwice_shouldComputeOnce() {
+    AvailabilityCache cache = new AvailabilityCache(100);
+    AtomicInteger computations = new AtomicInteger();
+
+    cache.get(RESOURCE_ID, FROM, TO, () -> this.compute(computations));
+    cache.get(RESOURCE_ID, FROM, TO, () -> this.compute(computations));
+
+    AvailabilityCacheStatsDTO stats = cache.stats();
+    assertAll(
+        () -> assertEquals(1, computations.get()),
+        () -> assertEquals(1, stats.getHitCount()),
+        () -> assertEquals(1, stats.getMissCount()));
+  }
+
+  @Test
+  public void whenOverlappingBookingChanges_shouldRecompute() {
+    AvailabilityCache cache = new AvailabilityCache(100);
+    AtomicInteger computations = new AtomicInteger();
+    cache.get(RESOURCE_ID, FROM, TO, () -> this.compute(computations));
+
+    cache.onBookingChanged(
+        new BookingChangedEvent(
+            1L, RESOURCE_ID, BookingStatus.ACTIVE, 0L, null, null, TO, TO.plusDays(1)));
+    cache.get(RESOURCE_ID, FROM, TO, () -> this.compute(computations));
+
+    assertEquals(2, computations.get());
+  }
+
+  @Test
+  public void whenDisjointBookingChanges_shouldKeepEntry() {
+    AvailabilityCache cache = new AvailabilityCache(100);
+    AtomicInteger computations = new AtomicInteger();
+    cache.get(RESOURCE_ID, FROM, TO, () -> this.compute(computations));
+
+    cache.onBookingChanged(
+        new BookingChangedEvent(
+            1L,
+            RESOURCE_ID,
+            BookingStatus.CANCELLED,
+            0L,
+            FROM.minusDays(3),
+            FROM.minusDays(1),
+            null,
+            null));
+    cache.get(RESOURCE_ID, FROM, TO, () -> this.compute(computations));
+
+    assertEquals(1, computations.get());
+  }
+
+  @Test
+  public void whenOtherResourceChanges_shouldKeepEntry() {
+    AvailabilityCache cache = new AvailabilityCache(100);
+    AtomicInteger computations = new AtomicInteger();
+    cache.get(RESOURCE_ID, FROM, TO, () -> this.compute(computations));
+
+    cache.onBookingChanged(
+        new BookingChangedEvent(
+            1L, RESOURCE_ID + 1, BookingStatus.ACTIVE, 0L, null, null, FROM, TO));
+    cache.get(RESOURCE_ID, FROM, TO, () -> this.compute(computations));
+
+    assertEquals(1, computations.get());
+  }
+
+  @Test
+  public void whenBookingChangesWhileComputing_resultShouldNotBeCached() {
+    AvailabilityCache cache = new AvailabilityCache(100);
+    AtomicInteger computations = new AtomicInteger();
+
+    cache.get(
+        RESOURCE_ID,
+        FROM,
+        TO,
+        () -> {
+          cache.onBookingChanged(
+              new BookingChangedEvent(
+                  1L, RESOURCE_ID, BookingStatus.ACTIVE, 0L, null, null, FROM, FROM));
+          return this.compute(computations);
+        });
+    cache.get(RESOURCE_ID, FROM, TO, () -> this.compute(computations));
+
+    assertEquals(2, computations.get());
+  }
+
+  @Test
+  public void whenWeightExceeded_shouldEvict() {
+    AvailabilityCache cache = new AvailabilityCache(4);
+    AtomicInteger computations = new AtomicInteger();
+
+    for (int i = 0; i < 4; i++) {
+      cache.get(RESOURCE_ID, FROM.plusDays(i), TO, () -> this.compute(computations));
+    }
+
+    assertTrue(cache.stats().getEvictionCount() > 0);
+  }
+
+  @Test
+  public void whenWindowCachedAgainAfterEviction_shouldStillBeInvalidated() {
+    AvailabilityCache cache = new AvailabilityCache(2);
+    AtomicInteger computations = new AtomicInteger();
+    cache.get(RESOURCE_ID, FROM, TO, () -> this.compute(computations));
+    cache.get(RESOURCE_ID + 1, FROM, TO, () -> this.compute(computations));
+    cache.get(RESOURCE_ID, FROM, TO, () -> this.compute(computations));
+
+    cache.onBookingChanged(
+        new BookingChangedEvent(1L, RESOURCE_ID, BookingStatus.ACTIVE, 0L, null, null, FROM, FROM));
+    cache.get(RESOURCE_ID, FROM, TO, () -> this.compute(computations));
+
+    assertAll(
+        () -> assertTrue(cache.stats().getEvictionCount() > 0),
+        () -> assertEquals(4, computations.get()));
+  }
+
+  private AvailableDatesDTO compute(AtomicInteger computations) {
+    computations.incrementAndGet();
+    return AvailableDatesDTO.builder()
+        .availableDates(
+            Collections.singletonList(AvailableDateDTO.builder().from(FROM).to(TO).build()))
+        .build();
+  }
+}
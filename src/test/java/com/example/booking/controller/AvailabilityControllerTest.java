@@ -0,0 +1,131 @@
+package com.example.booking.controller;
+
+import com.example.booking.dto.AvailableDateDTO;
+import com.example.booking.dto.AvailableDatesDTO;
+import com.example.booking.execution.ExecutionMode;
+import com.example.booking.execution.RequestExecutor;
+import com.example.booking.service.AvailabilityService;
+import com.example.booking.service.VersionedAvailability;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AvailabilityControllerTest {
+
+  private static final LocalDate FROM = LocalDate.of(2030, 1, 1);
+
+  private static final LocalDate TO = LocalDate.of(2030, 1, 31);
+
+  private final AvailabilityService availabilityService = mock(AvailabilityService.class);
+
+  private final AvailabilityController availabilityController =
+      new AvailabilityController(
+          this.availabilityService,
+          new ObjectMapper()
+              .registerModule(new JavaTimeModule())
+              .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS),
+          new RequestExecutor(ExecutionMode.BLOCKING, 1, 1));
+
+  @Test
+  public void whenStreamingSeveralRanges_shouldWriteOneRangePerLine() throws Exception {
+    doAnswer(
+            invocation -> {
+              Consumer<AvailableDateDTO> consumer = invocation.getArgument(3);
+              consumer.accept(range(FROM, FROM.plusDays(2)));
+              consumer.accept(range(FROM.plusDays(5), FROM.plusDays(9)));
+              consumer.accept(range(FROM.plusDays(20), TO));
+              return null;
+            })
+        .when(this.availabilityService)
+        .streamAvailability(eq(1L), eq(FROM), eq(TO), any());
+
+    ResponseEntity<StreamingResponseBody> response =
+        this.availabilityController.streamAvailability(FROM, TO, 1L);
+    ByteArrayOutputStream body = new ByteArrayOutputStream();
+    response.getBody().writeTo(body);
+
+    assertEquals(
+        "{\"from\":\"2030-01-01\",\"to\":\"2030-01-03\"}\n"
+            + "{\"from\":\"2030-01-06\",\"to\":\"2030-01-10\"}\n"
+            + "{\"from\":\"2030-01-21\",\"to\":\"2030-01-31\"}\n",
+        body.toString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void whenSnapshotUnchanged_shouldAnswerNotModifiedWithoutSlicing() throws Exception {
+    when(this.availabilityService.snapshotVersion(1L, FROM, TO)).thenReturn(7L);
+    when(this.availabilityService.versionedAvailabilityFor(1L, FROM, TO))
+        .thenReturn(
+            new VersionedAvailability(
+                AvailableDatesDTO.builder().availableDates(List.of(range(FROM, TO))).build(), 7L));
+    String eTag =
+        this.availabilityController
+            .getAvailability(FROM, TO, 1L, null)
+            .get()
+            .getHeaders()
+            .getETag();
+
+    ResponseEntity<AvailableDatesDTO> unchanged =
+        this.availabilityController.getAvailability(FROM, TO, 1L, eTag).get();
+
+    assertAll(
+        () -> assertNotNull(eTag),
+        () -> assertEquals(HttpStatus.NOT_MODIFIED, unchanged.getStatusCode()),
+        () -> assertEquals(eTag, unchanged.getHeaders().getETag()),
+        () -> assertNull(unchanged.getBody()),
+        () -> verify(this.availabilityService, times(1)).versionedAvailabilityFor(1L, FROM, TO));
+  }
+
+  @Test
+  public void whenSnapshotChanged_shouldAnswerTheNewVersion() throws Exception {
+    when(this.availabilityService.snapshotVersion(1L, FROM, TO)).thenReturn(8L);
+    when(this.availabilityService.versionedAvailabilityFor(1L, FROM, TO))
+        .thenReturn(
+            new VersionedAvailability(
+                AvailableDatesDTO.builder().availableDates(List.of(range(FROM, TO))).build(), 7L),
+            new VersionedAvailability(
+                AvailableDatesDTO.builder().availableDates(List.of()).build(), 8L));
+    String eTag =
+        this.availabilityController
+            .getAvailability(FROM, TO, 1L, null)
+            .get()
+            .getHeaders()
+            .getETag();
+
+    ResponseEntity<AvailableDatesDTO> changed =
+        this.availabilityController.getAvailability(FROM, TO, 1L, eTag).get();
+
+    assertAll(
+        () -> assertEquals(HttpStatus.OK, changed.getStatusCode()),
+        () -> assertNotEquals(eTag, changed.getHeaders().getETag()),
+        () -> assertTrue(changed.getBody().getAvailableDates().isEmpty()));
+  }
+
+  private static AvailableDateDTO range(LocalDate from, LocalDate to) {
+    return AvailableDateDTO.builder().from(from).to(to).build();
+  }
+}
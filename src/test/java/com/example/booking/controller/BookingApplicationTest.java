@@ -6,6 +6,7 @@ import com.example.booking.request.CreateBookingRequestBody;
 import com.example.booking.request.UpdateBookingRequestBody;
 import com.example.booking.service.BookingService;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
@@ -14,30 +15,41 @@ import org.junit.Before;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.servlet.MockMvc;
-import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.io.UnsupportedEncodingException;
 import java.time.LocalDate;
 import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
+import static com.example.booking.constant.ExceptionMessages.FROM_DATE_AFTER_TO_DATE;
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
-@Sql(scripts = "classpath:db/changelog/scripts/001-unique-date-range.sql")
+@Sql(scripts = "classpath:db/changelog/scripts/002-resource-date-range.sql")
 public class BookingApplicationTest extends DatabaseIT {
 
   private MockMvc mvc;
@@ -69,6 +81,196 @@ public class BookingApplicationTest extends DatabaseIT {
     assertEquals(HttpStatus.CREATED.value(), httpResponse.getStatus());
   }
 
+  @Test
+  public void whenRetryingWithSameIdempotencyKey_shouldReturnSameBooking() throws Exception {
+    CreateBookingRequestBody createBookingRequestBody =
+        new CreateBookingRequestBody(
+            "test_name",
+            "good.mail@mail.com",
+            LocalDate.now().plusDays(50),
+            LocalDate.now().plusDays(51));
+    String idempotencyKey = UUID.randomUUID().toString();
+
+    MockHttpServletResponse first =
+        this.postCall("/booking", createBookingRequestBody, idempotencyKey);
+    MockHttpServletResponse retry =
+        this.postCall("/booking", createBookingRequestBody, idempotencyKey);
+
+    assertAll(
+        () -> assertEquals(HttpStatus.CREATED.value(), first.getStatus()),
+        () -> assertEquals(HttpStatus.CREATED.value(), retry.getStatus()),
+        () -> assertEquals(first.getContentAsString(), retry.getContentAsString()));
+  }
+
+  @Test
+  public void whenRetriesArriveBeforeOriginalCompletes_shouldAllReturnSameBooking()
+      throws InterruptedException {
+    CreateBookingRequestBody createBookingRequestBody =
+        new CreateBookingRequestBody(
+            "test_name",
+            "good.mail@mail.com",
+            LocalDate.now().plusDays(53),
+            LocalDate.now().plusDays(54));
+    String idempotencyKey = UUID.randomUUID().toString();
+
+    final ExecutorService executor = Executors.newFixedThreadPool(5);
+
+    ConcurrentHashMap<Integer, MockHttpServletResponse> responseMap = new ConcurrentHashMap<>();
+
+    for (int attempt = 0; attempt < 5; attempt++) {
+      final int number = attempt;
+      executor.execute(
+          () -> {
+            try {
+              responseMap.put(
+                  number, this.postCall("/booking", createBookingRequestBody, idempotencyKey));
+            } catch (Exception ignored) {
+            }
+          });
+    }
+
+    executor.shutdown();
+
+    executor.awaitTermination(10, TimeUnit.SECONDS);
+
+    assertAll(
+        () -> assertEquals(5, responseMap.size()),
+        () ->
+            assertEquals(
+                5,
+                responseMap.values().stream()
+                    .filter(response -> HttpStatus.CREATED.value() == response.getStatus())
+                    .count()),
+        () ->
+            assertEquals(1, responseMap.values().stream().map(this::contentOf).distinct().count()));
+  }
+
+  @Test
+  public void whenIdempotencyKeyReusedForAnotherRequest_shouldFailWithStatusUnprocessable()
+      throws Exception {
+    String idempotencyKey = UUID.randomUUID().toString();
+    CreateBookingRequestBody first =
+        new CreateBookingRequestBody(
+            "test_name",
+            "good.mail@mail.com",
+            LocalDate.now().plusDays(56),
+            LocalDate.now().plusDays(57));
+    CreateBookingRequestBody other =
+        new CreateBookingRequestBody(
+            "test_name",
+            "good.mail@mail.com",
+            LocalDate.now().plusDays(57),
+            LocalDate.now().plusDays(58));
+
+    MockHttpServletResponse created = this.postCall("/booking", first, idempotencyKey);
+    MockHttpServletResponse reused = this.postCall("/booking", other, idempotencyKey);
+
+    assertAll(
+        () -> assertEquals(HttpStatus.CREATED.value(), created.getStatus()),
+        () -> assertEquals(HttpStatus.UNPROCESSABLE_ENTITY.value(), reused.getStatus()));
+  }
+
+  @Test
+  public void whenAvailabilityUnchanged_shouldAnswerNotModified() throws Exception {
+    String uri =
+        String.format(
+            "/availability?from=%s&to=%s&resourceId=3",
+            LocalDate.now().plusDays(60), LocalDate.now().plusDays(62));
+    MockHttpServletResponse first = this.getCall(uri, null);
+    String eTag = first.getHeader(HttpHeaders.ETAG);
+    MockHttpServletResponse unchanged = this.getCall(uri, eTag);
+
+    CreateBookingRequestBody createBookingRequestBody =
+        new CreateBookingRequestBody(
+            "test_name",
+            "good.mail@mail.com",
+            LocalDate.now().plusDays(61),
+            LocalDate.now().plusDays(61));
+    createBookingRequestBody.setResourceId(3L);
+    this.bookingService.create(createBookingRequestBody);
+    MockHttpServletResponse changed = this.getCall(uri, eTag);
+
+    assertAll(
+        () -> assertEquals(HttpStatus.OK.value(), first.getStatus()),
+        () -> assertNotNull(eTag),
+        () -> assertEquals(HttpStatus.NOT_MODIFIED.value(), unchanged.getStatus()),
+        () -> assertEquals(HttpStatus.OK.value(), changed.getStatus()),
+        () -> assertNotEquals(eTag, changed.getHeader(HttpHeaders.ETAG)));
+  }
+
+  @Test
+  public void whenBookingUnchanged_shouldAnswerNotModified() throws Exception {
+    Long id =
+        this.bookingService.create(
+            new CreateBookingRequestBody(
+                "test_name",
+                "good.mail@mail.com",
+                LocalDate.now().plusDays(64),
+                LocalDate.now().plusDays(65)));
+    String uri = String.format("/booking/%s", id);
+    MockHttpServletResponse first = this.getCall(uri, null);
+    String eTag = first.getHeader(HttpHeaders.ETAG);
+    MockHttpServletResponse unchanged = this.getCall(uri, eTag);
+
+    this.bookingService.cancel(id);
+    MockHttpServletResponse changed = this.getCall(uri, eTag);
+
+    assertAll(
+        () -> assertEquals(HttpStatus.OK.value(), first.getStatus()),
+        () -> assertNotNull(eTag),
+        () -> assertEquals(HttpStatus.NOT_MODIFIED.value(), unchanged.getStatus()),
+        () -> assertEquals("", unchanged.getContentAsString()),
+        () -> assertEquals(HttpStatus.OK.value(), changed.getStatus()),
+        () -> assertNotEquals(eTag, changed.getHeader(HttpHeaders.ETAG)));
+  }
+
+  @Test
+  public void whenListingBookings_shouldPageThroughMatchesInIdOrder() throws Exception {
+    String email = String.format("%s@mail.com", UUID.randomUUID());
+    for (int arrival = 80; arrival <= 86; arrival += 3) {
+      this.bookingService.create(
+          new CreateBookingRequestBody(
+              "test_name",
+              email,
+              LocalDate.now().plusDays(arrival),
+              LocalDate.now().plusDays(arrival + 1)));
+    }
+
+    JsonNode first = this.listCall(String.format("/booking?email=%s&status=ACTIVE&limit=2", email));
+    JsonNode last =
+        this.listCall(
+            String.format("/booking?email=%s&limit=2&after=%s", email, first.get("next").asLong()));
+
+    assertAll(
+        () -> assertEquals(2, first.get("bookings").size()),
+        () ->
+            assertEquals(
+                LocalDate.now().plusDays(80).toString(),
+                first.get("bookings").get(0).get("arrivalDate").asText()),
+        () -> assertEquals(1, last.get("bookings").size()),
+        () ->
+            assertEquals(
+                LocalDate.now().plusDays(86).toString(),
+                last.get("bookings").get(0).get("arrivalDate").asText()),
+        () -> assertNull(last.get("next")));
+  }
+
+  @Test
+  public void whenListingBookingsFromAfterTo_shouldFailWithStatusBadRequest() throws Exception {
+    MockHttpServletResponse httpResponse =
+        mvc.perform(
+                get(
+                    String.format(
+                        "/booking?from=%s&to=%s",
+                        LocalDate.now().plusDays(10), LocalDate.now().plusDays(9))))
+            .andReturn()
+            .getResponse();
+
+    assertAll(
+        () -> assertEquals(HttpStatus.BAD_REQUEST.value(), httpResponse.getStatus()),
+        () -> assertTrue(httpResponse.getContentAsString().contains(FROM_DATE_AFTER_TO_DATE)));
+  }
+
   @Test
   public void whenInvalidMail_shouldFailWithStatusBadRequest() throws Exception {
     CreateBookingRequestBody createBookingRequestBody =
@@ -152,6 +354,28 @@ public class BookingApplicationTest extends DatabaseIT {
     }
   }
 
+  private String contentOf(MockHttpServletResponse response) {
+    try {
+      return response.getContentAsString();
+    } catch (UnsupportedEncodingException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  private MockHttpServletResponse getCall(String uri, String ifNoneMatch) throws Exception {
+    MockHttpServletRequestBuilder request = get(uri);
+    if (ifNoneMatch != null) {
+      request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+    }
+    MvcResult started = mvc.perform(request).andReturn();
+    return mvc.perform(asyncDispatch(started)).andReturn().getResponse();
+  }
+
+  private JsonNode listCall(String uri) throws Exception {
+    return objectMapper.readTree(
+        mvc.perform(get(uri)).andReturn().getResponse().getContentAsString());
+  }
+
   private MockHttpServletResponse postCall(String uri, BookingRequestBody body) throws Exception {
     return mvc.perform(
             post(uri).contentType(MediaType.APPLICATION_JSON_VALUE).content(this.mapToJson(body)))
@@ -159,6 +383,17 @@ public class BookingApplicationTest extends DatabaseIT {
         .getResponse();
   }
 
+  private MockHttpServletResponse postCall(
+      String uri, BookingRequestBody body, String idempotencyKey) throws Exception {
+    return mvc.perform(
+            post(uri)
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                .header("Idempotency-Key", idempotencyKey)
+                .content(this.mapToJson(body)))
+        .andReturn()
+        .getResponse();
+  }
+
   private MockHttpServletResponse patchCall(String uri, BookingRequestBody body) throws Exception {
     return mvc.perform(
             patch(uri).contentType(MediaType.APPLICATION_JSON_VALUE).content(this.mapToJson(body)))
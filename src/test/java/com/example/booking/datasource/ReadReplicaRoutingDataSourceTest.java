@@ -0,0 +1,144 @@
+package com.example.booking.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.setCurrentTransactionReadOnly;
+
+public class ReadReplicaRoutingDataSourceTest {
+
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @After
+  public void tearDown() {
+    setCurrentTransactionReadOnly(false);
+  }
+
+  private final AtomicLong now = new AtomicLong();
+
+  @Test
+  public void whenReadOnlyTransaction_shouldRouteToReplicasInTurn() throws SQLException {
+    ReplicaSet replicaSet = this.replicaSet(replica(0), replica(0));
+    replicaSet.check();
+    ReadReplicaRoutingDataSource routingDataSource = this.routingDataSource(replicaSet);
+    setCurrentTransactionReadOnly(true);
+
+    assertAll(
+        () -> assertEquals(0, routingDataSource.determineCurrentLookupKey()),
+        () -> assertEquals(1, routingDataSource.determineCurrentLookupKey()),
+        () -> assertEquals(0, routingDataSource.determineCurrentLookupKey()));
+  }
+
+  @Test
+  public void whenNotReadOnly_shouldRouteToPrimary() {
+    ReadReplicaRoutingDataSource routingDataSource =
+        this.routingDataSource(this.replicaSet(dataSource()));
+
+    assertEquals("primary", routingDataSource.determineCurrentLookupKey());
+  }
+
+  @Test
+  public void whenNoReplicaIsFreshEnough_shouldFallBackToPrimary() throws SQLException {
+    DataSource unreachable = dataSource();
+    when(unreachable.getConnection()).thenThrow(new SQLException("connection refused"));
+    ReplicaSet replicaSet = this.replicaSet(unreachable);
+    replicaSet.check();
+    ReadReplicaRoutingDataSource routingDataSource = this.routingDataSource(replicaSet);
+    setCurrentTransactionReadOnly(true);
+
+    Object lookupKey = routingDataSource.determineCurrentLookupKey();
+
+    assertAll(
+        () -> assertEquals("primary", lookupKey),
+        () ->
+            assertEquals(
+                1, this.meterRegistry.counter("booking.datasource.replica.fallbacks").count()));
+  }
+
+  @Test
+  public void whenLagMeasurementStale_shouldFallBackToPrimary() throws SQLException {
+    ReplicaSet replicaSet = this.replicaSet(replica(0));
+    replicaSet.check();
+    ReadReplicaRoutingDataSource routingDataSource = this.routingDataSource(replicaSet);
+    setCurrentTransactionReadOnly(true);
+
+    Object fresh = routingDataSource.determineCurrentLookupKey();
+    this.now.addAndGet(1101);
+    Object stale = routingDataSource.determineCurrentLookupKey();
+
+    assertAll(() -> assertEquals(0, fresh), () -> assertEquals("primary", stale));
+  }
+
+  private ReplicaSet replicaSet(DataSource... replicas) {
+    return new ReplicaSet(List.of(replicas), 1000, 100, 1, this.clock());
+  }
+
+  private Clock clock() {
+    return new Clock() {
+      @Override
+      public ZoneId getZone() {
+        return ZoneOffset.UTC;
+      }
+
+      @Override
+      public Clock withZone(ZoneId zone) {
+        return this;
+      }
+
+      @Override
+      public Instant instant() {
+        return Instant.ofEpochMilli(ReadReplicaRoutingDataSourceTest.this.now.get());
+      }
+    };
+  }
+
+  private ReadReplicaRoutingDataSource routingDataSource(ReplicaSet replicaSet) {
+    return new ReadReplicaRoutingDataSource(dataSource(), replicaSet, this.meterRegistry);
+  }
+
+  private static DataSource dataSource() {
+    return Mockito.mock(DataSource.class);
+  }
+
+  /** Replica answering the lag query with the given lag. */
+  private static DataSource replica(long lagMillis) throws SQLException {
+    DataSource replica = dataSource();
+    Connection connection = Mockito.mock(Connection.class);
+    Statement statement = Mockito.mock(Statement.class);
+    when(replica.getConnection()).thenReturn(connection);
+    when(connection.createStatement()).thenReturn(statement);
+    when(statement.executeQuery(anyString())).thenAnswer(invocation -> lag(lagMillis));
+    return replica;
+  }
+
+  private static ResultSet lag(long lagMillis) throws SQLException {
+    ResultSet resultSet = Mockito.mock(ResultSet.class);
+    ResultSetMetaData metaData = Mockito.mock(ResultSetMetaData.class);
+    when(resultSet.next()).thenReturn(true, false);
+    when(resultSet.getMetaData()).thenReturn(metaData);
+    when(metaData.getColumnCount()).thenReturn(1);
+    when(resultSet.getObject(1)).thenReturn(lagMillis);
+    when(resultSet.getObject(1, Number.class)).thenReturn(lagMillis);
+    return resultSet;
+  }
+}
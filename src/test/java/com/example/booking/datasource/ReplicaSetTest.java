@@ -0,0 +1,128 @@
+package com.example.booking.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.After;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.containers.wait.strategy.WaitAllStrategy;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Runs the lag check against a primary streaming to a replica. */
+public class ReplicaSetTest {
+
+  private static final String IMAGE_VERSION = "bitnami/postgresql:13.3.0";
+
+  private static final String DATABASE = "booking";
+
+  private static final Network network = Network.newNetwork();
+
+  private static final GenericContainer<?> primary =
+      postgres()
+          .withNetworkAliases("primary")
+          .withEnv("POSTGRESQL_REPLICATION_MODE", "master")
+          .withEnv("POSTGRESQL_USERNAME", DATABASE)
+          .withEnv("POSTGRESQL_DATABASE", DATABASE);
+
+  private static final GenericContainer<?> replica =
+      postgres()
+          .withEnv("POSTGRESQL_REPLICATION_MODE", "slave")
+          .withEnv("POSTGRESQL_MASTER_HOST", "primary")
+          .withEnv("POSTGRESQL_MASTER_PORT_NUMBER", "5432");
+
+  @ClassRule public static RuleChain containers = RuleChain.outerRule(primary).around(replica);
+
+  private ReplicaSet replicaSet;
+
+  @After
+  public void tearDown() throws IOException {
+    if (this.replicaSet != null) {
+      this.replicaSet.close();
+    }
+  }
+
+  @Test
+  public void whenReplicaCaughtUp_shouldTakeReads() throws InterruptedException {
+    HikariDataSource primaryDataSource = dataSource(jdbcUrl(primary));
+    new JdbcTemplate(primaryDataSource)
+        .execute(
+            "create table if not exists replicated (id int); insert into replicated values (1)");
+    primaryDataSource.close();
+    this.replicaSet =
+        new ReplicaSet(List.of(dataSource(jdbcUrl(replica))), 5000, 100, 1, Clock.systemUTC());
+
+    this.replicaSet.start();
+    JdbcTemplate replicaTemplate = new JdbcTemplate(this.replicaSet.getDataSources().get(0));
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (!replicaTemplate.queryForObject(
+            "select to_regclass('replicated') is not null", Boolean.class)
+        && System.currentTimeMillis() < deadline) {
+      Thread.sleep(100);
+    }
+
+    assertAll(
+        () -> assertEquals(0, this.replicaSet.pick()),
+        () -> assertEquals(0, this.replicaSet.pick()));
+  }
+
+  @Test
+  public void whenReplicaUnreachable_shouldFailItsCheckQuicklyAndTakeNoReads() {
+    this.replicaSet =
+        new ReplicaSet(
+            List.of(
+                dataSource(String.format("jdbc:postgresql://10.255.255.1:5432/%s", DATABASE)),
+                dataSource(jdbcUrl(replica))),
+            5000,
+            100,
+            1,
+            Clock.systemUTC());
+
+    long started = System.currentTimeMillis();
+    this.replicaSet.check();
+    long elapsed = System.currentTimeMillis() - started;
+
+    assertAll(
+        () -> assertTrue(elapsed < 5000, String.format("check took %s ms", elapsed)),
+        () -> assertEquals(1, this.replicaSet.pick()),
+        () -> assertEquals(1, this.replicaSet.pick()));
+  }
+
+  private static GenericContainer<?> postgres() {
+    return new GenericContainer<>(IMAGE_VERSION)
+        .withNetwork(network)
+        .withExposedPorts(5432)
+        .withEnv("POSTGRESQL_PASSWORD", DATABASE)
+        .withEnv("POSTGRESQL_REPLICATION_USER", "replicator")
+        .withEnv("POSTGRESQL_REPLICATION_PASSWORD", "replicator")
+        .waitingFor(
+            new WaitAllStrategy()
+                .withStrategy(Wait.forLogMessage(".*Starting PostgreSQL.*", 1))
+                .withStrategy(Wait.forListeningPort()));
+  }
+
+  private static String jdbcUrl(GenericContainer<?> container) {
+    return String.format(
+        "jdbc:postgresql://%s:%s/%s", container.getHost(), container.getMappedPort(5432), DATABASE);
+  }
+
+  private static HikariDataSource dataSource(String jdbcUrl) {
+    HikariDataSource dataSource = new HikariDataSource();
+    dataSource.setJdbcUrl(jdbcUrl);
+    dataSource.setUsername(DATABASE);
+    dataSource.setPassword(DATABASE);
+    dataSource.setConnectionTimeout(1000);
+    dataSource.setValidationTimeout(500);
+    return dataSource;
+  }
+}
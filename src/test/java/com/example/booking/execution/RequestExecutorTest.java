@@ -0,0 +1,73 @@
+package com.example.booking.execution;
+
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RequestExecutorTest {
+
+  @Test
+  public void whenBlocking_shouldRunOnCallerThread() {
+    RequestExecutor requestExecutor = new RequestExecutor(ExecutionMode.BLOCKING, 1, 1);
+
+    CompletableFuture<Thread> future = requestExecutor.execute(Thread::currentThread);
+
+    assertAll(
+        () -> assertTrue(future.isDone()),
+        () -> assertEquals(Thread.currentThread(), future.join()));
+  }
+
+  @Test
+  public void whenAsync_shouldRunOnRequestExecutor() {
+    RequestExecutor requestExecutor = new RequestExecutor(ExecutionMode.ASYNC, 1, 1);
+    try {
+      Thread thread = requestExecutor.execute(Thread::currentThread).join();
+
+      assertAll(
+          () -> assertNotEquals(Thread.currentThread(), thread),
+          () -> assertTrue(thread.getName().startsWith("booking-request-")));
+    } finally {
+      requestExecutor.shutdown();
+    }
+  }
+
+  @Test
+  public void whenAsyncQueueIsFull_shouldReject() throws InterruptedException {
+    RequestExecutor requestExecutor = new RequestExecutor(ExecutionMode.ASYNC, 1, 1);
+    CountDownLatch running = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    try {
+      requestExecutor.execute(
+          () -> {
+            running.countDown();
+            return this.await(release);
+          });
+      running.await();
+      requestExecutor.execute(() -> this.await(release));
+
+      assertThrows(
+          RejectedExecutionException.class, () -> requestExecutor.execute(() -> Boolean.TRUE));
+    } finally {
+      release.countDown();
+      requestExecutor.shutdown();
+    }
+  }
+
+  private Boolean await(CountDownLatch latch) {
+    try {
+      latch.await();
+      return Boolean.TRUE;
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      return Boolean.FALSE;
+    }
+  }
+}
@@ -0,0 +1,78 @@
+package com.example.booking.export;
+
+import com.example.booking.repository.ExportedBookingConsumer;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class BookingColumnarWriterTest {
+
+  @Test
+  public void whenRowsExceedBlock_shouldWriteFullBlocksThenRestThenEnd() throws IOException {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    BookingColumnarWriter writer = new BookingColumnarWriter(Channels.newChannel(output), 2);
+    writer.accept(
+        1, 7, "ana", "ana@mail.com", 0, 18_000, 18_001, ExportedBookingConsumer.NO_INSTANT, 0);
+    writer.accept(
+        2,
+        7,
+        "bob",
+        "bob@mail.com",
+        1,
+        ExportedBookingConsumer.NO_DAY,
+        ExportedBookingConsumer.NO_DAY,
+        ExportedBookingConsumer.NO_INSTANT,
+        3);
+    writer.accept(3, 8, null, "eve@mail.com", 2, 18_010, 18_012, 1_600_000_000_000L, 5);
+    writer.finish();
+
+    ByteBuffer file = ByteBuffer.wrap(output.toByteArray());
+    byte[] magic = new byte[4];
+    file.get(magic);
+    int firstBlockRows = file.getInt();
+    long[] firstIds = {file.getLong(), file.getLong()};
+    file.position(file.position() + 2 * Long.BYTES + 2 + 4 * Integer.BYTES + 4 * Long.BYTES);
+    String firstUserName = string(file);
+    file.position(file.position() + Integer.BYTES + 3 + 2 * Integer.BYTES + 24);
+    int secondBlockRows = file.getInt();
+    long thirdId = file.getLong();
+    long thirdResourceId = file.getLong();
+    byte thirdStatus = file.get();
+    file.position(file.position() + 2 * Integer.BYTES);
+    long thirdHeldUntil = file.getLong();
+    file.position(file.position() + Long.BYTES);
+    int thirdUserNameLength = file.getInt();
+    String thirdEmail = string(file);
+    int endBlockRows = file.getInt();
+
+    assertAll(
+        () -> assertArrayEquals(BookingColumnarWriter.MAGIC, magic),
+        () -> assertEquals(2, firstBlockRows),
+        () -> assertEquals("[1, 2]", Arrays.toString(firstIds)),
+        () -> assertEquals("ana", firstUserName),
+        () -> assertEquals(1, secondBlockRows),
+        () -> assertEquals(3, thirdId),
+        () -> assertEquals(8, thirdResourceId),
+        () -> assertEquals(2, thirdStatus),
+        () -> assertEquals(1_600_000_000_000L, thirdHeldUntil),
+        () -> assertEquals(-1, thirdUserNameLength),
+        () -> assertEquals("eve@mail.com", thirdEmail),
+        () -> assertEquals(0, endBlockRows),
+        () -> assertEquals(0, file.remaining()));
+  }
+
+  private static String string(ByteBuffer file) {
+    byte[] bytes = new byte[file.getInt()];
+    file.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,159 @@
+package com.example.booking.export;
+
+import com.example.booking.repository.BookingJdbcRepository;
+import com.example.booking.request.CreateBookingRequestBody;
+import com.example.booking.service.BookingService;
+import db.DatabaseIT;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Sql(scripts = "classpath:db/changelog/scripts/002-resource-date-range.sql")
+public class BookingExportTest extends DatabaseIT {
+
+  private static final Long RESOURCE_ID = 6L;
+
+  private static final String CSV_HEADER =
+      "id,resource_id,user_name,email,status,arrival_date,departure_date,held_until,version";
+
+  @Autowired private WebApplicationContext webApplicationContext;
+
+  @Autowired private BookingService bookingService;
+
+  @Autowired private BookingJdbcRepository bookingJdbcRepository;
+
+  /** Booked once for the whole class, the nights would not be free a second time. */
+  private static String email;
+
+  private static Long id;
+
+  private MockMvc mvc;
+
+  @Before
+  public void setUp() {
+    this.mvc = MockMvcBuilders.webAppContextSetup(this.webApplicationContext).build();
+    if (id == null) {
+      email = String.format("%s@mail.com", UUID.randomUUID());
+      CreateBookingRequestBody request =
+          new CreateBookingRequestBody(
+              "export name", email, LocalDate.now().plusDays(20), LocalDate.now().plusDays(21));
+      request.setResourceId(RESOURCE_ID);
+      id = this.bookingService.create(request);
+    }
+  }
+
+  @Test
+  public void whenCopyingAllAsCsv_shouldWriteHeaderThenEveryBooking() {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    long rows = this.bookingJdbcRepository.copyAllAsCsv(output);
+
+    String csv = output.toString(StandardCharsets.UTF_8);
+    assertAll(
+        () -> assertTrue(rows >= 1),
+        () -> assertTrue(csv.startsWith(CSV_HEADER)),
+        () -> assertEquals(rows + 1, csv.lines().count()),
+        () -> assertTrue(csv.contains(this.csvLine())));
+  }
+
+  @Test
+  public void whenWalkingEveryBooking_shouldSeeThemInAscendingId() {
+    List<Long> ids = new ArrayList<>();
+    List<Integer> arrivalDays = new ArrayList<>();
+
+    this.bookingJdbcRepository.forEachBooking(
+        (bookingId,
+            resourceId,
+            name,
+            mail,
+            status,
+            arrivalDay,
+            departureDay,
+            heldUntil,
+            version) -> {
+          ids.add(bookingId);
+          if (bookingId == id) {
+            arrivalDays.add(arrivalDay);
+          }
+        });
+
+    List<Long> sorted = new ArrayList<>(ids);
+    sorted.sort(Long::compare);
+    assertAll(
+        () -> assertEquals(sorted, ids),
+        () -> assertEquals(List.of((int) LocalDate.now().plusDays(20).toEpochDay()), arrivalDays));
+  }
+
+  @Test
+  public void whenExportingAsCsv_shouldStreamTheSameRowsAsAnAttachment() throws Exception {
+    MockHttpServletResponse response = this.exportCall("CSV");
+
+    assertAll(
+        () -> assertEquals(HttpStatus.OK.value(), response.getStatus()),
+        () -> assertTrue(response.getContentType().startsWith("text/csv")),
+        () -> assertTrue(response.getHeader("Content-Disposition").contains("bookings.csv")),
+        () -> assertTrue(response.getContentAsString().startsWith(CSV_HEADER)),
+        () -> assertTrue(response.getContentAsString().contains(this.csvLine())));
+  }
+
+  @Test
+  public void whenExportingAsColumnar_shouldStreamBlocks() throws Exception {
+    MockHttpServletResponse response = this.exportCall("COLUMNAR");
+
+    assertAll(
+        () -> assertEquals(HttpStatus.OK.value(), response.getStatus()),
+        () -> assertTrue(response.getContentAsByteArray().length > 0));
+  }
+
+  @Test
+  public void whenExportingFromCommandLine_shouldWriteFileAndExitWithZero() throws Exception {
+    Path file = Files.createTempFile("bookings", ".csv");
+
+    int exitCode =
+        BookingExportApplication.run(
+            String.format("--booking.export.file=%s", file), "--booking.export.format=CSV");
+
+    String csv = Files.readString(file);
+    Files.delete(file);
+    assertAll(
+        () -> assertEquals(0, exitCode),
+        () -> assertTrue(csv.startsWith(CSV_HEADER)),
+        () -> assertTrue(csv.contains(this.csvLine())));
+  }
+
+  private String csvLine() {
+    return String.format(
+        "%s,%s,export name,%s,ACTIVE,%s,%s,,0",
+        id, RESOURCE_ID, email, LocalDate.now().plusDays(20), LocalDate.now().plusDays(21));
+  }
+
+  private MockHttpServletResponse exportCall(String format) throws Exception {
+    MvcResult started =
+        this.mvc.perform(get(String.format("/booking/export?format=%s", format))).andReturn();
+    return this.mvc.perform(asyncDispatch(started)).andReturn().getResponse();
+  }
+}
@@ -0,0 +1,36 @@
+package com.example.booking.helper;
+
+import org.junit.Test;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ETagHelperTest {
+
+  @Test
+  public void whenBuildingETag_shouldQuoteJoinedParts() {
+    assertEquals("\"12-3\"", ETagHelper.eTag(12L, 3L));
+  }
+
+  @Test
+  public void whenIfNoneMatchListsTag_shouldMatch() {
+    String eTag = ETagHelper.eTag(12L, 3L);
+
+    assertAll(
+        () -> assertTrue(ETagHelper.matches("\"12-3\"", eTag)),
+        () -> assertTrue(ETagHelper.matches("\"12-2\", W/\"12-3\"", eTag)),
+        () -> assertTrue(ETagHelper.matches("*", eTag)));
+  }
+
+  @Test
+  public void whenIfNoneMatchMissingOrOther_shouldNotMatch() {
+    String eTag = ETagHelper.eTag(12L, 3L);
+
+    assertAll(
+        () -> assertFalse(ETagHelper.matches(null, eTag)),
+        () -> assertFalse(ETagHelper.matches("\"12-2\"", eTag)),
+        () -> assertFalse(ETagHelper.matches("\"112-3\"", eTag)));
+  }
+}
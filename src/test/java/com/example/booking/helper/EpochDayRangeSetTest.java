@@ -0,0 +1,54 @@
+package com.example.booking.helper;
+
+import org.junit.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class EpochDayRangeSetTest {
+
+  @Test
+  public void whenRangesOverlapOrTouch_shouldMerge() {
+    EpochDayRangeSet rangeSet = new EpochDayRangeSet().add(10, 12).add(13, 15).add(14, 20);
+
+    assertArrayEquals(new int[] {10, 20}, rangeSet.toArray());
+  }
+
+  @Test
+  public void whenRangesAddedOutOfOrder_shouldSortAndMerge() {
+    EpochDayRangeSet rangeSet =
+        new EpochDayRangeSet(1).add(30, 31).add(10, 12).add(11, 14).add(20, 20);
+
+    assertArrayEquals(new int[] {10, 14, 20, 20, 30, 31}, rangeSet.toArray());
+    assertEquals(3, rangeSet.size());
+  }
+
+  @Test
+  public void whenComplementing_shouldReturnGapsInsideWindow() {
+    EpochDayRangeSet rangeSet = new EpochDayRangeSet().add(2, 4).add(8, 9).add(15, 30);
+
+    assertArrayEquals(new int[] {5, 7, 10, 14}, rangeSet.complement(3, 20).toArray());
+    assertArrayEquals(new int[] {0, 1, 5, 7, 10, 14, 31, 40}, rangeSet.complement(0, 40).toArray());
+  }
+
+  @Test
+  public void whenComplementingEmptySet_wholeWindowShouldBeFree() {
+    assertArrayEquals(new int[] {5, 9}, new EpochDayRangeSet().complement(5, 9).toArray());
+  }
+
+  @Test
+  public void whenClipping_shouldKeepNightsInsideWindow() {
+    EpochDayRangeSet rangeSet = new EpochDayRangeSet().add(2, 4).add(8, 9).add(15, 30);
+
+    assertArrayEquals(new int[] {3, 4, 8, 9, 15, 16}, rangeSet.clip(3, 16).toArray());
+    assertArrayEquals(new int[0], rangeSet.clip(10, 14).toArray());
+  }
+
+  @Test
+  public void whenUnion_shouldMergeBothSets() {
+    EpochDayRangeSet rangeSet = new EpochDayRangeSet().add(2, 4).add(20, 22);
+    EpochDayRangeSet other = new EpochDayRangeSet().add(5, 6).add(10, 12);
+
+    assertArrayEquals(new int[] {2, 6, 10, 12, 20, 22}, rangeSet.union(other).toArray());
+  }
+}
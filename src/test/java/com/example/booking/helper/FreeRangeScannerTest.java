@@ -0,0 +1,76 @@
+package com.example.booking.helper;
+
+import com.example.booking.dto.AvailableDateDTO;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FreeRangeScannerTest {
+
+  private static final LocalDate FROM = LocalDate.of(2030, 3, 1);
+  private static final LocalDate TO = LocalDate.of(2030, 3, 31);
+
+  @Test
+  public void whenNothingBooked_wholeWindowShouldBeFree() {
+    List<AvailableDateDTO> free = new ArrayList<>();
+    FreeRangeScanner scanner = new FreeRangeScanner(FROM, TO, free::add);
+
+    scanner.finish();
+
+    assertAll(
+        () -> assertEquals(1, free.size()),
+        () -> assertEquals(FROM, free.get(0).getFrom()),
+        () -> assertEquals(TO, free.get(0).getTo()));
+  }
+
+  @Test
+  public void whenBookingsInsideWindow_shouldEmitGapsBetweenThem() {
+    List<AvailableDateDTO> free = new ArrayList<>();
+    FreeRangeScanner scanner = new FreeRangeScanner(FROM, TO, free::add);
+
+    scanner.booked(FROM.plusDays(4), FROM.plusDays(5));
+    scanner.booked(FROM.plusDays(6), FROM.plusDays(8));
+    scanner.booked(FROM.plusDays(20), FROM.plusDays(21));
+    scanner.finish();
+
+    assertAll(
+        () -> assertEquals(3, free.size()),
+        () -> assertEquals(FROM.plusDays(3), free.get(0).getTo()),
+        () -> assertEquals(FROM.plusDays(9), free.get(1).getFrom()),
+        () -> assertEquals(FROM.plusDays(19), free.get(1).getTo()),
+        () -> assertEquals(FROM.plusDays(22), free.get(2).getFrom()),
+        () -> assertEquals(TO, free.get(2).getTo()));
+  }
+
+  @Test
+  public void whenBookingsCrossWindowEdges_shouldClipToWindow() {
+    List<AvailableDateDTO> free = new ArrayList<>();
+    FreeRangeScanner scanner = new FreeRangeScanner(FROM, TO, free::add);
+
+    scanner.booked(FROM.minusDays(2), FROM.plusDays(1));
+    scanner.booked(TO.minusDays(1), TO.plusDays(2));
+    scanner.finish();
+
+    assertAll(
+        () -> assertEquals(1, free.size()),
+        () -> assertEquals(FROM.plusDays(2), free.get(0).getFrom()),
+        () -> assertEquals(TO.minusDays(2), free.get(0).getTo()));
+  }
+
+  @Test
+  public void whenWindowFullyBooked_shouldEmitNothing() {
+    List<AvailableDateDTO> free = new ArrayList<>();
+    FreeRangeScanner scanner = new FreeRangeScanner(FROM, TO, free::add);
+
+    scanner.booked(FROM.minusDays(1), TO.plusDays(1));
+    scanner.finish();
+
+    assertTrue(free.isEmpty());
+  }
+}
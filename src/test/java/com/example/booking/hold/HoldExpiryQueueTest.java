@@ -0,0 +1,62 @@
+package com.example.booking.hold;
+
+import com.example.booking.event.BookingHeldEvent;
+import com.example.booking.repository.BookingJdbcRepository;
+import com.example.booking.service.BookingService;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+public class HoldExpiryQueueTest {
+
+  private final BookingService bookingService = mock(BookingService.class);
+
+  private final BookingJdbcRepository bookingJdbcRepository = mock(BookingJdbcRepository.class);
+
+  @Test
+  public void whenHoldsAreDue_shouldReleaseThemInOneBatch() {
+    HoldExpiryQueue queue =
+        new HoldExpiryQueue(this.bookingService, this.bookingJdbcRepository, 600);
+    queue.onBookingHeld(new BookingHeldEvent(1L, Instant.now().minusSeconds(2)));
+    queue.onBookingHeld(new BookingHeldEvent(2L, Instant.now().minusSeconds(1)));
+
+    queue.start();
+    try {
+      verify(this.bookingService, timeout(2000)).releaseExpiredHolds(Arrays.asList(1L, 2L));
+    } finally {
+      queue.stop();
+    }
+  }
+
+  @Test
+  public void whenHoldIsNotDue_shouldKeepIt() {
+    HoldExpiryQueue queue =
+        new HoldExpiryQueue(this.bookingService, this.bookingJdbcRepository, 600);
+    queue.onBookingHeld(new BookingHeldEvent(1L, Instant.now().plusSeconds(600)));
+
+    queue.start();
+    try {
+      verify(this.bookingService, after(200).never()).releaseExpiredHolds(anyCollection());
+    } finally {
+      queue.stop();
+    }
+  }
+
+  @Test
+  public void expiryFromNow_shouldAddTimeToLive() {
+    HoldExpiryQueue queue =
+        new HoldExpiryQueue(this.bookingService, this.bookingJdbcRepository, 600);
+
+    Instant expiry = queue.expiryFromNow();
+
+    assertTrue(expiry.isAfter(Instant.now().plusSeconds(590)));
+  }
+}
@@ -0,0 +1,121 @@
+package com.example.booking.idempotency;
+
+import com.example.booking.exception.IdempotencyKeyReusedException;
+import com.example.booking.repository.IdempotencyKeyRepository;
+import org.junit.Test;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class IdempotencyKeyStoreTest {
+
+  private static final String KEY = "a5c3f1e2";
+
+  private static final String HASH = "9f86d081";
+
+  private static final String OTHER_HASH = "60303ae2";
+
+  @Test
+  public void whenKeyFinished_shouldNotQueryDatabase() {
+    IdempotencyKeyRepository repository = mock(IdempotencyKeyRepository.class);
+    IdempotencyKeyStore store = new IdempotencyKeyStore(repository, 10, 24, 100);
+
+    store.start(KEY, HASH);
+    store.finish(KEY, HASH, 7L);
+
+    assertEquals(Optional.of(7L), store.bookingIdFor(KEY, HASH));
+    verify(repository, never()).findBooking(KEY);
+  }
+
+  @Test
+  public void whenKeyOnlyStored_shouldQueryDatabaseOnce() {
+    IdempotencyKeyRepository repository = mock(IdempotencyKeyRepository.class);
+    when(repository.findBooking(KEY)).thenReturn(Optional.of(new IdempotentBooking(7L, HASH)));
+    IdempotencyKeyStore store = new IdempotencyKeyStore(repository, 10, 24, 100);
+
+    Optional<Long> first = store.bookingIdFor(KEY, HASH);
+    Optional<Long> second = store.bookingIdFor(KEY, HASH);
+
+    assertAll(
+        () -> assertEquals(Optional.of(7L), first), () -> assertEquals(Optional.of(7L), second));
+    verify(repository, times(1)).findBooking(KEY);
+  }
+
+  @Test
+  public void whenKeyUnknown_shouldBeEmpty() {
+    IdempotencyKeyRepository repository = mock(IdempotencyKeyRepository.class);
+    when(repository.findBooking(KEY)).thenReturn(Optional.empty());
+    IdempotencyKeyStore store = new IdempotencyKeyStore(repository, 10, 24, 100);
+
+    assertFalse(store.bookingIdFor(KEY, HASH).isPresent());
+  }
+
+  @Test
+  public void whenKeyStoredForAnotherRequest_shouldBeRejected() {
+    IdempotencyKeyRepository repository = mock(IdempotencyKeyRepository.class);
+    when(repository.findBooking(KEY)).thenReturn(Optional.of(new IdempotentBooking(7L, HASH)));
+    IdempotencyKeyStore store = new IdempotencyKeyStore(repository, 10, 24, 100);
+
+    assertThrows(IdempotencyKeyReusedException.class, () -> store.bookingIdFor(KEY, OTHER_HASH));
+  }
+
+  @Test
+  public void whenKeyStoredWithoutHash_shouldMatchAnyRequest() {
+    IdempotencyKeyRepository repository = mock(IdempotencyKeyRepository.class);
+    when(repository.findBooking(KEY)).thenReturn(Optional.of(new IdempotentBooking(7L, null)));
+    IdempotencyKeyStore store = new IdempotencyKeyStore(repository, 10, 24, 100);
+
+    assertEquals(Optional.of(7L), store.bookingIdFor(KEY, OTHER_HASH));
+  }
+
+  @Test
+  public void whenKeyInFlight_shouldHandOverItsOutcome() {
+    IdempotencyKeyStore store =
+        new IdempotencyKeyStore(mock(IdempotencyKeyRepository.class), 10, 24, 100);
+
+    Optional<CompletableFuture<Long>> owner = store.start(KEY, HASH);
+    Optional<CompletableFuture<Long>> retry = store.start(KEY, HASH);
+    store.finish(KEY, HASH, 7L);
+
+    assertAll(
+        () -> assertFalse(owner.isPresent()),
+        () -> assertTrue(retry.isPresent()),
+        () -> assertEquals(7L, store.await(retry.get())));
+  }
+
+  @Test
+  public void whenKeyInFlightFails_shouldLetRetryTakeOver() {
+    IdempotencyKeyStore store =
+        new IdempotencyKeyStore(mock(IdempotencyKeyRepository.class), 10, 24, 100);
+
+    store.start(KEY, HASH);
+    Optional<CompletableFuture<Long>> retry = store.start(KEY, HASH);
+    store.finish(KEY, HASH, null);
+
+    assertAll(
+        () -> assertNull(store.await(retry.get())),
+        () -> assertFalse(store.start(KEY, HASH).isPresent()));
+  }
+
+  @Test
+  public void whenKeyInFlightForAnotherRequest_shouldBeRejected() {
+    IdempotencyKeyStore store =
+        new IdempotencyKeyStore(mock(IdempotencyKeyRepository.class), 10, 24, 100);
+
+    store.start(KEY, HASH);
+
+    assertThrows(IdempotencyKeyReusedException.class, () -> store.start(KEY, OTHER_HASH));
+  }
+}
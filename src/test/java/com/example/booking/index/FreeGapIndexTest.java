@@ -0,0 +1,78 @@
+package com.example.booking.index;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class FreeGapIndexTest {
+
+  private static final int BASE = 18_000;
+
+  /** Free nights 0-1, 5-9 and 20-21 of the window, the rest booked. */
+  private final FreeGapIndex index =
+      new FreeGapIndex(new int[] {BASE, BASE + 1, BASE + 5, BASE + 9, BASE + 20, BASE + 21});
+
+  @Test
+  public void whenNearDayInsideGap_shouldWalkOutwardsEarlierFirst() {
+    assertArrayEquals(
+        new int[] {BASE + 6, BASE + 5, BASE + 7, BASE + 8, BASE, BASE + 20},
+        this.index.nearestArrivals(2, BASE + 6, BASE, BASE + 30, 10));
+  }
+
+  @Test
+  public void whenGapsTooShort_shouldSkipThem() {
+    assertAll(
+        () ->
+            assertArrayEquals(
+                new int[] {BASE + 7, BASE + 6, BASE + 5},
+                this.index.nearestArrivals(3, BASE + 15, BASE, BASE + 30, 10)),
+        () ->
+            assertArrayEquals(
+                new int[0], this.index.nearestArrivals(6, BASE, BASE, BASE + 30, 10)));
+  }
+
+  @Test
+  public void whenArrivalBounded_shouldOnlySuggestArrivalsWithinBounds() {
+    assertAll(
+        () ->
+            assertArrayEquals(
+                new int[] {BASE + 7, BASE + 8},
+                this.index.nearestArrivals(2, BASE, BASE + 7, BASE + 19, 10)),
+        () ->
+            assertArrayEquals(
+                new int[] {BASE + 20, BASE + 8},
+                this.index.nearestArrivals(2, BASE + 40, BASE, BASE + 30, 2)));
+  }
+
+  @Test(timeout = 5_000)
+  public void whenManyShortGapsAround_shouldJumpOverThem() {
+    int shortGaps = 200_000;
+    int[] gaps = new int[2 * shortGaps + 4];
+    gaps[0] = BASE;
+    gaps[1] = BASE + 2;
+    for (int i = 0; i < shortGaps; i++) {
+      gaps[2 * i + 2] = BASE + 4 + 2 * i;
+      gaps[2 * i + 3] = BASE + 4 + 2 * i;
+    }
+    int lastShort = BASE + 4 + 2 * (shortGaps - 1);
+    gaps[2 * shortGaps + 2] = lastShort + 2;
+    gaps[2 * shortGaps + 3] = lastShort + 4;
+    FreeGapIndex manyShortGaps = new FreeGapIndex(gaps);
+
+    for (int near = BASE + 4; near < lastShort; near += 8) {
+      int[] arrivals = manyShortGaps.nearestArrivals(2, near, BASE, lastShort + 10, 4);
+      assertEquals(4, arrivals.length);
+    }
+    assertAll(
+        () ->
+            assertArrayEquals(
+                new int[] {BASE + 1, BASE},
+                manyShortGaps.nearestArrivals(2, BASE + 10, BASE, lastShort + 10, 2)),
+        () ->
+            assertArrayEquals(
+                new int[] {lastShort + 2, lastShort + 3, BASE + 1, BASE},
+                manyShortGaps.nearestArrivals(2, lastShort - 10, BASE, lastShort + 10, 10)));
+  }
+}
@@ -0,0 +1,84 @@
+package com.example.booking.index;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class NightClaimsTest {
+
+  private static final int DAY = 20_000;
+
+  @Test
+  public void whenNightsAlreadyClaimed_shouldRejectOverlappingClaim() {
+    NightClaims claims = new NightClaims(64);
+    claims.tryClaim(DAY, DAY + 2);
+
+    assertAll(
+        () -> assertEquals(0, claims.tryClaim(DAY + 2, DAY + 4)),
+        () -> assertNotEquals(0, claims.tryClaim(DAY + 3, DAY + 4)));
+  }
+
+  @Test
+  public void whenClaimRejected_shouldReleaseNightsItTook() {
+    NightClaims claims = new NightClaims(64);
+    claims.tryClaim(DAY + 3, DAY + 3);
+
+    assertEquals(0, claims.tryClaim(DAY, DAY + 3));
+    assertNotEquals(0, claims.tryClaim(DAY, DAY + 2));
+  }
+
+  @Test
+  public void whenClaimReleased_nightsShouldBeClaimableAgain() {
+    NightClaims claims = new NightClaims(64);
+    int token = claims.tryClaim(DAY, DAY + 1);
+
+    claims.release(DAY, DAY + 1, token);
+
+    assertNotEquals(0, claims.tryClaim(DAY, DAY + 1));
+  }
+
+  @Test
+  public void whenReleasingWithOtherToken_claimShouldBeKept() {
+    NightClaims claims = new NightClaims(64);
+    int token = claims.tryClaim(DAY, DAY + 1);
+
+    claims.release(DAY, DAY + 1, token + 1);
+
+    assertEquals(0, claims.tryClaim(DAY, DAY));
+  }
+
+  @Test
+  public void whenConcurrentClaimsForSameNights_shouldAcceptOne() throws InterruptedException {
+    NightClaims claims = new NightClaims(64);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    CountDownLatch start = new CountDownLatch(1);
+    AtomicInteger accepted = new AtomicInteger();
+
+    for (int i = 0; i < 8; i++) {
+      int offset = i % 3;
+      executor.execute(
+          () -> {
+            try {
+              start.await();
+              if (claims.tryClaim(DAY + offset, DAY + offset + 2) != 0) {
+                accepted.incrementAndGet();
+              }
+            } catch (InterruptedException ignored) {
+            }
+          });
+    }
+    start.countDown();
+    executor.shutdown();
+    executor.awaitTermination(10, TimeUnit.SECONDS);
+
+    assertEquals(1, accepted.get());
+  }
+}
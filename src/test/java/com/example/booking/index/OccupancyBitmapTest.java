@@ -0,0 +1,84 @@
+package com.example.booking.index;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OccupancyBitmapTest {
+
+  private static final int BASE = 18_000;
+
+  @Test
+  public void whenNothingBooked_wholeWindowShouldBeFree() {
+    OccupancyBitmap bitmap = new OccupancyBitmap(BASE, 100);
+
+    assertArrayEquals(new int[] {BASE + 10, BASE + 20}, bitmap.freeRanges(BASE + 10, BASE + 20));
+  }
+
+  @Test
+  public void whenBookingInsideWindow_shouldSplitFreeRanges() {
+    OccupancyBitmap bitmap = new OccupancyBitmap(BASE, 200);
+    bitmap.occupy(1, BASE + 45, BASE + 46);
+    bitmap.occupy(2, BASE + 70, BASE + 140);
+
+    assertArrayEquals(
+        new int[] {BASE + 44, BASE + 44, BASE + 47, BASE + 69, BASE + 141, BASE + 150},
+        bitmap.freeRanges(BASE + 44, BASE + 150));
+  }
+
+  @Test
+  public void whenWindowStartsOrEndsBooked_shouldClipFreeRanges() {
+    OccupancyBitmap bitmap = new OccupancyBitmap(BASE, 100);
+    bitmap.occupy(1, BASE + 10, BASE + 12);
+    bitmap.occupy(2, BASE + 18, BASE + 25);
+
+    assertAll(
+        () ->
+            assertArrayEquals(
+                new int[] {BASE + 13, BASE + 17}, bitmap.freeRanges(BASE + 11, BASE + 20)),
+        () -> assertArrayEquals(new int[0], bitmap.freeRanges(BASE + 19, BASE + 22)));
+  }
+
+  @Test
+  public void whenReleasingNightsTakenByOtherBooking_shouldKeepThemOccupied() {
+    OccupancyBitmap bitmap = new OccupancyBitmap(BASE, 100);
+    bitmap.occupy(1, BASE + 5, BASE + 6);
+    // booking 2 took night 6 after booking 1 moved, but the move was applied later
+    bitmap.occupy(2, BASE + 6, BASE + 7);
+    bitmap.release(1, BASE + 5, BASE + 6);
+
+    assertAll(
+        () -> assertTrue(bitmap.isFree(BASE + 5, BASE + 5)),
+        () -> assertFalse(bitmap.isFree(BASE + 6, BASE + 7)));
+  }
+
+  @Test
+  public void whenBookingOutsideWindow_shouldBeIgnored() {
+    OccupancyBitmap bitmap = new OccupancyBitmap(BASE, 10);
+    bitmap.occupy(1, BASE - 5, BASE - 1);
+    bitmap.occupy(2, BASE + 8, BASE + 12);
+
+    assertAll(
+        () -> assertTrue(bitmap.isFree(BASE, BASE + 7)),
+        () -> assertFalse(bitmap.isFree(BASE + 9, BASE + 9)),
+        () -> assertFalse(bitmap.covers(BASE + 5, BASE + 10)));
+  }
+
+  @Test
+  public void whenCopyChanges_originalShouldStayUnchanged() {
+    OccupancyBitmap original = new OccupancyBitmap(BASE, 100);
+    original.occupy(1, BASE + 10, BASE + 12);
+    OccupancyBitmap copy = new OccupancyBitmap(original);
+    copy.release(1, BASE + 10, BASE + 12);
+    copy.occupy(2, BASE + 20, BASE + 21);
+
+    assertAll(
+        () -> assertFalse(original.isFree(BASE + 10, BASE + 12)),
+        () -> assertTrue(original.isFree(BASE + 20, BASE + 21)),
+        () -> assertTrue(copy.isFree(BASE + 10, BASE + 12)),
+        () -> assertFalse(copy.isFree(BASE + 20, BASE + 21)));
+  }
+}
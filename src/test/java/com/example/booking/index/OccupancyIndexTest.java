@@ -0,0 +1,82 @@
+package com.example.booking.index;
+
+import com.example.booking.event.BookingChangedEvent;
+import com.example.booking.model.BookingStatus;
+import com.example.booking.repository.BookingJdbcRepository;
+import com.example.booking.repository.VersionedBookedDaysConsumer;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class OccupancyIndexTest {
+
+  private static final LocalDate TODAY = LocalDate.now();
+
+  private final BookingJdbcRepository bookingJdbcRepository = mock(BookingJdbcRepository.class);
+
+  private final OccupancyIndex occupancyIndex = new OccupancyIndex(this.bookingJdbcRepository, 30);
+
+  @Before
+  public void setUp() {
+    when(this.bookingJdbcRepository.findResourceIds()).thenReturn(List.of(1L));
+    doAnswer(
+            invocation -> {
+              VersionedBookedDaysConsumer consumer = invocation.getArgument(3);
+              consumer.accept(10L, 0L, epochDay(TODAY.plusDays(2)), epochDay(TODAY.plusDays(3)));
+              return null;
+            })
+        .when(this.bookingJdbcRepository)
+        .forEachBookedDaysOnPrimary(eq(1L), any(), any(), any());
+    this.occupancyIndex.rebuild();
+  }
+
+  @Test
+  public void whenResourceHasBookings_shouldBeTracked() {
+    assertAll(
+        () -> assertTrue(this.occupancyIndex.isTracked(1L)),
+        () -> assertTrue(this.occupancyIndex.isOccupied(1L, TODAY, TODAY.plusDays(2))));
+  }
+
+  @Test
+  public void whenResourceUnknown_shouldAnswerEmptyWithoutTrackingIt() {
+    OccupancySnapshot first = this.occupancyIndex.snapshot(99L);
+    OccupancySnapshot second = this.occupancyIndex.snapshot(100L);
+
+    assertAll(
+        () -> assertSame(first, second),
+        () -> assertFalse(first.isOccupied(TODAY, TODAY.plusDays(29))),
+        () -> assertFalse(this.occupancyIndex.isTracked(99L)),
+        () -> assertFalse(this.occupancyIndex.isTracked(100L)));
+    verify(this.bookingJdbcRepository, never())
+        .forEachBookedDaysOnPrimary(eq(99L), any(), any(), any());
+  }
+
+  @Test
+  public void whenFirstBookingOfResourceCommitted_shouldStartTrackingIt() {
+    this.occupancyIndex.onBookingChanged(
+        new BookingChangedEvent(
+            11L, 2L, BookingStatus.ACTIVE, 0L, null, null, TODAY.plusDays(5), TODAY.plusDays(6)));
+
+    assertAll(
+        () -> assertTrue(this.occupancyIndex.isTracked(2L)),
+        () -> assertTrue(this.occupancyIndex.isOccupied(2L, TODAY.plusDays(6), TODAY.plusDays(8))));
+  }
+
+  private static int epochDay(LocalDate date) {
+    return (int) date.toEpochDay();
+  }
+}
@@ -0,0 +1,71 @@
+package com.example.booking.notification;
+
+import com.example.booking.event.BookingChangedEvent;
+import com.example.booking.model.BookingStatus;
+import com.example.booking.index.OccupancyIndex;
+import com.example.booking.repository.BookingJdbcRepository;
+import com.example.booking.request.CreateBookingRequestBody;
+import db.DatabaseIT;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.time.LocalDate;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@RunWith(SpringRunner.class)
+@Sql(scripts = "classpath:db/changelog/scripts/002-resource-date-range.sql")
+public class BookingChangeListenerTest extends DatabaseIT {
+
+  private static final Long RESOURCE_ID = 4L;
+
+  @Autowired private OccupancyIndex occupancyIndex;
+
+  @Autowired private BookingJdbcRepository bookingJdbcRepository;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Test
+  public void whenOtherNodeBooks_datesShouldBecomeOccupied() throws InterruptedException {
+    LocalDate arrivalDate = LocalDate.now().plusDays(70);
+    LocalDate departureDate = LocalDate.now().plusDays(71);
+    assertFalse(this.occupancyIndex.isOccupied(RESOURCE_ID, arrivalDate, departureDate));
+
+    // written as another node would, this node hears of it through the notification only
+    CreateBookingRequestBody request =
+        new CreateBookingRequestBody("test name", "test@mail.com", arrivalDate, departureDate);
+    request.setResourceId(RESOURCE_ID);
+    Long id = this.bookingJdbcRepository.insertAll(Collections.singletonList(request)).get(0);
+    this.jdbcTemplate.query(
+        "select pg_notify(?, ?)",
+        (RowCallbackHandler) resultSet -> {},
+        BookingChangeNotifier.CHANNEL,
+        BookingChangePayload.encode(
+            "other-node",
+            new BookingChangedEvent(
+                id,
+                RESOURCE_ID,
+                BookingStatus.ACTIVE,
+                0L,
+                null,
+                null,
+                arrivalDate,
+                departureDate)));
+
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (!this.occupancyIndex.isOccupied(RESOURCE_ID, arrivalDate, departureDate)
+        && System.currentTimeMillis() < deadline) {
+      Thread.sleep(50);
+    }
+    assertTrue(this.occupancyIndex.isOccupied(RESOURCE_ID, arrivalDate, departureDate));
+  }
+}
@@ -0,0 +1,45 @@
+package com.example.booking.notification;
+
+import com.example.booking.event.BookingChangedEvent;
+import com.example.booking.model.BookingStatus;
+import org.junit.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BookingChangePayloadTest {
+
+  private static final LocalDate FROM = LocalDate.of(2030, 1, 10);
+
+  @Test
+  public void whenDecodingEncodedChange_shouldRestoreIt() {
+    String payload =
+        BookingChangePayload.encode(
+            "node",
+            new BookingChangedEvent(
+                7L, 2L, BookingStatus.CANCELLED, 3L, FROM, FROM.plusDays(1), null, null));
+
+    BookingChangedEvent decoded = BookingChangePayload.decode(payload);
+
+    assertAll(
+        () -> assertEquals("node", BookingChangePayload.nodeId(payload)),
+        () -> assertEquals(7L, decoded.getBookingId()),
+        () -> assertEquals(2L, decoded.getResourceId()),
+        () -> assertEquals(BookingStatus.CANCELLED, decoded.getStatus()),
+        () -> assertEquals(3L, decoded.getVersion()),
+        () -> assertEquals(FROM, decoded.getPreviousFrom()),
+        () -> assertEquals(FROM.plusDays(1), decoded.getPreviousTo()),
+        () -> assertNull(decoded.getFrom()),
+        () -> assertNull(decoded.getTo()));
+  }
+
+  @Test
+  public void whenPayloadMalformed_shouldFail() {
+    assertThrows(
+        IllegalArgumentException.class, () -> BookingChangePayload.decode("node,7,2,9,0,,,,"));
+  }
+}
@@ -0,0 +1,62 @@
+package com.example.booking.outbox;
+
+import com.example.booking.dto.BookingEventDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FileOutboxSinkTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private final ObjectMapper objectMapper =
+      new ObjectMapper()
+          .registerModule(new JavaTimeModule())
+          .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+  @Test
+  public void whenPublishingBatches_shouldAppendOneLinePerEvent() throws IOException {
+    Path file = this.folder.getRoot().toPath().resolve("events.ndjson");
+    FileOutboxSink sink = new FileOutboxSink(this.objectMapper, file);
+    try {
+      sink.publish(Arrays.asList(event(1), event(2)));
+      sink.publish(Collections.singletonList(event(3)));
+    } finally {
+      sink.close();
+    }
+
+    List<String> lines = Files.readAllLines(file);
+
+    assertAll(
+        () -> assertEquals(3, lines.size()),
+        () -> assertTrue(lines.get(0).contains("\"position\":1")),
+        () -> assertTrue(lines.get(2).contains("\"position\":3")),
+        () -> assertTrue(lines.get(2).contains("\"arrivalDate\":\"2030-01-10\"")));
+  }
+
+  private static BookingEventDTO event(long position) {
+    return BookingEventDTO.builder()
+        .position(position)
+        .bookingId(position)
+        .resourceId(1L)
+        .status("ACTIVE")
+        .arrivalDate(LocalDate.of(2030, 1, 10))
+        .departureDate(LocalDate.of(2030, 1, 11))
+        .build();
+  }
+}
@@ -0,0 +1,68 @@
+package com.example.booking.outbox;
+
+import com.example.booking.dto.BookingEventDTO;
+import com.example.booking.model.BookingStatus;
+import com.example.booking.request.CreateBookingRequestBody;
+import com.example.booking.service.BookingEventService;
+import com.example.booking.service.BookingService;
+import db.DatabaseIT;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@RunWith(SpringRunner.class)
+@Sql(scripts = "classpath:db/changelog/scripts/002-resource-date-range.sql")
+public class OutboxRelayTest extends DatabaseIT {
+
+  @Autowired private BookingService bookingService;
+
+  @Autowired private BookingEventService bookingEventService;
+
+  @Autowired private OutboxRelay outboxRelay;
+
+  @Test
+  public void whenBookingCreatedThenCancelled_shouldRelayBothChangesInOrder()
+      throws InterruptedException {
+    LocalDate arrivalDate = LocalDate.now().plusDays(74);
+    LocalDate departureDate = LocalDate.now().plusDays(75);
+    Long id =
+        this.bookingService.create(
+            new CreateBookingRequestBody("test name", "test@mail.com", arrivalDate, departureDate));
+    this.bookingService.cancel(id);
+
+    List<BookingEventDTO> events = this.relayedEventsOf(id);
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (events.size() < 2 && System.currentTimeMillis() < deadline) {
+      this.outboxRelay.relay();
+      Thread.sleep(50);
+      events = this.relayedEventsOf(id);
+    }
+
+    List<BookingEventDTO> relayed = events;
+    assertAll(
+        () -> assertEquals(2, relayed.size()),
+        () -> assertEquals(BookingStatus.ACTIVE.name(), relayed.get(0).getStatus()),
+        () -> assertEquals(arrivalDate, relayed.get(0).getArrivalDate()),
+        () -> assertEquals(BookingStatus.CANCELLED.name(), relayed.get(1).getStatus()),
+        () -> assertEquals(departureDate, relayed.get(1).getPreviousDepartureDate()),
+        () -> assertTrue(relayed.get(0).getPosition() < relayed.get(1).getPosition()));
+  }
+
+  private List<BookingEventDTO> relayedEventsOf(Long bookingId) {
+    return this.bookingEventService.eventsAfter(0, 1000).getEvents().stream()
+        .filter(event -> event.getBookingId().equals(bookingId))
+        .collect(Collectors.toList());
+  }
+}
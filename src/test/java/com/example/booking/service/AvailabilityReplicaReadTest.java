@@ -0,0 +1,177 @@
+package com.example.booking.service;
+
+import com.example.booking.cache.AvailabilityCache;
+import com.example.booking.dto.AvailableDatesDTO;
+import com.example.booking.datasource.ReadReplicaRoutingDataSource;
+import com.example.booking.datasource.ReplicaSet;
+import com.example.booking.index.OccupancyIndex;
+import com.example.booking.index.OccupancySnapshot;
+import com.example.booking.repository.BookingJdbcRepository;
+import com.example.booking.transformer.AvailableDateRangeTransformer;
+import com.example.booking.validation.BookingRules;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Availability computed from the database, with a replica picked for read-only transactions that
+ * has not received a committed booking yet.
+ */
+@RunWith(SpringRunner.class)
+@ContextConfiguration(classes = AvailabilityReplicaReadTest.RoutingConfig.class)
+public class AvailabilityReplicaReadTest {
+
+  private static final LocalDate FROM = LocalDate.now().plusDays(10);
+
+  private static final LocalDate TO = FROM.plusDays(4);
+
+  @Autowired private BookingJdbcRepository bookingJdbcRepository;
+
+  @Autowired private ReplicaSet replicaSet;
+
+  private AvailabilityService availabilityService;
+
+  @Before
+  public void setUp() {
+    OccupancySnapshot uncovered = mock(OccupancySnapshot.class);
+    when(uncovered.covers(any(), any())).thenReturn(false);
+    OccupancyIndex occupancyIndex = mock(OccupancyIndex.class);
+    when(occupancyIndex.snapshot(any())).thenReturn(uncovered);
+    this.availabilityService =
+        new AvailabilityService(
+            new AvailableDateRangeTransformer(),
+            occupancyIndex,
+            new AvailabilityCache(1000),
+            this.bookingJdbcRepository,
+            BookingRules.defaults());
+  }
+
+  @Test
+  public void whenReplicaLagging_shouldCacheAvailabilityReadOnPrimary() throws SQLException {
+    AvailableDatesDTO first = this.availabilityService.availabilityFor(1L, FROM, TO);
+    AvailableDatesDTO cached = this.availabilityService.availabilityFor(1L, FROM, TO);
+
+    List<String> expected = List.of(FROM + "/" + FROM, FROM.plusDays(3) + "/" + TO);
+    assertAll(
+        () -> assertEquals(expected, ranges(first)), () -> assertEquals(expected, ranges(cached)));
+    verify(this.replicaSet.getDataSources().get(0).getConnection(), never())
+        .prepareStatement(anyString());
+  }
+
+  private static List<String> ranges(AvailableDatesDTO availableDates) {
+    return availableDates.getAvailableDates().stream()
+        .map(range -> range.getFrom() + "/" + range.getTo())
+        .collect(Collectors.toList());
+  }
+
+  @Configuration
+  @EnableTransactionManagement
+  static class RoutingConfig {
+
+    @Bean
+    ReplicaSet replicaSet() throws SQLException {
+      ReplicaSet replicaSet =
+          new ReplicaSet(List.of(laggingReplica()), 5000, 1000, 1, Clock.systemUTC());
+      replicaSet.check();
+      return replicaSet;
+    }
+
+    @Bean
+    DataSource dataSource(ReplicaSet replicaSet) throws SQLException {
+      ReadReplicaRoutingDataSource routingDataSource =
+          new ReadReplicaRoutingDataSource(primary(), replicaSet, new SimpleMeterRegistry());
+      routingDataSource.afterPropertiesSet();
+      return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    PlatformTransactionManager transactionManager(DataSource dataSource) {
+      return new DataSourceTransactionManager(dataSource);
+    }
+
+    @Bean
+    BookingJdbcRepository bookingJdbcRepository(DataSource dataSource) {
+      return new BookingJdbcRepository(new JdbcTemplate(dataSource));
+    }
+  }
+
+  /** Primary holding a booking of the second and third nights of the window. */
+  private static DataSource primary() throws SQLException {
+    return dataSource(
+        () -> {
+          ResultSet resultSet = mock(ResultSet.class);
+          when(resultSet.next()).thenReturn(true, false);
+          when(resultSet.getLong("id")).thenReturn(7L);
+          when(resultSet.getLong("version")).thenReturn(0L);
+          when(resultSet.getInt("arrival_day")).thenReturn((int) FROM.plusDays(1).toEpochDay());
+          when(resultSet.getInt("departure_day")).thenReturn((int) FROM.plusDays(2).toEpochDay());
+          return resultSet;
+        });
+  }
+
+  /** Replica caught up as far as its lag check tells, but without the booking yet. */
+  private static DataSource laggingReplica() throws SQLException {
+    DataSource replica = dataSource(() -> mock(ResultSet.class));
+    Connection connection = replica.getConnection();
+    Statement lagCheck = mock(Statement.class);
+    when(connection.createStatement()).thenReturn(lagCheck);
+    when(lagCheck.executeQuery(anyString()))
+        .thenAnswer(
+            invocation -> {
+              ResultSet resultSet = mock(ResultSet.class);
+              ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+              when(resultSet.next()).thenReturn(true, false);
+              when(resultSet.getMetaData()).thenReturn(metaData);
+              when(metaData.getColumnCount()).thenReturn(1);
+              when(resultSet.getObject(1, Number.class)).thenReturn(0L);
+              return resultSet;
+            });
+    return replica;
+  }
+
+  private static DataSource dataSource(ResultSetFactory bookedDays) throws SQLException {
+    DataSource dataSource = mock(DataSource.class);
+    Connection connection = mock(Connection.class);
+    PreparedStatement statement = mock(PreparedStatement.class);
+    when(dataSource.getConnection()).thenReturn(connection);
+    when(connection.prepareStatement(anyString())).thenReturn(statement);
+    when(statement.executeQuery()).thenAnswer(invocation -> bookedDays.create());
+    return dataSource;
+  }
+
+  private interface ResultSetFactory {
+    ResultSet create() throws SQLException;
+  }
+}
@@ -2,6 +2,8 @@ package com.example.booking.service;
 
 import com.example.booking.dto.AvailableDateDTO;
 import com.example.booking.dto.AvailableDatesDTO;
+import com.example.booking.dto.SuggestedStayDTO;
+import com.example.booking.model.Booking;
 import com.example.booking.request.CreateBookingRequestBody;
 import db.DatabaseIT;
 import org.junit.Test;
@@ -13,13 +15,16 @@ import org.springframework.test.context.junit4.SpringRunner;
 
 import java.time.LocalDate;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
+import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @RunWith(SpringRunner.class)
-@Sql(scripts = "classpath:db/changelog/scripts/001-unique-date-range.sql")
+@Sql(scripts = "classpath:db/changelog/scripts/002-resource-date-range.sql")
 public class AvailabilityServiceTest extends DatabaseIT {
 
   @Autowired private AvailabilityService availabilityService;
@@ -36,7 +41,9 @@ public class AvailabilityServiceTest extends DatabaseIT {
 
     AvailableDatesDTO availableDatesDTO =
         this.availabilityService.availabilityFor(
-            LocalDate.now().plusDays(44), LocalDate.now().plusDays(48));
+            Booking.DEFAULT_RESOURCE_ID,
+            LocalDate.now().plusDays(44),
+            LocalDate.now().plusDays(48));
 
     Map<Integer, AvailableDateDTO> expectedAvailableDates = new HashMap<>();
     expectedAvailableDates.put(
@@ -61,4 +68,29 @@ public class AvailabilityServiceTest extends DatabaseIT {
       i++;
     }
   }
+
+  @Test
+  public void whenSuggestingStays_shouldReturnClosestFreeArrivalsEarlierFirst() {
+    CreateBookingRequestBody request =
+        new CreateBookingRequestBody(
+            "test name",
+            "test@mail.com",
+            LocalDate.now().plusDays(10),
+            LocalDate.now().plusDays(12));
+    request.setResourceId(5L);
+    this.bookingService.create(request);
+
+    List<SuggestedStayDTO> stays =
+        this.availabilityService.suggestStays(5L, 2, LocalDate.now().plusDays(10), 3).getStays();
+
+    assertAll(
+        () ->
+            assertEquals(
+                List.of(
+                    LocalDate.now().plusDays(7),
+                    LocalDate.now().plusDays(13),
+                    LocalDate.now().plusDays(6)),
+                stays.stream().map(SuggestedStayDTO::getArrivalDate).collect(Collectors.toList())),
+        () -> assertEquals(LocalDate.now().plusDays(9), stays.get(0).getDepartureDate()));
+  }
 }
@@ -1,8 +1,10 @@
 package com.example.booking.service;
 
 import com.example.booking.dto.BookingDTO;
+import com.example.booking.dto.BookingResultDTO;
 import com.example.booking.exception.InvalidBookingStateException;
 import com.example.booking.exception.UnavailableBookingDateException;
+import com.example.booking.model.BookingStatus;
 import com.example.booking.request.CreateBookingRequestBody;
 import com.example.booking.request.UpdateBookingRequestBody;
 import db.DatabaseIT;
@@ -14,7 +16,11 @@ import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -24,7 +30,7 @@ import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @RunWith(SpringRunner.class)
-@Sql(scripts = "classpath:db/changelog/scripts/001-unique-date-range.sql")
+@Sql(scripts = "classpath:db/changelog/scripts/002-resource-date-range.sql")
 public class BookingServiceTest extends DatabaseIT {
 
   @Autowired private BookingService bookingService;
@@ -40,6 +46,91 @@ public class BookingServiceTest extends DatabaseIT {
     assertThrows(UnavailableBookingDateException.class, () -> this.bookingService.create(request));
   }
 
+  @Test
+  public void whenSameDatesOnDifferentResources_shouldCreateBoth() {
+    LocalDate arrivalDate = LocalDate.now().plusDays(33);
+    LocalDate departureDate = LocalDate.now().plusDays(34);
+    CreateBookingRequestBody request =
+        new CreateBookingRequestBody("test name", "test@mail.com", arrivalDate, departureDate);
+    CreateBookingRequestBody otherResourceRequest =
+        new CreateBookingRequestBody("test name", "test@mail.com", arrivalDate, departureDate);
+    otherResourceRequest.setResourceId(2L);
+
+    Long id = this.bookingService.create(request);
+    Long otherResourceId = this.bookingService.create(otherResourceRequest);
+
+    assertNotEquals(id, otherResourceId);
+  }
+
+  @Test
+  public void whenConfirmingHold_shouldBecomeActive() {
+    LocalDate arrivalDate = LocalDate.now().plusDays(39);
+    LocalDate departureDate = LocalDate.now().plusDays(40);
+    CreateBookingRequestBody request =
+        new CreateBookingRequestBody("test name", "test@mail.com", arrivalDate, departureDate);
+    BookingDTO held = this.bookingService.hold(request, Instant.now().plusSeconds(600));
+
+    BookingDTO confirmed = this.bookingService.confirm(held.getId());
+
+    assertAll(
+        () -> assertEquals(BookingStatus.HELD.name(), held.getStatus()),
+        () -> assertEquals(BookingStatus.ACTIVE.name(), confirmed.getStatus()),
+        () -> assertNull(confirmed.getHeldUntil()),
+        () ->
+            assertThrows(
+                InvalidBookingStateException.class,
+                () -> this.bookingService.confirm(held.getId())));
+  }
+
+  @Test
+  public void whenHoldExpires_datesShouldBeAvailableAgain() {
+    LocalDate arrivalDate = LocalDate.now().plusDays(41);
+    LocalDate departureDate = LocalDate.now().plusDays(42);
+    CreateBookingRequestBody request =
+        new CreateBookingRequestBody("test name", "test@mail.com", arrivalDate, departureDate);
+    BookingDTO held = this.bookingService.hold(request, Instant.now().minusSeconds(1));
+
+    this.bookingService.releaseExpiredHolds(Collections.singletonList(held.getId()));
+
+    assertAll(
+        () ->
+            assertEquals(
+                BookingStatus.CANCELLED.name(), this.bookingService.find(held.getId()).getStatus()),
+        () -> assertNotNull(this.bookingService.create(request)));
+  }
+
+  @Test
+  public void whenCancellingRange_shouldCancelOverlappingBookingsOnly() {
+    LocalDate from = LocalDate.now().plusDays(52);
+    CreateBookingRequestBody first =
+        new CreateBookingRequestBody("test name", "test@mail.com", from, from.plusDays(1));
+    CreateBookingRequestBody second =
+        new CreateBookingRequestBody(
+            "test name", "test@mail.com", from.plusDays(2), from.plusDays(3));
+    CreateBookingRequestBody outside =
+        new CreateBookingRequestBody(
+            "test name", "test@mail.com", from.plusDays(4), from.plusDays(5));
+    Long firstId = this.bookingService.create(first);
+    Long secondId = this.bookingService.create(second);
+    Long outsideId = this.bookingService.create(outside);
+
+    List<Long> cancelled =
+        this.bookingService.cancelRange(first.getResourceId(), from, from.plusDays(2));
+
+    assertAll(
+        () -> assertEquals(Arrays.asList(firstId, secondId), cancelled),
+        () ->
+            assertEquals(
+                BookingStatus.CANCELLED.name(), this.bookingService.find(secondId).getStatus()),
+        () ->
+            assertEquals(
+                BookingStatus.ACTIVE.name(), this.bookingService.find(outsideId).getStatus()),
+        () ->
+            assertThrows(
+                InvalidBookingStateException.class, () -> this.bookingService.cancel(firstId)),
+        () -> assertNotNull(this.bookingService.create(first)));
+  }
+
   @Test
   public void whenCancellingCancelledBooking_shouldFail() {
     LocalDate arrivalDate = LocalDate.now().plusDays(4);
@@ -164,6 +255,52 @@ public class BookingServiceTest extends DatabaseIT {
         () -> assertEquals(bookingDTO.getDepartureDate(), LocalDate.now().plusDays(14)));
   }
 
+  /**
+   * A batch where the second item overlaps the first one and the fourth overlaps an existing
+   * booking. Only the first and third should be created.
+   */
+  @Test
+  public void whenCreatingBatchWithOverlaps_shouldRejectOverlappingItems() {
+    this.bookingService.create(
+        new CreateBookingRequestBody(
+            "existing",
+            "test@mail.com",
+            LocalDate.now().plusDays(31),
+            LocalDate.now().plusDays(31)));
+
+    List<BookingResultDTO> results =
+        this.bookingService.createAll(
+            Arrays.asList(
+                new CreateBookingRequestBody(
+                    "first",
+                    "test@mail.com",
+                    LocalDate.now().plusDays(26),
+                    LocalDate.now().plusDays(27)),
+                new CreateBookingRequestBody(
+                    "second",
+                    "test@mail.com",
+                    LocalDate.now().plusDays(27),
+                    LocalDate.now().plusDays(28)),
+                new CreateBookingRequestBody(
+                    "third",
+                    "test@mail.com",
+                    LocalDate.now().plusDays(28),
+                    LocalDate.now().plusDays(29)),
+                new CreateBookingRequestBody(
+                    "fourth",
+                    "test@mail.com",
+                    LocalDate.now().plusDays(30),
+                    LocalDate.now().plusDays(31))));
+
+    assertAll(
+        () -> assertEquals(4, results.size()),
+        () -> assertNotNull(results.get(0).getId()),
+        () -> assertNull(results.get(1).getId()),
+        () -> assertNotNull(results.get(2).getId()),
+        () -> assertNull(results.get(3).getId()),
+        () -> assertEquals("third", this.bookingService.find(results.get(2).getId()).getName()));
+  }
+
   @Test
   public void whenMultipleBookingRequest_shouldCreateOneAndRejectOthers()
       throws InterruptedException {
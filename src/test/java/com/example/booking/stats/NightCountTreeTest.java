@@ -0,0 +1,52 @@
+package com.example.booking.stats;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class NightCountTreeTest {
+
+  private static final int BASE = 18_000;
+
+  @Test
+  public void whenStaysAddedAndRemoved_shouldSumLikeDailyCounters() {
+    NightCountTree tree = new NightCountTree(BASE, 120);
+    long[] counters = new long[120];
+    Random random = new Random(42);
+
+    for (int i = 0; i < 500; i++) {
+      int from = random.nextInt(120);
+      int to = Math.min(119, from + random.nextInt(10));
+      long delta = random.nextBoolean() ? 1 : -1;
+      tree.add(BASE + from, BASE + to, delta);
+      for (int day = from; day <= to; day++) {
+        counters[day] += delta;
+      }
+    }
+
+    for (int from = 0; from < 120; from += 7) {
+      for (int to = from; to < 120; to += 11) {
+        long expected = 0;
+        for (int day = from; day <= to; day++) {
+          expected += counters[day];
+        }
+        assertEquals(expected, tree.sum(BASE + from, BASE + to));
+      }
+    }
+  }
+
+  @Test
+  public void whenDaysOutsideWindow_shouldBeIgnored() {
+    NightCountTree tree = new NightCountTree(BASE, 10);
+    tree.add(BASE - 5, BASE + 1, 1);
+    tree.add(BASE + 8, BASE + 20, 1);
+
+    assertAll(
+        () -> assertEquals(4, tree.sum(BASE - 100, BASE + 100)),
+        () -> assertEquals(0, tree.sum(BASE + 20, BASE + 30)),
+        () -> assertEquals(1, tree.sum(BASE + 9, BASE + 9)));
+  }
+}
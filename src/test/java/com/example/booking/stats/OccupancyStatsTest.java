@@ -0,0 +1,165 @@
+package com.example.booking.stats;
+
+import com.example.booking.event.BookingChangedEvent;
+import com.example.booking.model.BookingStatus;
+import com.example.booking.repository.VersionedBookedDaysConsumer;
+import com.example.booking.repository.BookingJdbcRepository;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class OccupancyStatsTest {
+
+  private static final LocalDate TODAY = LocalDate.now();
+
+  private final BookingJdbcRepository bookingJdbcRepository = mock(BookingJdbcRepository.class);
+
+  private final OccupancyStats occupancyStats =
+      new OccupancyStats(this.bookingJdbcRepository, 30, 60);
+
+  @Before
+  public void setUp() {
+    when(this.bookingJdbcRepository.findResourceIds()).thenReturn(List.of(1L, 2L));
+    doAnswer(
+            invocation -> {
+              VersionedBookedDaysConsumer consumer = invocation.getArgument(3);
+              consumer.accept(10L, 0L, epochDay(TODAY.minusDays(3)), epochDay(TODAY.minusDays(1)));
+              return null;
+            })
+        .when(this.bookingJdbcRepository)
+        .forEachBookedDaysOnPrimary(eq(1L), any(), any(), any());
+    this.occupancyStats.rebuild();
+  }
+
+  @Test
+  public void whenLoaded_shouldCountBookedNightsPerResourceAndInTotal() {
+    assertAll(
+        () -> assertEquals(2, this.occupancyStats.resourceCount()),
+        () -> assertEquals(TODAY.minusDays(30), this.occupancyStats.getFirstDay()),
+        () -> assertEquals(TODAY.plusDays(59), this.occupancyStats.getLastDay()),
+        () -> assertEquals(3, this.occupancyStats.bookedNights(1L, TODAY.minusDays(10), TODAY)),
+        () -> assertEquals(0, this.occupancyStats.bookedNights(2L, TODAY.minusDays(10), TODAY)),
+        () -> assertEquals(2, this.occupancyStats.bookedNights(TODAY.minusDays(2), TODAY)));
+  }
+
+  @Test
+  public void whenBookingMovedAndCancelled_shouldFollowChanges() {
+    this.occupancyStats.onBookingChanged(
+        new BookingChangedEvent(
+            11L, 2L, BookingStatus.ACTIVE, 0L, null, null, TODAY.plusDays(5), TODAY.plusDays(6)));
+    this.occupancyStats.onBookingChanged(
+        new BookingChangedEvent(
+            10L,
+            1L,
+            BookingStatus.ACTIVE,
+            1L,
+            TODAY.minusDays(3),
+            TODAY.minusDays(1),
+            TODAY.plusDays(5),
+            TODAY.plusDays(5)));
+    this.occupancyStats.onBookingChanged(
+        new BookingChangedEvent(
+            11L,
+            2L,
+            BookingStatus.CANCELLED,
+            1L,
+            TODAY.plusDays(5),
+            TODAY.plusDays(6),
+            null,
+            null));
+
+    assertAll(
+        () -> assertEquals(0, this.occupancyStats.bookedNights(TODAY.minusDays(30), TODAY)),
+        () -> assertEquals(1, this.occupancyStats.bookedNights(TODAY, TODAY.plusDays(59))),
+        () -> assertEquals(1, this.occupancyStats.bookedNights(1L, TODAY, TODAY.plusDays(59))));
+  }
+
+  @Test
+  public void whenOlderChangeDeliveredLate_shouldBeDropped() {
+    this.occupancyStats.onBookingChanged(
+        new BookingChangedEvent(
+            10L,
+            1L,
+            BookingStatus.ACTIVE,
+            2L,
+            TODAY.plusDays(8),
+            TODAY.plusDays(9),
+            TODAY.plusDays(5),
+            TODAY.plusDays(5)));
+    this.occupancyStats.onBookingChanged(
+        new BookingChangedEvent(
+            10L,
+            1L,
+            BookingStatus.ACTIVE,
+            1L,
+            TODAY.minusDays(3),
+            TODAY.minusDays(1),
+            TODAY.plusDays(8),
+            TODAY.plusDays(9)));
+
+    assertAll(
+        () -> assertEquals(0, this.occupancyStats.bookedNights(TODAY.minusDays(30), TODAY)),
+        () -> assertEquals(1, this.occupancyStats.bookedNights(1L, TODAY, TODAY.plusDays(59))));
+  }
+
+  @Test
+  public void whenChangesCommittedDuringRebuild_shouldCountEveryBookingOnce() {
+    doAnswer(
+            invocation -> {
+              VersionedBookedDaysConsumer consumer = invocation.getArgument(3);
+              consumer.accept(10L, 0L, epochDay(TODAY.minusDays(3)), epochDay(TODAY.minusDays(1)));
+              consumer.accept(12L, 0L, epochDay(TODAY.plusDays(1)), epochDay(TODAY.plusDays(2)));
+              consumer.accept(14L, 0L, epochDay(TODAY.plusDays(6)), epochDay(TODAY.plusDays(6)));
+              // committed before the read, delivered while the resource loads
+              this.occupancyStats.onBookingChanged(
+                  new BookingChangedEvent(
+                      12L,
+                      1L,
+                      BookingStatus.ACTIVE,
+                      0L,
+                      null,
+                      null,
+                      TODAY.plusDays(1),
+                      TODAY.plusDays(2)));
+              // committed after the read
+              this.occupancyStats.onBookingChanged(
+                  new BookingChangedEvent(
+                      13L,
+                      1L,
+                      BookingStatus.ACTIVE,
+                      0L,
+                      null,
+                      null,
+                      TODAY.plusDays(4),
+                      TODAY.plusDays(5)));
+              return null;
+            })
+        .when(this.bookingJdbcRepository)
+        .forEachBookedDaysOnPrimary(eq(1L), any(), any(), any());
+
+    this.occupancyStats.rebuild();
+    // committed before the read, delivered once the resource is loaded
+    this.occupancyStats.onBookingChanged(
+        new BookingChangedEvent(
+            14L, 1L, BookingStatus.ACTIVE, 0L, null, null, TODAY.plusDays(6), TODAY.plusDays(6)));
+
+    assertAll(
+        () -> assertEquals(3, this.occupancyStats.bookedNights(1L, TODAY.minusDays(10), TODAY)),
+        () -> assertEquals(5, this.occupancyStats.bookedNights(1L, TODAY, TODAY.plusDays(59))),
+        () -> assertEquals(5, this.occupancyStats.bookedNights(TODAY, TODAY.plusDays(59))));
+  }
+
+  private static int epochDay(LocalDate date) {
+    return (int) date.toEpochDay();
+  }
+}
@@ -0,0 +1,90 @@
+package com.example.booking.validation;
+
+import com.example.booking.repository.BookingPolicyRepository;
+import db.DatabaseIT;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(
+    properties = {
+      "management.endpoints.web.exposure.include=bookingrules",
+      "spring.security.user.name=booking-admin",
+      "spring.security.user.password=test-password",
+      "spring.security.user.roles=BOOKING_ADMIN"
+    })
+public class BookingRulesEndpointTest extends DatabaseIT {
+
+  private static final String ENDPOINT = "/actuator/bookingrules";
+
+  @Autowired private TestRestTemplate restTemplate;
+
+  @Autowired private BookingRules bookingRules;
+
+  @Autowired private BookingPolicyStore bookingPolicyStore;
+
+  @Autowired private BookingPolicyRepository bookingPolicyRepository;
+
+  @After
+  public void tearDown() {
+    this.bookingPolicyStore.store(BookingPolicy.DEFAULT);
+    this.bookingPolicyStore.reload();
+  }
+
+  @Test
+  public void whenNotAuthenticated_shouldRejectChange() {
+    ResponseEntity<String> response =
+        this.restTemplate.postForEntity(ENDPOINT, Map.of("maxNights", 5), String.class);
+
+    assertAll(
+        () -> assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode()),
+        () -> assertEquals(BookingPolicy.DEFAULT.getMaxNights(), this.maxNights()));
+  }
+
+  @Test
+  public void whenAdmin_shouldStoreAndApplyChange() {
+    ResponseEntity<String> response =
+        this.restTemplate
+            .withBasicAuth("booking-admin", "test-password")
+            .postForEntity(ENDPOINT, Map.of("maxNights", 5), String.class);
+
+    assertAll(
+        () -> assertEquals(HttpStatus.OK, response.getStatusCode()),
+        () -> assertEquals(5, this.maxNights()),
+        () ->
+            assertEquals(
+                Optional.of(5),
+                this.bookingPolicyRepository.find().map(BookingPolicy::getMaxNights)));
+  }
+
+  @Test
+  public void whenPolicyStoredElsewhere_shouldApplyIt() throws InterruptedException {
+    // as another instance would: stored and announced, never set on this one directly
+    this.bookingPolicyStore.store(new BookingPolicy(4, 2, 0));
+    long deadline = System.currentTimeMillis() + 5_000;
+    while (this.maxNights() != 4 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(50);
+    }
+
+    assertAll(
+        () -> assertEquals(4, this.maxNights()),
+        () -> assertEquals(2, this.bookingRules.getPolicy().getMaxAnticipationMonths()),
+        () -> assertEquals(0, this.bookingRules.getPolicy().getMinLeadDays()));
+  }
+
+  private int maxNights() {
+    return this.bookingRules.getPolicy().getMaxNights();
+  }
+}
@@ -0,0 +1,107 @@
+package com.example.booking.validation;
+
+import org.junit.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class BookingRulesTest {
+
+  private static final LocalDate TODAY = LocalDate.of(2021, 5, 10);
+
+  private final MovableClock clock =
+      new MovableClock(TODAY.atTime(23, 59).toInstant(ZoneOffset.UTC));
+
+  private final BookingRules bookingRules = new BookingRules(BookingPolicy.DEFAULT, this.clock);
+
+  @Test
+  public void whenDatesWithinPolicy_shouldHaveNoViolation() {
+    assertAll(
+        () -> assertNull(this.bookingRules.evaluate(TODAY.plusDays(2), TODAY.plusDays(5))),
+        () ->
+            assertNull(
+                this.bookingRules.evaluate(TODAY.plusMonths(1), TODAY.plusMonths(1).plusDays(1))),
+        () -> assertNull(this.bookingRules.evaluate(null, null)));
+  }
+
+  @Test
+  public void whenDatesBreakPolicy_shouldReportFirstViolation() {
+    assertAll(
+        () ->
+            assertEquals(
+                "Departure date must be higher than arrival date",
+                this.bookingRules.evaluate(TODAY.plusDays(3), TODAY.plusDays(3)).getMessage()),
+        () ->
+            assertEquals(
+                "Can't book more than 3 day(s)",
+                this.bookingRules.evaluate(TODAY.plusDays(2), TODAY.plusDays(6)).getMessage()),
+        () ->
+            assertEquals(
+                "Arrival date must be less than 2021-06-10",
+                this.bookingRules
+                    .evaluate(TODAY.plusMonths(1).plusDays(1), TODAY.plusMonths(1).plusDays(2))
+                    .getMessage()),
+        () ->
+            assertEquals(
+                "arrivalDate",
+                this.bookingRules
+                    .evaluate(TODAY.plusDays(1), TODAY.plusDays(2))
+                    .getPropertyNode()));
+  }
+
+  @Test
+  public void whenDayChanges_shouldMoveArrivalWindow() {
+    BookingRuleViolation before = this.bookingRules.evaluate(TODAY.plusDays(2), TODAY.plusDays(3));
+
+    this.clock.instant = this.clock.instant.plusSeconds(60);
+
+    assertAll(
+        () -> assertNull(before),
+        () -> assertEquals(TODAY.plusDays(3), this.bookingRules.getEarliestArrival()),
+        () ->
+            assertSame(
+                this.bookingRules.getPolicy().arrivalTooSoon(),
+                this.bookingRules.evaluate(TODAY.plusDays(2), TODAY.plusDays(3))));
+  }
+
+  @Test
+  public void whenPolicyChanges_shouldApplyNewLimits() {
+    this.bookingRules.setPolicy(new BookingPolicy(7, 2, 0));
+
+    assertAll(
+        () -> assertNull(this.bookingRules.evaluate(TODAY.plusDays(1), TODAY.plusDays(8))),
+        () -> assertEquals(TODAY.plusMonths(2), this.bookingRules.getLatestArrival()));
+  }
+
+  private static final class MovableClock extends Clock {
+
+    private Instant instant;
+
+    private MovableClock(Instant instant) {
+      this.instant = instant;
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Instant instant() {
+      return this.instant;
+    }
+  }
+}
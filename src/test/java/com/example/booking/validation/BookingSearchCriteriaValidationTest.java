@@ -0,0 +1,58 @@
+package com.example.booking.validation;
+
+import com.example.booking.request.BookingSearchCriteria;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+import java.time.LocalDate;
+import java.util.Set;
+
+import static com.example.booking.constant.ExceptionMessages.FROM_DATE_AFTER_TO_DATE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BookingSearchCriteriaValidationTest {
+
+  private static ValidatorFactory validatorFactory;
+  private static Validator validator;
+
+  @BeforeClass
+  public static void createValidator() {
+    validatorFactory = Validation.buildDefaultValidatorFactory();
+    validator = validatorFactory.getValidator();
+  }
+
+  @AfterClass
+  public static void close() {
+    validatorFactory.close();
+  }
+
+  @Test
+  public void whenFromAfterTo_shouldBeInvalid() {
+    BookingSearchCriteria criteria =
+        BookingSearchCriteria.builder()
+            .from(LocalDate.now().plusDays(10))
+            .to(LocalDate.now().plusDays(9))
+            .build();
+
+    Set<ConstraintViolation<BookingSearchCriteria>> violations = validator.validate(criteria);
+
+    assertEquals(1, violations.size());
+    assertEquals(FROM_DATE_AFTER_TO_DATE, violations.iterator().next().getMessage());
+  }
+
+  @Test
+  public void whenOneDateOnly_shouldBeValid() {
+    BookingSearchCriteria criteria =
+        BookingSearchCriteria.builder().from(LocalDate.now().plusDays(10)).build();
+
+    Set<ConstraintViolation<BookingSearchCriteria>> violations = validator.validate(criteria);
+
+    assertTrue(violations.isEmpty());
+  }
+}
@@ -0,0 +1,11 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+ALTER TABLE booking
+    ADD COLUMN IF NOT EXISTS resource_id BIGINT NOT NULL DEFAULT 1;
+ALTER TABLE booking
+    DROP CONSTRAINT IF EXISTS unique_date_range;
+ALTER TABLE booking
+    ADD CONSTRAINT unique_date_range
+        EXCLUDE USING gist (
+        resource_id WITH =,
+        booking_date_range WITH &&
+        );
\ No newline at end of file
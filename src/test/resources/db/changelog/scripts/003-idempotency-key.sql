@@ -0,0 +1,7 @@
+CREATE TABLE IF NOT EXISTS idempotency_key
+(
+    idempotency_key VARCHAR(255) PRIMARY KEY,
+    booking_id      BIGINT    NOT NULL,
+    created_at      TIMESTAMP NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idempotency_key_created_at ON idempotency_key (created_at);
\ No newline at end of file
@@ -0,0 +1,3 @@
+ALTER TABLE booking
+    ADD COLUMN IF NOT EXISTS held_until TIMESTAMP;
+CREATE INDEX IF NOT EXISTS booking_held_until ON booking (held_until) WHERE held_until IS NOT NULL;
\ No newline at end of file
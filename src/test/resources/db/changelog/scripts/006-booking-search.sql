@@ -0,0 +1,4 @@
+CREATE INDEX IF NOT EXISTS booking_email_id ON booking (email, id);
+CREATE INDEX IF NOT EXISTS booking_status_id ON booking (status, id);
+CREATE INDEX IF NOT EXISTS booking_resource_id_id ON booking (resource_id, id);
+CREATE INDEX IF NOT EXISTS booking_date_range ON booking USING gist (booking_date_range);
@@ -0,0 +1,2 @@
+ALTER TABLE idempotency_key
+    ADD COLUMN IF NOT EXISTS request_hash VARCHAR(64);
\ No newline at end of file